@@ -0,0 +1,28 @@
+// k6 load script for POST /v1/chat/messages.
+// Run it once per app.chat.execution-mode (blocking | reactive) and compare
+// http_reqs (throughput) and http_req_duration p(99):
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 loadtest/chat-messages.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USE_RAG = (__ENV.USE_RAG || 'true') === 'true';
+
+export const options = {
+  vus: Number(__ENV.VUS || 100),
+  duration: __ENV.DURATION || '2m',
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const payload = JSON.stringify({
+  message: __ENV.MESSAGE || '이 부품의 역할을 설명해줘',
+  useRag: USE_RAG,
+});
+
+export default function () {
+  const res = http.post(`${BASE_URL}/v1/chat/messages`, payload, {
+    headers: { 'Content-Type': 'application/json' },
+    timeout: '120s',
+  });
+  check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,36 @@
+// k6 load script for POST /api/models/{modelId}/quiz/answer.
+// Submits a 20-question exam per iteration; compare http_req_duration p(99)
+// and http_reqs before and after a change to grading:
+//   k6 run -e BASE_URL=http://localhost:8080 -e MODEL_ID=v4_engine -e VUS=500 loadtest/quiz-submit.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODEL_ID = __ENV.MODEL_ID || 'v4_engine';
+const QUESTIONS = Number(__ENV.QUESTIONS || 20);
+
+export const options = {
+  vus: Number(__ENV.VUS || 500),
+  duration: __ENV.DURATION || '2m',
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+// One exam shared by every VU, so all submissions grade the same hot model.
+export function setup() {
+  const res = http.get(`${BASE_URL}/api/models/${MODEL_ID}/quiz/?count=${QUESTIONS}`);
+  check(res, { 'quiz fetched': (r) => r.status === 200 });
+  const answers = res.json().map((q) => ({
+    questionId: q.questionId,
+    type: q.type,
+    selectedOptionNo: q.type === 'MULTIPLE_CHOICE' ? 1 : null,
+    subjectiveAnswer: q.type === 'MULTIPLE_CHOICE' ? null : '답안',
+  }));
+  return { payload: JSON.stringify({ answers }) };
+}
+
+export default function (data) {
+  const res = http.post(`${BASE_URL}/api/models/${MODEL_ID}/quiz/answer`, data.payload, {
+    headers: { 'Content-Type': 'application/json' },
+  });
+  check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,119 @@
+package com.test.dosa_backend.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.test.dosa_backend.repository.AssemblyNodeRow;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serialization time of the viewer payload as JSON ({@link ModelResponseDto}) versus {@link NodeBinaryFormat}.
+ * <p>
+ * gradle jmh -PjmhArgs="ViewerSerializationBenchmark"
+ * <br>{@code payloadBytes} / {@code gzipBytes} report the encoded size per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ViewerSerializationBenchmark {
+
+    @Param({"200", "2000"})
+    public int nodes;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private ModelInfoDto model;
+    private List<PartInfoDto> parts;
+    private List<AssemblyNodeRow> rows;
+    private byte[] header;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        model = ModelInfoDto.builder().modelId("v4_engine").title("V4 Engine").overview("overview").build();
+        parts = new ArrayList<>();
+        for (int p = 0; p < 40; p++) {
+            parts.add(PartInfoDto.builder().partId("v4_part_" + p).displayNameKo("부품 " + p)
+                    .glbUrl("https://cdn.example.com/v4/part_" + p + ".glb").materialType("steel").build());
+        }
+        rows = new ArrayList<>(nodes);
+        for (int n = 0; n < nodes; n++) {
+            rows.add(new AssemblyNodeRow("v4_node_" + n, "v4_part_" + (n % 40), n == 0 ? null : "v4_node_" + random.nextInt(n),
+                    r(random), r(random), r(random), r(random), r(random), r(random), r(random),
+                    1.0, 1.0, 1.0, r(random), r(random), r(random), r(random), r(random), r(random)));
+        }
+        Map<String, Object> h = new LinkedHashMap<>();
+        h.put("model", model);
+        h.put("parts", parts);
+        header = mapper.writeValueAsBytes(h);
+    }
+
+    @Benchmark
+    public byte[] json(Size size) throws IOException {
+        List<NodeInfoDto> dtos = rows.stream().map(NodeInfoDto::fromRow).toList();
+        byte[] out = mapper.writeValueAsBytes(ModelResponseDto.of(model, parts, dtos));
+        size.record(out);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] binary(Size size) throws IOException {
+        byte[] out = NodeBinaryFormat.encode(header, rows);
+        size.record(out);
+        return out;
+    }
+
+    private static double r(Random random) {
+        return random.nextDouble() * 2 - 1;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long payloadBytes;
+        public long gzipBytes;
+
+        // Sizes are the same for every call, so measuring once per iteration keeps gzip out of the timing.
+        private boolean measured;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            measured = false;
+        }
+
+        void record(byte[] payload) throws IOException {
+            if (measured) return;
+            measured = true;
+            payloadBytes = payload.length;
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+                gz.write(payload);
+            }
+            gzipBytes = bos.size();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.test.dosa_backend.rag;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pages/sec and peak heap of {@link PdfTextExtractor} by worker count and heap cap.
+ * <p>
+ * gradle jmh -PjmhArgs="PdfExtractBenchmark -p pdf=/path/to/manual.pdf"
+ * <br>Without {@code pdf}, a synthetic {@code pages}-page document is generated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PdfExtractBenchmark {
+
+    @Param("")
+    public String pdf;
+
+    @Param("400")
+    public int pages;
+
+    @Param({"1", "4"})
+    public int workers;
+
+    // -1 = PDFBox default (heap only); otherwise heap cap per handle before spilling to temp files
+    @Param({"-1", "8388608"})
+    public long maxMainMemoryBytes;
+
+    private String path;
+    private ExecutorService pool;
+    private PdfTextExtractor extractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (pdf == null || pdf.isBlank()) {
+            File tmp = Files.createTempFile("pdf-extract-bench", ".pdf").toFile();
+            tmp.deleteOnExit();
+            writeSyntheticPdf(tmp, pages);
+            path = tmp.getAbsolutePath();
+        } else {
+            path = pdf;
+        }
+        pool = Executors.newFixedThreadPool(workers);
+        extractor = new PdfTextExtractor(pool, workers, 16, maxMainMemoryBytes, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public long extract(PageCounter counter, HeapPeak heap) throws IOException {
+        // Consume the stream the way ingest does, without materializing every page.
+        long chars = 0;
+        try (PdfTextExtractor.PageStream stream = extractor.open(path)) {
+            for (PdfTextExtractor.PageText page : stream) {
+                chars += page.text().length();
+                counter.pages++;
+            }
+        }
+        return chars;
+    }
+
+    // "pages" is reported as pages/sec.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PageCounter {
+        public long pages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pages = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // "peakHeapMb" is the heap high-water mark across measured iterations.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapPeak {
+        public double peakHeapMb;
+
+        @TearDown(Level.Iteration)
+        public void capture() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+            }
+            peakHeapMb = Math.max(peakHeapMb, peak / (1024.0 * 1024.0));
+        }
+    }
+
+    private static void writeSyntheticPdf(File out, int pageCount) throws IOException {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument doc = new PDDocument()) {
+            for (int p = 1; p <= pageCount; p++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                    cs.beginText();
+                    cs.setFont(font, 10);
+                    cs.setLeading(12);
+                    cs.newLineAtOffset(40, 750);
+                    for (int line = 0; line < 55; line++) {
+                        cs.showText("Page " + p + " line " + line
+                                + ": the gearbox transmits torque from the motor shaft to the rotor assembly.");
+                        cs.newLine();
+                    }
+                    cs.endText();
+                }
+            }
+            doc.save(out);
+        }
+    }
+}
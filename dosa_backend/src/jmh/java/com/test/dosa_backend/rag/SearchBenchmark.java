@@ -0,0 +1,140 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.test.dosa_backend.config.VectorIndexProperties;
+
+/**
+ * Latency of one similarity search: the old SQL (query vector formatted into the text twice, document filter
+ * as a generated IN list) against {@link VectorStoreRepository#similaritySearch} (vector and uuid[] bound as
+ * parameters, fixed SQL that the driver prepares once per connection).
+ * <p>
+ * Runs against an ingested database; stored embeddings are used as queries:
+ * <br>gradle jmh -PjmhArgs="SearchBenchmark -p url=jdbc:postgresql://localhost:5432/dosa -p user=... -p password=..."
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int QUERIES = 64;
+    private static final int TOP_K = 5;
+    private static final RowMapper<VectorStoreRepository.SearchHit> HIT = (rs, i) -> new VectorStoreRepository.SearchHit(
+            rs.getObject("chunk_id", UUID.class),
+            rs.getObject("document_id", UUID.class),
+            rs.getInt("chunk_index"),
+            rs.getString("content_text"),
+            rs.getString("meta"),
+            rs.getString("doc_title"),
+            rs.getDouble("distance"));
+
+    @Param("jdbc:postgresql://localhost:5432/dosa")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    // 0 = search all documents; otherwise filter by this many document ids
+    @Param({"0", "3"})
+    public int documentFilter;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private VectorStoreRepository repository;
+    private List<float[]> queries;
+    private List<UUID> documentIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(url, user, password, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new VectorStoreRepository(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new VectorIndexProperties(), Runnable::run, "text-embedding-3-small", 0);
+        queries = repository.sampleEmbeddings(QUERIES);
+        if (queries.isEmpty()) {
+            throw new IllegalStateException("chunk_embeddings is empty; ingest documents first.");
+        }
+        documentIds = documentFilter <= 0 ? null
+                : jdbcTemplate.queryForList("SELECT id FROM documents ORDER BY random() LIMIT ?", UUID.class, documentFilter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<VectorStoreRepository.SearchHit> literalSql() {
+        float[] q = nextQuery();
+        String queryVector = "'" + toVectorLiteral(q) + "'::vector";
+        StringBuilder sql = new StringBuilder("SELECT c.id AS chunk_id, c.document_id, c.chunk_index, c.content_text, c.meta, d.title AS doc_title, ")
+                .append("(e.embedding <=> ").append(queryVector).append(") AS distance ")
+                .append("FROM document_chunks c JOIN chunk_embeddings e ON e.chunk_id = c.id JOIN documents d ON d.id = c.document_id ");
+        List<Object> params = new ArrayList<>();
+        if (documentIds != null && !documentIds.isEmpty()) {
+            sql.append("WHERE c.document_id IN (");
+            for (int i = 0; i < documentIds.size(); i++) {
+                sql.append(i > 0 ? ",?" : "?");
+                params.add(documentIds.get(i));
+            }
+            sql.append(") ");
+        }
+        sql.append("ORDER BY e.embedding <=> ").append(queryVector).append(" LIMIT ?");
+        params.add(TOP_K);
+        return jdbcTemplate.query(sql.toString(), HIT, params.toArray());
+    }
+
+    @Benchmark
+    public List<VectorStoreRepository.SearchHit> boundParameters() {
+        return repository.similaritySearch(nextQuery(), TOP_K, documentIds);
+    }
+
+    private float[] nextQuery() {
+        float[] q = queries.get(next);
+        next = (next + 1) % queries.size();
+        return q;
+    }
+
+    // The formatting similaritySearch used before the vector was bound as a parameter.
+    private static String toVectorLiteral(float[] embedding) {
+        StringBuilder sb = new StringBuilder(embedding.length * 8);
+        sb.append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(String.format(Locale.US, "%.8f", embedding[i]));
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
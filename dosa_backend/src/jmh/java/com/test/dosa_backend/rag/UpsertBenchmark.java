@@ -0,0 +1,134 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Wall time and allocation per stored chunk embedding: the old path (vector formatted into the SQL text,
+ * one INSERT per chunk) against {@link VectorStoreRepository.EmbeddingBatchSetter} (PGvector parameters,
+ * one JDBC batch). Both write the same upsert into a scratch copy of chunk_embeddings.
+ * <p>
+ * Needs a PostgreSQL database with pgvector:
+ * <br>gradle jmh -PjmhArgs="UpsertBenchmark -prof gc -p url=jdbc:postgresql://localhost:5432/dosa -p user=... -p password=..."
+ * <br>Scores are per chunk; {@code gc.alloc.rate.norm} is bytes allocated per chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UpsertBenchmark {
+
+    // Chunks per embeddings batch during ingest
+    private static final int BATCH = 64;
+    private static final String TABLE = "chunk_embeddings_upsert_bench";
+    private static final String MODEL = "text-embedding-3-small";
+    private static final String BATCH_SQL =
+            "INSERT INTO " + TABLE + " (chunk_id, embedding, model, created_at) VALUES (?, ?, ?, NOW()) " +
+                    "ON CONFLICT (chunk_id) DO UPDATE SET embedding = EXCLUDED.embedding, model = EXCLUDED.model";
+
+    @Param("jdbc:postgresql://localhost:5432/dosa")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    @Param("1536")
+    public int dimensions;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private float[][] embeddings;
+    private List<VectorStoreRepository.ChunkEmbedding> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(url, user, password, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE " + TABLE + " (" +
+                "chunk_id UUID PRIMARY KEY, embedding vector(" + dimensions + ") NOT NULL, " +
+                "model VARCHAR(255), created_at TIMESTAMPTZ NOT NULL DEFAULT NOW())");
+
+        SplittableRandom random = new SplittableRandom(42);
+        embeddings = new float[BATCH][dimensions];
+        for (float[] e : embeddings) {
+            for (int i = 0; i < e.length; i++) e[i] = (float) (random.nextDouble() * 2 - 1);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE " + TABLE);
+    }
+
+    // Fresh chunk ids, so every invocation inserts like a first ingest does.
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        rows = new ArrayList<>(BATCH);
+        for (float[] e : embeddings) {
+            rows.add(new VectorStoreRepository.ChunkEmbedding(UUID.randomUUID(), e));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void literalPerRow() {
+        for (VectorStoreRepository.ChunkEmbedding row : rows) {
+            String sql = "INSERT INTO " + TABLE + " (chunk_id, embedding, model, created_at) " +
+                    "VALUES (?, '" + toVectorLiteral(row.embedding()) + "'::vector, ?, NOW()) " +
+                    "ON CONFLICT (chunk_id) DO UPDATE SET embedding = EXCLUDED.embedding, model = EXCLUDED.model";
+            jdbcTemplate.update(sql, row.chunkId(), MODEL);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] pgvectorBatch() {
+        return jdbcTemplate.batchUpdate(BATCH_SQL, new VectorStoreRepository.EmbeddingBatchSetter(rows, MODEL));
+    }
+
+    // The formatting upsertEmbedding used before the batch path.
+    private static String toVectorLiteral(float[] embedding) {
+        StringBuilder sb = new StringBuilder(embedding.length * 8);
+        sb.append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(String.format(Locale.US, "%.8f", embedding[i]));
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
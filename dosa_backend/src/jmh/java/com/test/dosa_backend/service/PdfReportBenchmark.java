@@ -0,0 +1,150 @@
+package com.test.dosa_backend.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.test.dosa_backend.dto.ModelInfoDto;
+import com.test.dosa_backend.dto.PdfRequestDto;
+import com.test.dosa_backend.repository.ModelRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Learning-report PDFs per second through {@link PdfService} (template, cached model content, openhtmltopdf),
+ * with the model lookup served by an in-memory repository stub. {@code render} streams the PDF like
+ * {@code PdfController}; {@code renderBuffered} keeps the former byte[] buffering for comparison. Run with the GC
+ * profiler to compare allocation per report (gc.alloc.rate.norm):
+ * <p>
+ * gradle jmh -PjmhArgs="PdfReportBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class PdfReportBenchmark {
+
+    @Param({"5", "50"})
+    public int chatMessages;
+
+    // size of the base64 modelImage snapshot
+    @Param({"0", "1048576"})
+    public int imageBytes;
+
+    private PdfService pdfService;
+    private PdfRequestDto request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        ModelInfoDto info = ModelInfoDto.builder()
+                .modelId("v4_engine")
+                .title("V4 엔진")
+                .overview("4기통 V형 엔진의 구조와 동작 원리")
+                .theory("## 4행정 사이클\\n* **흡입** 피스톤 하강 * **압축** 피스톤 상승 * **폭발** 점화 * **배기** 배출")
+                .build();
+        ModelRepository repository = (ModelRepository) Proxy.newProxyInstance(
+                ModelRepository.class.getClassLoader(),
+                new Class<?>[]{ModelRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findInfoByModelId")) return Optional.of(info);
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        pdfService = new PdfService(templateEngine,
+                new PdfReportContentCache(repository, new SimpleMeterRegistry(), 10, Duration.ZERO));
+
+        // Built from JSON like the controller does (ChatMessage has no constructor).
+        List<Map<String, String>> chatLogs = new ArrayList<>();
+        for (int i = 0; i < chatMessages; i++) {
+            chatLogs.add(Map.of(
+                    "question", "크랭크샤프트의 역할은? " + i,
+                    "answer", "<p>피스톤의 왕복 운동을 회전 운동으로 바꿉니다. " + i + "</p>"));
+        }
+        ObjectMapper mapper = JsonMapper.builder().build();
+        Map<String, Object> body = new HashMap<>(Map.of("memo", "메모", "chatLogs", chatLogs, "quizs", List.of()));
+        if (imageBytes > 0) {
+            body.put("modelImage", "data:image/png;base64," + Base64.getEncoder().encodeToString(png(imageBytes)));
+        }
+        String json = mapper.writeValueAsString(body);
+        request = mapper.readValue(json, PdfRequestDto.class);
+    }
+
+    // A valid PNG padded with an ancillary chunk up to roughly the given size.
+    private static byte[] png(int size) throws IOException {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        byte[] base = out.toByteArray();
+        // Insert a private "zzZz" chunk after the IHDR chunk (8-byte signature + 25-byte IHDR).
+        int insertAt = 33;
+        int padding = Math.max(0, size - base.length - 12);
+        ByteBuffer buf = ByteBuffer.allocate(base.length + padding + 12);
+        buf.put(base, 0, insertAt);
+        buf.putInt(padding).put("zzZz".getBytes(StandardCharsets.US_ASCII)).put(new byte[padding]);
+        CRC32 crc = new CRC32();
+        crc.update("zzZz".getBytes(StandardCharsets.US_ASCII));
+        crc.update(new byte[padding]);
+        buf.putInt((int) crc.getValue());
+        buf.put(base, insertAt, base.length - insertAt);
+        return buf.array();
+    }
+
+    // Streamed straight to the response, as PdfController does.
+    @Benchmark
+    public void render() {
+        pdfService.writePdf(pdfService.renderHtml(request, "v4_engine"), OutputStream.nullOutputStream());
+    }
+
+    // Previous behaviour: the whole PDF buffered and copied into a byte[] before writing the response.
+    @Benchmark
+    public byte[] renderBuffered() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pdfService.writePdf(pdfService.renderHtml(request, "v4_engine"), out);
+        return out.toByteArray();
+    }
+}
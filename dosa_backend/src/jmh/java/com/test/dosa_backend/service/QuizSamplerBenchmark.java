@@ -0,0 +1,65 @@
+package com.test.dosa_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-memory quiz sampling ({@link QuizSampler.IdPool}) by pool size and number of already-solved ids.
+ * <p>
+ * gradle jmh -PjmhArgs="QuizSamplerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class QuizSamplerBenchmark {
+
+    @Param({"10000", "100000"})
+    public int questions;
+
+    // share of the pool already solved and passed as excludedIds
+    @Param({"0", "0.5", "0.99"})
+    public double excludedRatio;
+
+    @Param("10")
+    public int count;
+
+    private QuizSampler.IdPool pool;
+    private List<Long> excluded;
+    private RandomGenerator random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = QuizSampler.IdPool.of(LongStream.rangeClosed(1, questions).boxed().toList());
+        SplittableRandom r = new SplittableRandom(42);
+        excluded = new ArrayList<>();
+        for (long id = 1; id <= questions; id++) {
+            if (r.nextDouble() < excludedRatio) excluded.add(id);
+        }
+        random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public List<Long> sample() {
+        return pool.sample(count, excluded, random);
+    }
+}
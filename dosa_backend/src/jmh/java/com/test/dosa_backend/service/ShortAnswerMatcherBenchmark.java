@@ -0,0 +1,45 @@
+package com.test.dosa_backend.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Short-answer grading throughput of a compiled {@link ShortAnswerMatcher} against typical submissions.
+ * <p>
+ * gradle jmh -PjmhArgs="ShortAnswerMatcherBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ShortAnswerMatcherBenchmark {
+
+    @Param({"크랭크샤프트", "크랭크 샤프트", "크랭크샤푸트", "캠샤프트", "crankshaft"})
+    public String submission;
+
+    private ShortAnswerMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        matcher = ShortAnswerMatcher.compile("크랭크 샤프트", "crankshaft|크랭크축", 2);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return matcher.matches(submission);
+    }
+}
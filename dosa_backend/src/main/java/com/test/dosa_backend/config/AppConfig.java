@@ -12,6 +12,8 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.test.dosa_backend.openai.OpenAiClient;
+
 @Configuration
 public class AppConfig {
 
@@ -26,6 +28,67 @@ public class AppConfig {
         return exec;
     }
 
+    @Bean(name = "embeddingExecutor")
+    public Executor embeddingExecutor(EmbeddingIngestProperties embeddingIngestProperties) {
+        // Threads only run batches admitted by EmbeddingPipeline's concurrency limiter.
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setThreadNamePrefix("embed-");
+        exec.setCorePoolSize(embeddingIngestProperties.getMaxConcurrency());
+        exec.setMaxPoolSize(embeddingIngestProperties.getMaxConcurrency());
+        exec.initialize();
+        return exec;
+    }
+
+    @Bean(name = "pdfExtractExecutor")
+    public Executor pdfExtractExecutor(@Value("${app.pdf-extract.workers:0}") int workers) {
+        int size = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setThreadNamePrefix("pdf-extract-");
+        exec.setCorePoolSize(size);
+        exec.setMaxPoolSize(size);
+        exec.initialize();
+        return exec;
+    }
+
+    @Bean(name = "reportExecutor")
+    public Executor reportExecutor(
+            @Value("${app.pdf.report-jobs.workers:0}") int workers,
+            @Value("${app.pdf.report-jobs.queue-capacity:100}") int queueCapacity
+    ) {
+        // PDF rendering is CPU-bound; leave half of the cores to request handling by default.
+        int size = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setThreadNamePrefix("report-");
+        exec.setCorePoolSize(size);
+        exec.setMaxPoolSize(size);
+        exec.setQueueCapacity(queueCapacity);
+        exec.initialize();
+        return exec;
+    }
+
+    @Bean(name = "retrievalExecutor")
+    public Executor retrievalExecutor(RetrievalProperties retrievalProperties) {
+        // Runs the lexical leg of hybrid retrieval next to the caller's embedding + vector search.
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setThreadNamePrefix("retrieval-");
+        exec.setCorePoolSize(retrievalProperties.getLexicalWorkers());
+        exec.setMaxPoolSize(retrievalProperties.getLexicalWorkers());
+        exec.setQueueCapacity(200);
+        exec.initialize();
+        return exec;
+    }
+
+    @Bean(name = "indexBuildExecutor")
+    public Executor indexBuildExecutor() {
+        // ANN / full-text index builds after startup; one at a time, they are I/O heavy.
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setThreadNamePrefix("index-build-");
+        exec.setCorePoolSize(1);
+        exec.setMaxPoolSize(1);
+        exec.initialize();
+        return exec;
+    }
+
     @Bean
     public WebClient openaiWebClient(
             @Value("${openai.base-url}") String baseUrl,
@@ -33,7 +96,7 @@ public class AppConfig {
     ) {
         // Increase memory for potentially large JSON (embeddings)
         ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(8 * 1024 * 1024))
+                .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(OpenAiClient.MAX_RESPONSE_BYTES))
                 .build();
 
         WebClient.Builder builder = WebClient.builder()
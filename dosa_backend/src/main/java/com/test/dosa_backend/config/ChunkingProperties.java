@@ -0,0 +1,42 @@
+package com.test.dosa_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+@ConfigurationProperties(prefix = "app.rag.chunking")
+public class ChunkingProperties {
+
+    // fixed | token | sentence | heading (used when a document does not choose one)
+    private String defaultStrategy = "fixed";
+    // Token budget per chunk for the token/sentence/heading strategies (cl100k_base tokens)
+    private int maxTokens = 400;
+    private int overlapTokens = 50;
+
+    public String getDefaultStrategy() {
+        return defaultStrategy;
+    }
+
+    public void setDefaultStrategy(String defaultStrategy) {
+        this.defaultStrategy = (defaultStrategy == null || defaultStrategy.isBlank())
+                ? "fixed" : defaultStrategy.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    public void setMaxTokens(int maxTokens) {
+        this.maxTokens = Math.max(16, maxTokens);
+    }
+
+    public int getOverlapTokens() {
+        return overlapTokens;
+    }
+
+    public void setOverlapTokens(int overlapTokens) {
+        this.overlapTokens = Math.max(0, overlapTokens);
+    }
+}
@@ -0,0 +1,107 @@
+package com.test.dosa_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.ingest.embedding")
+public class EmbeddingIngestProperties {
+
+    // OpenAI limits one embeddings request to 300k tokens and 2048 inputs.
+    public static final int API_MAX_TOKENS_PER_REQUEST = 300_000;
+    public static final int API_MAX_INPUTS_PER_REQUEST = 2048;
+
+    // A JSON-encoded float is up to ~22 bytes ("-0.0123456789012345,"); plus per-item envelope.
+    public static final int RESPONSE_BYTES_PER_DIMENSION = 22;
+    public static final int RESPONSE_BYTES_PER_ITEM = 64;
+    // Assumed when openai.embedding-dimensions is 0 (provider default); text-embedding-3-large has 3072.
+    public static final int DEFAULT_DIMENSIONS_ASSUMED = 3072;
+
+    // Token budget per request; kept below the API limit because token counts are estimated.
+    private int maxTokensPerRequest = 100_000;
+    private int maxInputsPerRequest = API_MAX_INPUTS_PER_REQUEST;
+    // Response body budget per request; must stay below the openaiWebClient buffer (OpenAiClient.MAX_RESPONSE_BYTES).
+    private int maxResponseBytes = 6 * 1024 * 1024;
+    // Concurrent embedding requests shared by all running ingest jobs
+    private int initialConcurrency = 2;
+    private int maxConcurrency = 4;
+    // Retry policy for HTTP 429
+    private int maxRetries = 6;
+    private long initialBackoffMs = 1_000;
+    private long maxBackoffMs = 30_000;
+
+    public int getMaxTokensPerRequest() {
+        return maxTokensPerRequest;
+    }
+
+    public void setMaxTokensPerRequest(int maxTokensPerRequest) {
+        this.maxTokensPerRequest = Math.max(1, Math.min(API_MAX_TOKENS_PER_REQUEST, maxTokensPerRequest));
+    }
+
+    public int getMaxInputsPerRequest() {
+        return maxInputsPerRequest;
+    }
+
+    public void setMaxInputsPerRequest(int maxInputsPerRequest) {
+        this.maxInputsPerRequest = Math.max(1, Math.min(API_MAX_INPUTS_PER_REQUEST, maxInputsPerRequest));
+    }
+
+    public int getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    public void setMaxResponseBytes(int maxResponseBytes) {
+        this.maxResponseBytes = Math.max(1, maxResponseBytes);
+    }
+
+    /**
+     * Inputs per request allowed by both {@code maxInputsPerRequest} and the response budget, since the
+     * response (one JSON float array per input) grows with {@code dimensions} (0 = provider default).
+     */
+    public int maxInputsPerRequest(int dimensions) {
+        int dims = dimensions > 0 ? dimensions : DEFAULT_DIMENSIONS_ASSUMED;
+        long bytesPerInput = (long) dims * RESPONSE_BYTES_PER_DIMENSION + RESPONSE_BYTES_PER_ITEM;
+        int byResponse = (int) Math.max(1, maxResponseBytes / bytesPerInput);
+        return Math.min(maxInputsPerRequest, byResponse);
+    }
+
+    public int getInitialConcurrency() {
+        return initialConcurrency;
+    }
+
+    public void setInitialConcurrency(int initialConcurrency) {
+        this.initialConcurrency = Math.max(1, initialConcurrency);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    public long getInitialBackoffMs() {
+        return initialBackoffMs;
+    }
+
+    public void setInitialBackoffMs(long initialBackoffMs) {
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(long maxBackoffMs) {
+        this.maxBackoffMs = Math.max(0, maxBackoffMs);
+    }
+}
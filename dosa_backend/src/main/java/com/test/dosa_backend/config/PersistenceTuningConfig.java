@@ -0,0 +1,50 @@
+package com.test.dosa_backend.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Batch-friendly JDBC/Hibernate defaults. Values set explicitly in application properties win.
+ */
+@Configuration
+public class PersistenceTuningConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(
+            @Value("${app.jpa.batch-size:50}") int batchSize
+    ) {
+        return (Map<String, Object> props) -> {
+            props.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            props.putIfAbsent("hibernate.order_inserts", true);
+            props.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+
+    /**
+     * Lets the PostgreSQL driver rewrite a JDBC batch of INSERTs into multi-row INSERTs,
+     * which is what turns batching into fewer round trips.
+     */
+    @Bean
+    public static BeanPostProcessor postgresBatchRewritePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource ds
+                        && ds.getJdbcUrl() != null
+                        && ds.getJdbcUrl().startsWith("jdbc:postgresql:")
+                        && !ds.getJdbcUrl().contains("reWriteBatchedInserts")
+                        && !ds.getDataSourceProperties().containsKey("reWriteBatchedInserts")) {
+                    ds.addDataSourceProperty("reWriteBatchedInserts", "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.test.dosa_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+@ConfigurationProperties(prefix = "app.rag.retrieval")
+public class RetrievalProperties {
+
+    // vector | hybrid (used when a request does not choose one)
+    private String defaultMode = "vector";
+    // RRF constant k in 1 / (k + rank); 60 is the value from the original RRF paper
+    private int rrfK = 60;
+    // Each hybrid leg fetches topK * candidateMultiplier candidates before fusion
+    private int candidateMultiplier = 4;
+    private int lexicalWorkers = 4;
+
+    public String getDefaultMode() {
+        return defaultMode;
+    }
+
+    public void setDefaultMode(String defaultMode) {
+        this.defaultMode = (defaultMode == null || defaultMode.isBlank())
+                ? "vector" : defaultMode.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int getRrfK() {
+        return rrfK;
+    }
+
+    public void setRrfK(int rrfK) {
+        this.rrfK = Math.max(1, rrfK);
+    }
+
+    public int getCandidateMultiplier() {
+        return candidateMultiplier;
+    }
+
+    public void setCandidateMultiplier(int candidateMultiplier) {
+        this.candidateMultiplier = Math.max(1, candidateMultiplier);
+    }
+
+    public int getLexicalWorkers() {
+        return lexicalWorkers;
+    }
+
+    public void setLexicalWorkers(int lexicalWorkers) {
+        this.lexicalWorkers = Math.max(1, lexicalWorkers);
+    }
+}
@@ -0,0 +1,74 @@
+package com.test.dosa_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+@ConfigurationProperties(prefix = "app.rag.vector-index")
+public class VectorIndexProperties {
+
+    public static final String TYPE_HNSW = "hnsw";
+    public static final String TYPE_IVFFLAT = "ivfflat";
+    public static final String TYPE_NONE = "none";
+
+    // hnsw | ivfflat | none
+    private String type = TYPE_HNSW;
+    // HNSW build parameters
+    private int m = 16;
+    private int efConstruction = 64;
+    // IVFFlat build parameter
+    private int lists = 100;
+    // Default per-query knobs (0 = server default)
+    private int efSearch = 0;
+    private int probes = 0;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = (type == null || type.isBlank()) ? TYPE_HNSW : type.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public void setM(int m) {
+        this.m = m;
+    }
+
+    public int getEfConstruction() {
+        return efConstruction;
+    }
+
+    public void setEfConstruction(int efConstruction) {
+        this.efConstruction = efConstruction;
+    }
+
+    public int getLists() {
+        return lists;
+    }
+
+    public void setLists(int lists) {
+        this.lists = lists;
+    }
+
+    public int getEfSearch() {
+        return efSearch;
+    }
+
+    public void setEfSearch(int efSearch) {
+        this.efSearch = efSearch;
+    }
+
+    public int getProbes() {
+        return probes;
+    }
+
+    public void setProbes(int probes) {
+        this.probes = probes;
+    }
+}
@@ -1,6 +1,7 @@
 package com.test.dosa_backend.controller;
 
 import com.test.dosa_backend.dto.ChatDtos;
+import com.test.dosa_backend.rag.RetrievalMode;
 import com.test.dosa_backend.service.ChatService;
 import com.test.dosa_backend.util.ImageInputs;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,27 +11,26 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
 
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Default ({@code app.chat.execution-mode=blocking}): generation runs on the servlet thread.
+ */
 @RestController
 @RequestMapping("/v1/chat")
+@ConditionalOnProperty(name = "app.chat.execution-mode", havingValue = "blocking", matchIfMissing = true)
 @Tag(name = "Chat", description = "Stateless chat message API")
-public class ChatController {
-
-    private final ChatService chatService;
-    private final ObjectMapper mapper = new ObjectMapper();
+public class ChatController extends ChatControllerSupport {
 
     public ChatController(ChatService chatService) {
-        this.chatService = chatService;
+        super(chatService);
     }
 
     @PostMapping("/messages")
@@ -43,7 +43,8 @@ public class ChatController {
                 req.documentIds(),
                 req.imageUrls(),
                 effectiveMetadata,
-                req.history()
+                req.history(),
+                RetrievalMode.parse(req.retrievalMode())
         );
         return toMessageResponse(res);
     }
@@ -57,6 +58,8 @@ public class ChatController {
             @Parameter(description = "User message text") @RequestPart("message") String message,
             @Parameter(description = "Enable/disable RAG retrieval for this turn")
             @RequestParam(value = "useRag", required = false) Boolean useRag,
+            @Parameter(description = "RAG retrieval mode for this turn: vector | hybrid (omitted = server default)")
+            @RequestParam(value = "retrievalMode", required = false) String retrievalMode,
             @Parameter(description = "Optional document UUIDs (repeat the field)") @RequestPart(value = "documentIds", required = false) List<UUID> documentIds,
             @Parameter(description = "Optional metadata as a JSON object string") @RequestPart(value = "extraMetadata", required = false) String extraMetadataJson,
             @Parameter(description = "Optional history as JSON array string") @RequestPart(value = "history", required = false) String historyJson,
@@ -73,75 +76,8 @@ public class ChatController {
         List<ChatDtos.HistoryMessage> history = parseHistory(historyJson);
         List<String> imageInputs = ImageInputs.filesToDataUrls(images);
 
-        var res = chatService.userMessage(message, useRag, documentIds, imageInputs, extraMetadata, history);
+        var res = chatService.userMessage(message, useRag, documentIds, imageInputs, extraMetadata, history,
+                RetrievalMode.parse(retrievalMode));
         return toMessageResponse(res);
     }
-
-    private ChatDtos.MessageResponse toMessageResponse(ChatService.ChatTurnResult res) {
-        ChatDtos.AppliedSystemPrompt dtoPrompt = null;
-        if (res != null && res.appliedSystemPrompt() != null) {
-            dtoPrompt = new ChatDtos.AppliedSystemPrompt(
-                    res.appliedSystemPrompt().rootSystemPrompt(),
-                    res.appliedSystemPrompt().modelId(),
-                    res.appliedSystemPrompt().modelSystemPromptApplied(),
-                    res.appliedSystemPrompt().modelSystemPrompt()
-            );
-        }
-        return new ChatDtos.MessageResponse(res.answer(), res.citations(), dtoPrompt);
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> parseExtraMetadata(String extraMetadataJson) {
-        if (extraMetadataJson == null || extraMetadataJson.isBlank()) return null;
-        try {
-            Object parsed = mapper.readValue(extraMetadataJson, Object.class);
-            if (parsed instanceof Map<?, ?> m) {
-                return (Map<String, Object>) m;
-            }
-            throw new IllegalArgumentException("extraMetadata must be a JSON object.");
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new IllegalArgumentException("extraMetadata must be valid JSON.", e);
-        }
-    }
-
-    private List<ChatDtos.HistoryMessage> parseHistory(String historyJson) {
-        if (historyJson == null || historyJson.isBlank()) return null;
-        try {
-            Object parsed = mapper.readValue(historyJson, Object.class);
-            if (!(parsed instanceof List<?> list)) {
-                throw new IllegalArgumentException("history must be a JSON array.");
-            }
-            return mapper.convertValue(list, new TypeReference<List<ChatDtos.HistoryMessage>>() {});
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new IllegalArgumentException("history must be valid JSON.", e);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> mergeRequestMetadata(ChatDtos.MessageRequest req) {
-        if (req == null) return null;
-        LinkedHashMap<String, Object> merged = new LinkedHashMap<>();
-
-        if (req.extraMetadata() != null && !req.extraMetadata().isEmpty()) {
-            merged.putAll(req.extraMetadata());
-        }
-        if (req.model() != null && !req.model().isEmpty()) {
-            merged.put("model", req.model());
-        }
-        if (req.parts() != null) {
-            Object normalizedParts = req.parts();
-            if (normalizedParts instanceof Map<?, ?> map) {
-                normalizedParts = List.of((Map<String, Object>) map);
-            } else if (!(normalizedParts instanceof List<?>)) {
-                throw new IllegalArgumentException("parts must be a JSON object or array.");
-            }
-            merged.put("parts", normalizedParts);
-        }
-
-        return merged.isEmpty() ? null : merged;
-    }
 }
@@ -0,0 +1,139 @@
+package com.test.dosa_backend.controller;
+
+import com.test.dosa_backend.dto.ChatDtos;
+import com.test.dosa_backend.openai.OpenAiException;
+import com.test.dosa_backend.rag.RetrievalMode;
+import com.test.dosa_backend.service.ChatService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import reactor.core.publisher.Flux;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request parsing and the SSE endpoint shared by {@link ChatController} (blocking) and
+ * {@link ReactiveChatController}; {@code app.chat.execution-mode} decides which of the two is mapped.
+ */
+abstract class ChatControllerSupport {
+
+    final ChatService chatService;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    ChatControllerSupport(ChatService chatService) {
+        this.chatService = chatService;
+    }
+
+    @PostMapping(path = "/messages:stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Send a chat message and stream the answer (SSE)",
+            description = "Same request body as /messages. Events: citations (first, with citations and appliedSystemPrompt), delta (answer text chunks), done, error."
+    )
+    public Flux<ServerSentEvent<Object>> messageStream(@Valid @RequestBody ChatDtos.MessageRequest req) {
+        Map<String, Object> effectiveMetadata = mergeRequestMetadata(req);
+        ChatService.ChatStream stream = chatService.streamUserMessage(
+                req.message(),
+                req.useRag(),
+                req.documentIds(),
+                req.imageUrls(),
+                effectiveMetadata,
+                req.history(),
+                RetrievalMode.parse(req.retrievalMode())
+        );
+
+        ServerSentEvent<Object> start = sse("citations",
+                new ChatDtos.StreamStart(stream.citations(), toDtoPrompt(stream.appliedSystemPrompt())));
+        return Flux.concat(
+                        Flux.just(start),
+                        stream.deltas().map(d -> sse("delta", new ChatDtos.StreamDelta(d))),
+                        Flux.just(sse("done", "[DONE]"))
+                )
+                .onErrorResume(e -> {
+                    String code = (e instanceof OpenAiException) ? "OPENAI_ERROR" : "INTERNAL_ERROR";
+                    return Flux.just(sse("error", new ChatDtos.StreamError(code, e.getMessage())));
+                });
+    }
+
+    private ServerSentEvent<Object> sse(String event, Object data) {
+        return ServerSentEvent.builder(data).event(event).build();
+    }
+
+    ChatDtos.MessageResponse toMessageResponse(ChatService.ChatTurnResult res) {
+        ChatDtos.AppliedSystemPrompt dtoPrompt = (res == null) ? null : toDtoPrompt(res.appliedSystemPrompt());
+        return new ChatDtos.MessageResponse(res.answer(), res.citations(), dtoPrompt);
+    }
+
+    private ChatDtos.AppliedSystemPrompt toDtoPrompt(ChatService.AppliedSystemPrompt prompt) {
+        if (prompt == null) {
+            return null;
+        }
+        return new ChatDtos.AppliedSystemPrompt(
+                prompt.rootSystemPrompt(),
+                prompt.modelId(),
+                prompt.modelSystemPromptApplied(),
+                prompt.modelSystemPrompt()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> parseExtraMetadata(String extraMetadataJson) {
+        if (extraMetadataJson == null || extraMetadataJson.isBlank()) return null;
+        try {
+            Object parsed = mapper.readValue(extraMetadataJson, Object.class);
+            if (parsed instanceof Map<?, ?> m) {
+                return (Map<String, Object>) m;
+            }
+            throw new IllegalArgumentException("extraMetadata must be a JSON object.");
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("extraMetadata must be valid JSON.", e);
+        }
+    }
+
+    List<ChatDtos.HistoryMessage> parseHistory(String historyJson) {
+        if (historyJson == null || historyJson.isBlank()) return null;
+        try {
+            Object parsed = mapper.readValue(historyJson, Object.class);
+            if (!(parsed instanceof List<?> list)) {
+                throw new IllegalArgumentException("history must be a JSON array.");
+            }
+            return mapper.convertValue(list, new TypeReference<List<ChatDtos.HistoryMessage>>() {});
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("history must be valid JSON.", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> mergeRequestMetadata(ChatDtos.MessageRequest req) {
+        if (req == null) return null;
+        LinkedHashMap<String, Object> merged = new LinkedHashMap<>();
+
+        if (req.extraMetadata() != null && !req.extraMetadata().isEmpty()) {
+            merged.putAll(req.extraMetadata());
+        }
+        if (req.model() != null && !req.model().isEmpty()) {
+            merged.put("model", req.model());
+        }
+        if (req.parts() != null) {
+            Object normalizedParts = req.parts();
+            if (normalizedParts instanceof Map<?, ?> map) {
+                normalizedParts = List.of((Map<String, Object>) map);
+            } else if (!(normalizedParts instanceof List<?>)) {
+                throw new IllegalArgumentException("parts must be a JSON object or array.");
+            }
+            merged.put("parts", normalizedParts);
+        }
+
+        return merged.isEmpty() ? null : merged;
+    }
+}
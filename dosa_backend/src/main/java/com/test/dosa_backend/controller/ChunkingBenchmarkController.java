@@ -0,0 +1,51 @@
+package com.test.dosa_backend.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.test.dosa_backend.dto.DocumentDtos;
+import com.test.dosa_backend.service.DocumentService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Offline tuning tool: extracts and chunks a whole document on the request thread, so it is only mapped when
+ * {@code app.chunking.benchmark-endpoint.enabled=true} (off by default).
+ */
+@RestController
+@RequestMapping("/v1/documents")
+@ConditionalOnProperty(name = "app.chunking.benchmark-endpoint.enabled", havingValue = "true")
+@Tag(name = "Documents", description = "Document upload and ingestion management")
+public class ChunkingBenchmarkController {
+
+    private final DocumentService documentService;
+
+    public ChunkingBenchmarkController(DocumentService documentService) {
+        this.documentService = documentService;
+    }
+
+    @Operation(summary = "Compare chunking strategies on a document",
+            description = "Runs every chunking strategy over the document's extracted pages and reports chunks/sec and chunk size distribution. Nothing is persisted.")
+    @PostMapping("/{documentId}/chunking:benchmark")
+    public DocumentDtos.ChunkingBenchmarkResponse benchmarkChunking(
+            @Parameter(description = "Document ID (UUID)", required = true)
+            @PathVariable UUID documentId
+    ) throws IOException {
+        DocumentService.ChunkingBenchmark result = documentService.benchmarkChunking(documentId);
+        List<DocumentDtos.ChunkingStrategyStats> stats = result.strategies().stream()
+                .map(s -> new DocumentDtos.ChunkingStrategyStats(
+                        s.strategy(), s.chunkCount(), s.elapsedMs(), s.chunksPerSec(),
+                        s.minTokens(), s.p50Tokens(), s.p95Tokens(), s.maxTokens(), s.avgTokens(), s.avgChars()))
+                .toList();
+        return new DocumentDtos.ChunkingBenchmarkResponse(documentId, result.pageCount(), stats);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,6 +17,7 @@ import com.test.dosa_backend.domain.Document;
 import com.test.dosa_backend.domain.IngestJob;
 import com.test.dosa_backend.dto.DocumentDtos;
 import com.test.dosa_backend.service.DocumentService;
+import com.test.dosa_backend.service.IngestQueueWorker;
 import com.test.dosa_backend.service.IngestService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,20 +31,24 @@ public class DocumentController {
 
     private final DocumentService documentService;
     private final IngestService ingestService;
+    private final IngestQueueWorker ingestQueueWorker;
 
-    public DocumentController(DocumentService documentService, IngestService ingestService) {
+    public DocumentController(DocumentService documentService, IngestService ingestService, IngestQueueWorker ingestQueueWorker) {
         this.documentService = documentService;
         this.ingestService = ingestService;
+        this.ingestQueueWorker = ingestQueueWorker;
     }
 
     @Operation(summary = "Upload a PDF document")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public DocumentDtos.DocumentResponse upload(
             @RequestPart("file") MultipartFile file,
-            @RequestPart(value = "title", required = false) String title
+            @RequestPart(value = "title", required = false) String title,
+            @Parameter(description = "fixed | token | sentence | heading (default: server setting)")
+            @RequestPart(value = "chunkingStrategy", required = false) String chunkingStrategy
     ) throws IOException {
-        Document doc = documentService.uploadPdf(title, file);
-        return new DocumentDtos.DocumentResponse(doc.getId(), doc.getTitle(), doc.getStatus(), doc.getCreatedAt(), doc.getUpdatedAt());
+        Document doc = documentService.uploadPdf(title, file, chunkingStrategy);
+        return toDocumentResponse(doc);
     }
 
     @Operation(summary = "Get document status by documentId")
@@ -52,18 +58,20 @@ public class DocumentController {
             @PathVariable UUID documentId
     ) {
         Document doc = documentService.get(documentId).orElseThrow(() -> new IllegalArgumentException("document not found"));
-        return new DocumentDtos.DocumentResponse(doc.getId(), doc.getTitle(), doc.getStatus(), doc.getCreatedAt(), doc.getUpdatedAt());
+        return toDocumentResponse(doc);
     }
 
-    @Operation(summary = "Create and start ingest job for a document")
+    @Operation(summary = "Queue an ingest job for a document", description = "The job is stored in ingest_jobs and picked up by the next free ingest worker on any node.")
     @PostMapping("/{documentId}/ingest")
     public DocumentDtos.IngestJobResponse ingest(
             @Parameter(description = "Document ID (UUID)", required = true)
-            @PathVariable UUID documentId
+            @PathVariable UUID documentId,
+            @Parameter(description = "Override the document's chunking strategy: fixed | token | sentence | heading")
+            @RequestParam(required = false) String chunkingStrategy
     ) {
-        IngestJob job = ingestService.createJob(documentId);
-        ingestService.runJobAsync(job.getId());
-        return new DocumentDtos.IngestJobResponse(job.getId(), documentId, job.getStatus().name(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(), job.getChunkCount(), job.getEmbeddingModel(), job.getErrorMessage());
+        IngestJob job = ingestService.createJob(documentId, chunkingStrategy);
+        ingestQueueWorker.wakeUp();
+        return new DocumentDtos.IngestJobResponse(job.getId(), documentId, job.getStatus().name(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(), job.getChunkCount(), job.getReusedChunkCount(), job.getEmbeddedChunkCount(), job.getEmbeddingModel(), job.getErrorMessage());
     }
 
     @Operation(summary = "Get ingest job status by jobId")
@@ -73,6 +81,10 @@ public class DocumentController {
             @PathVariable UUID jobId
     ) {
         IngestJob job = ingestService.getJob(jobId);
-        return new DocumentDtos.IngestJobResponse(job.getId(), job.getDocument().getId(), job.getStatus().name(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(), job.getChunkCount(), job.getEmbeddingModel(), job.getErrorMessage());
+        return new DocumentDtos.IngestJobResponse(job.getId(), job.getDocument().getId(), job.getStatus().name(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(), job.getChunkCount(), job.getReusedChunkCount(), job.getEmbeddedChunkCount(), job.getEmbeddingModel(), job.getErrorMessage());
+    }
+
+    private DocumentDtos.DocumentResponse toDocumentResponse(Document doc) {
+        return new DocumentDtos.DocumentResponse(doc.getId(), doc.getTitle(), doc.getStatus(), doc.getChunkingStrategy(), doc.getCreatedAt(), doc.getUpdatedAt());
     }
 }
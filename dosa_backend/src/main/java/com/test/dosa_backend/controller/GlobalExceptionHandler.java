@@ -1,6 +1,10 @@
 package com.test.dosa_backend.controller;
 
 import com.test.dosa_backend.openai.OpenAiException;
+import com.test.dosa_backend.rag.IndexBuildInProgressException;
+import com.test.dosa_backend.service.PdfRenderBusyException;
+import com.test.dosa_backend.service.PdfReportJobNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -36,6 +40,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(payload("OPENAI_ERROR", e.getMessage()));
     }
 
+    @ExceptionHandler(PdfRenderBusyException.class)
+    public ResponseEntity<Map<String, Object>> handlePdfRenderBusy(PdfRenderBusyException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(payload("PDF_RENDER_BUSY", e.getMessage()));
+    }
+
+    @ExceptionHandler(PdfReportJobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handlePdfReportJobNotFound(PdfReportJobNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(payload("PDF_REPORT_JOB_NOT_FOUND", e.getMessage()));
+    }
+
+    @ExceptionHandler(IndexBuildInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleIndexBuildInProgress(IndexBuildInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(payload("INDEX_BUILD_IN_PROGRESS", e.getMessage()));
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<Map<String, Object>> handleMaxUpload(MaxUploadSizeExceededException e) {
         String msg = "Uploaded file is too large. Increase upload limits or upload a smaller file.";
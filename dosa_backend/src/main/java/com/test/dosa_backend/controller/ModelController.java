@@ -1,8 +1,12 @@
 package com.test.dosa_backend.controller;
 
+import com.test.dosa_backend.dto.ExplodeSampleDto;
 import com.test.dosa_backend.dto.ModelSliceDto;
 import com.test.dosa_backend.dto.ModelResponseDto;
+import com.test.dosa_backend.dto.NodeBinaryFormat;
+import com.test.dosa_backend.service.ExplodeAnimationService;
 import com.test.dosa_backend.service.ModelService;
+import com.test.dosa_backend.service.ModelViewerCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,12 +18,21 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @Tag(name = "Model API", description = "3D 모델 정보 조회 및 모델 리스트를 제공하는 API입니다.")
 @RestController
 @RequestMapping("/api")
@@ -27,6 +40,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class ModelController {
 
     private final ModelService modelService;
+    private final ModelViewerCache modelViewerCache;
+    private final ExplodeAnimationService explodeAnimationService;
 
     // 1. 모델 상세 정보 조회
     @Operation(
@@ -35,15 +50,88 @@ public class ModelController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "조회 성공", content = @Content(schema = @Schema(implementation = ModelResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "If-None-Match의 ETag와 동일 (본문 없음)", content = @Content),
             @ApiResponse(responseCode = "404", description = "존재하지 않는 모델 ID", content = @Content)
     })
     @GetMapping("/api/models/{id}/viewer")
-    public ResponseEntity<ModelResponseDto> getModelInformation(
+    public ResponseEntity<byte[]> getModelInformation(
+            @Parameter(description = "모델 식별자 (ID)", example = "v4_engine", required = true)
+            @PathVariable String id,
+            @Parameter(description = "이전 응답의 ETag") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        // 직렬화된 JSON을 캐시에서 그대로 내려보냄 (DB 조회, Jackson 직렬화 생략)
+        return cachedResponse(modelViewerCache.get(id).json(), MediaType.APPLICATION_JSON, ifNoneMatch);
+    }
+
+    // 1-1. 모델 상세 정보 (바이너리): Accept: application/octet-stream
+    @Operation(
+            summary = "모델 상세 정보 조회 (바이너리)",
+            description = "Accept: application/octet-stream 요청 시 노드를 float32 struct-of-arrays로 패킹한 바이너리를 반환합니다. "
+                    + "형식: 'DSN1' 헤더, model/parts JSON, 노드 ID 문자열 테이블, partIndex/parentIndex(i32), "
+                    + "pos/quat/scale/explodeDir/explodeDistance/explodeStart/explodeDuration 컬럼(f32, little-endian)."
+    )
+    @GetMapping(path = "/api/models/{id}/viewer", produces = NodeBinaryFormat.MEDIA_TYPE)
+    public ResponseEntity<byte[]> getModelInformationBinary(
+            @Parameter(description = "모델 식별자 (ID)", example = "v4_engine", required = true)
+            @PathVariable String id,
+            @Parameter(description = "이전 응답의 ETag") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return cachedResponse(modelViewerCache.get(id).binary(), MediaType.APPLICATION_OCTET_STREAM, ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> cachedResponse(ModelViewerCache.Representation representation, MediaType contentType, String ifNoneMatch) {
+        if (representation.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(representation.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(representation.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(representation.body());
+    }
+
+    // 1-2. 분해 애니메이션 월드 행렬 샘플링
+    @Operation(
+            summary = "분해(explode) 애니메이션 샘플링",
+            description = "요청한 진행값 t(여러 개 가능, 예: ?t=0&t=0.5&t=1)마다 전체 노드의 월드 변환 행렬(column-major 4x4)을 계산해 반환합니다. "
+                    + "노드는 부모가 자식보다 먼저 오도록 위상 정렬되어 있으며, t는 explodeStart/explodeDuration과 같은 단위입니다."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "샘플링 성공", content = @Content(schema = @Schema(implementation = ExplodeSampleDto.class))),
+            @ApiResponse(responseCode = "400", description = "t 누락 또는 샘플 수 초과 (노드 수 × 샘플 수 상한 포함)", content = @Content),
+            @ApiResponse(responseCode = "404", description = "존재하지 않는 모델 ID", content = @Content)
+    })
+    @GetMapping("/models/{id}/explode")
+    public ResponseEntity<ExplodeSampleDto> sampleExplode(
+            @Parameter(description = "모델 식별자 (ID)", example = "v4_engine", required = true)
+            @PathVariable String id,
+            @Parameter(description = "분해 진행값 (반복 가능)", example = "0.5", required = true)
+            @RequestParam("t") List<Double> t
+    ) {
+        return ResponseEntity.ok(explodeAnimationService.sample(id, t));
+    }
+
+    // 모델 데이터 변경 후 뷰어 캐시 무효화
+    @Operation(summary = "모델 뷰어 캐시 무효화", description = "특정 모델의 캐시된 뷰어 응답을 삭제합니다. 다음 조회 시 DB에서 다시 생성됩니다.")
+    @PostMapping("/models/{id}/viewer:invalidate")
+    public ResponseEntity<Void> invalidateViewer(
             @Parameter(description = "모델 식별자 (ID)", example = "v4_engine", required = true)
             @PathVariable String id
     ) {
-        ModelResponseDto modelDetail = modelService.getModelDetail(id);
-        return ResponseEntity.ok(modelDetail);
+        modelViewerCache.invalidate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "전체 모델 뷰어 캐시 무효화", description = "모든 모델의 캐시된 뷰어 응답을 삭제합니다.")
+    @PostMapping("/models/viewer:invalidate")
+    public ResponseEntity<Void> invalidateAllViewers() {
+        modelViewerCache.invalidateAll();
+        return ResponseEntity.noContent().build();
     }
 
     // 2. 모델 리스트 조회 (페이징/슬라이스)
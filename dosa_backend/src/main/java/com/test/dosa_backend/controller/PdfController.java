@@ -1,12 +1,22 @@
 package com.test.dosa_backend.controller;
 
 import com.test.dosa_backend.dto.PdfRequestDto;
+import com.test.dosa_backend.service.PdfReportContentCache;
+import com.test.dosa_backend.service.PdfRenderLimiter;
 import com.test.dosa_backend.service.PdfService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api")
@@ -15,18 +25,52 @@ import org.springframework.web.bind.annotation.*;
 public class PdfController {
 
     private final PdfService pdfService;
+    private final PdfReportContentCache pdfReportContentCache;
+    private final PdfRenderLimiter pdfRenderLimiter;
 
-    @Operation(summary = "PDF 저장 전 미리보기 및 저장 기능 제공", description = "PDF 저장 전 미리보기 기능과 PDF 저장 기능을 제공합니다.")
+    @Operation(summary = "PDF 저장 전 미리보기 및 저장 기능 제공", description = "PDF 저장 전 미리보기 기능과 PDF 저장 기능을 제공합니다. 동시에 생성 중인 PDF가 많으면 429를 반환합니다.")
     @PostMapping("/models/{id}/pdf")
-    public ResponseEntity<byte[]> generatePdf(
+    public ResponseEntity<StreamingResponseBody> generatePdf(
             @RequestBody PdfRequestDto requestDto,
             @RequestParam String type,
-            @PathVariable String id) {
+            @PathVariable String id,
+            HttpServletRequest request) {
 
-        // 1. PDF 생성 (서비스 호출)
-        byte[] pdfFile = pdfService.generatePdf(requestDto, id);
+        // 1. 렌더링 슬롯 확보 (포화 시 PdfRenderBusyException -> 429)
+        pdfRenderLimiter.acquire();
+        // 슬롯은 렌더링 종료, 비동기 타임아웃/오류/연결 끊김 중 먼저 오는 시점에 한 번만 반환
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releaseOnce = () -> {
+            if (released.compareAndSet(false, true)) {
+                pdfRenderLimiter.release();
+            }
+        };
+        StreamingResponseBody body;
+        try {
+            // 모델 조회/템플릿 오류는 응답을 쓰기 전에 여기서 처리
+            String html = pdfService.renderHtml(requestDto, id);
+            // 2. PDF를 응답 스트림에 바로 씀
+            body = out -> {
+                try {
+                    pdfService.writePdf(html, out);
+                } finally {
+                    releaseOnce.run();
+                }
+            };
+            // 본문이 실행되기 전에 요청이 끝나도(타임아웃, 클라이언트 종료) 슬롯이 새지 않도록
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor("pdfRenderSlot",
+                    new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                            releaseOnce.run();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            releaseOnce.run();
+            throw e;
+        }
 
-        // 2. 헤더 설정 (미리보기 vs 다운로드 결정)
+        // 3. 헤더 설정 (미리보기 vs 다운로드 결정)
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
 
@@ -38,7 +82,14 @@ public class PdfController {
             headers.setContentDisposition(ContentDisposition.attachment().filename("learning_report.pdf").build());
         }
 
-        return new ResponseEntity<>(pdfFile, headers, HttpStatus.OK);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "PDF 모델 정보 캐시 무효화", description = "모델 데이터를 변경한 뒤 호출하면, 보고서에 들어가는 제목/개요/이론 HTML을 다시 읽어옵니다.")
+    @PostMapping("/models/{id}/pdf/cache:invalidate")
+    public ResponseEntity<Void> invalidateContent(@PathVariable String id) {
+        pdfReportContentCache.invalidate(id);
+        return ResponseEntity.noContent().build();
     }
 
 }
@@ -0,0 +1,92 @@
+package com.test.dosa_backend.controller;
+
+import com.test.dosa_backend.dto.PdfReportJobResponse;
+import com.test.dosa_backend.dto.PdfRequestDto;
+import com.test.dosa_backend.service.PdfReportJobNotFoundException;
+import com.test.dosa_backend.service.PdfReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "PDF 보고서 작업", description = "PDF 보고서를 비동기로 생성하고, 완료된 파일을 미리보기/다운로드하는 API입니다.")
+public class PdfReportJobController {
+
+    private final PdfReportJobService pdfReportJobService;
+
+    @Operation(summary = "PDF 보고서 생성 작업 등록", description = "보고서 생성을 예약하고 작업 ID를 반환합니다. 같은 내용의 보고서는 한 번만 생성되어 공유됩니다. 대기열이 가득 차면 429를 반환합니다.")
+    @PostMapping("/models/{id}/pdf/jobs")
+    public ResponseEntity<PdfReportJobResponse> submit(
+            @RequestBody PdfRequestDto requestDto,
+            @PathVariable String id) throws IOException {
+        PdfReportJobService.ReportJob job = pdfReportJobService.submit(requestDto, id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/pdf/jobs/" + job.getId()))
+                .body(PdfReportJobResponse.from(job));
+    }
+
+    @Operation(summary = "PDF 보고서 작업 상태 조회", description = "PENDING / RUNNING / COMPLETED / FAILED 상태를 반환합니다.")
+    @GetMapping("/pdf/jobs/{jobId}")
+    public PdfReportJobResponse getJob(@PathVariable UUID jobId) {
+        return PdfReportJobResponse.from(pdfReportJobService.getJob(jobId));
+    }
+
+    @Operation(summary = "PDF 보고서 작업 완료 구독 (SSE)", description = "Events: status (현재 상태, 즉시), done (COMPLETED 또는 FAILED). 없거나 만료된 작업이면 404를 반환합니다.")
+    @GetMapping(path = "/pdf/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<PdfReportJobResponse>>> events(@PathVariable UUID jobId) {
+        PdfReportJobService.ReportJob job;
+        try {
+            job = pdfReportJobService.getJob(jobId);
+        } catch (PdfReportJobNotFoundException e) {
+            // 이벤트 스트림에는 JSON 오류 본문을 쓸 수 없으므로 상태 코드만 반환
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Flux.concat(
+                Flux.just(sse("status", PdfReportJobResponse.from(job))),
+                Mono.fromFuture(job.whenDone()).map(done -> sse("done", PdfReportJobResponse.from(done)))
+        ));
+    }
+
+    @Operation(summary = "완료된 PDF 보고서 미리보기/다운로드", description = "type=preview 는 브라우저에서 열고, type=download 는 파일로 저장합니다. 아직 완료되지 않았으면 409와 작업 상태를, 작업이나 파일이 만료되었으면 404를 반환합니다.")
+    @GetMapping("/pdf/jobs/{jobId}/file")
+    public ResponseEntity<?> file(
+            @PathVariable UUID jobId,
+            @RequestParam(defaultValue = "preview") String type) throws IOException {
+        PdfReportJobService.ReportJob job = pdfReportJobService.getJob(jobId);
+        if (job.getStatus() != PdfReportJobService.ReportJobStatus.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(PdfReportJobResponse.from(job));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        if ("download".equals(type)) {
+            headers.setContentDisposition(ContentDisposition.attachment().filename("learning_report.pdf").build());
+        } else {
+            headers.setContentDisposition(ContentDisposition.inline().filename("preview.pdf").build());
+        }
+        // 파일은 내용 해시로 저장되므로 해시를 ETag로 사용 (If-None-Match 시 304)
+        headers.setETag("\"" + job.getContentHash() + "\"");
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+
+        Resource artifact = new FileSystemResource(pdfReportJobService.artifact(job));
+        return new ResponseEntity<>(artifact, headers, HttpStatus.OK);
+    }
+
+    private ServerSentEvent<PdfReportJobResponse> sse(String event, PdfReportJobResponse data) {
+        return ServerSentEvent.builder(data).event(event).build();
+    }
+
+}
@@ -39,7 +39,7 @@ public class QuizController {
             @Parameter(description = "모델 식별자 (예: v4_engine)", example = "v4_engine", required = true)
             @PathVariable String modelId,
 
-            @Parameter(description = "한 번에 가져올 퀴즈 개수", example = "3")
+            @Parameter(description = "한 번에 가져올 퀴즈 개수 (1~100)", example = "3")
             @RequestParam(defaultValue = "3") int count,
 
             @Parameter(description = "제외할 퀴즈 ID 리스트 (예: 1,2,3 - 이미 풀었던 문제)", example = "[1, 2, 3]")
@@ -54,6 +54,19 @@ public class QuizController {
         return ResponseEntity.ok(quizzes);
     }
 
+    @Operation(
+            summary = "퀴즈 캐시 갱신",
+            description = "문제 데이터를 변경한 뒤 호출하면, 메모리에 보관 중인 해당 모델의 문제 목록과 정답 키를 다시 읽어옵니다."
+    )
+    @PostMapping("/cache:invalidate")
+    public ResponseEntity<Void> invalidateCache(
+            @Parameter(description = "모델 식별자 (예: v4_engine)", example = "v4_engine", required = true)
+            @PathVariable String modelId
+    ) {
+        quizService.invalidate(modelId);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(
             summary = "퀴즈 답안 제출 및 채점",
             description = "사용자가 푼 퀴즈의 답안을 제출하고, 정답 여부와 해설을 반환받습니다."
@@ -64,10 +77,12 @@ public class QuizController {
     })
     @PostMapping("/answer")
     public ResponseEntity<QuizResultResponse> submitQuiz(
+            @Parameter(description = "모델 식별자 (예: v4_engine)", example = "v4_engine", required = true)
+            @PathVariable String modelId,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "제출할 답안 정보", required = true)
             @RequestBody QuizSubmitRequest request
     ) {
-        QuizResultResponse result = quizService.submitQuiz(request);
+        QuizResultResponse result = quizService.submitQuiz(modelId, request);
         return ResponseEntity.ok(result);
     }
 }
\ No newline at end of file
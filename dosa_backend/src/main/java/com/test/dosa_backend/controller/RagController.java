@@ -1,6 +1,8 @@
 package com.test.dosa_backend.controller;
 
 import com.test.dosa_backend.dto.RagDtos;
+import com.test.dosa_backend.rag.RetrievalMode;
+import com.test.dosa_backend.rag.VectorStoreRepository;
 import com.test.dosa_backend.service.RagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,11 +20,23 @@ public class RagController {
         this.ragService = ragService;
     }
 
-    @Operation(summary = "Search RAG context", description = "If documentIds is empty or omitted, search across all ingested documents.")
+    @Operation(summary = "Search RAG context", description = "If documentIds is empty or omitted, search across all ingested documents. Set retrievalMode=hybrid to combine full-text and vector search.")
     @PostMapping("/search")
     public RagDtos.SearchResponse search(@Valid @RequestBody RagDtos.SearchRequest req) {
         int topK = (req.topK() == null) ? 5 : req.topK();
-        var res = ragService.retrieve(req.query(), topK, req.documentIds());
-        return new RagDtos.SearchResponse(res.contextText(), res.citations());
+        var res = ragService.retrieve(req.query(), topK, req.documentIds(), new RagService.RetrievalOptions(
+                toTuning(req.efSearch(), req.probes()), RetrievalMode.parse(req.retrievalMode())));
+        return new RagDtos.SearchResponse(res.contextText(), res.citations(), res.stats());
+    }
+
+    static VectorStoreRepository.SearchTuning toTuning(Integer efSearch, Integer probes) {
+        if (efSearch == null && probes == null) {
+            return null;
+        }
+        return new VectorStoreRepository.SearchTuning(
+                efSearch == null ? 0 : efSearch,
+                probes == null ? 0 : probes,
+                false
+        );
     }
 }
@@ -0,0 +1,47 @@
+package com.test.dosa_backend.controller;
+
+import com.test.dosa_backend.dto.RagDtos;
+import com.test.dosa_backend.rag.VectorStoreRepository;
+import com.test.dosa_backend.service.RagService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Vector index maintenance. Rebuilds and recall evaluations scan the whole embedding table, so these endpoints
+ * are only mapped when {@code app.rag.vector-index.admin-endpoints.enabled=true} (off by default).
+ */
+@RestController
+@RequestMapping("/v1/rag")
+@ConditionalOnProperty(name = "app.rag.vector-index.admin-endpoints.enabled", havingValue = "true")
+@Tag(name = "RAG", description = "Retrieval-Augmented Generation search")
+public class RagIndexController {
+
+    private final RagService ragService;
+    private final VectorStoreRepository vectorStoreRepository;
+
+    public RagIndexController(RagService ragService, VectorStoreRepository vectorStoreRepository) {
+        this.ragService = ragService;
+        this.vectorStoreRepository = vectorStoreRepository;
+    }
+
+    @Operation(summary = "Rebuild the vector index", description = "Rebuilds the chunk embedding ANN index concurrently using the configured app.rag.vector-index settings.")
+    @PostMapping("/index:rebuild")
+    public RagDtos.IndexResponse rebuildIndex() {
+        VectorStoreRepository.IndexInfo info = vectorStoreRepository.rebuildIndex();
+        return new RagDtos.IndexResponse(info.name(), info.type(), info.params(), info.dimensions());
+    }
+
+    @Operation(summary = "Evaluate vector index recall", description = "Reports recall@k and average latency of ANN search against an exact scan, using stored embeddings as queries.")
+    @PostMapping("/index:evaluate")
+    public RagService.IndexEvaluation evaluateIndex(
+            @Parameter(description = "Number of sampled queries (max 200)") @RequestParam(defaultValue = "20") int sampleSize,
+            @Parameter(description = "k for recall@k") @RequestParam(defaultValue = "5") int topK,
+            @Parameter(description = "Optional HNSW ef_search") @RequestParam(required = false) Integer efSearch,
+            @Parameter(description = "Optional IVFFlat probes") @RequestParam(required = false) Integer probes
+    ) {
+        return ragService.evaluateIndex(sampleSize, topK, RagController.toTuning(efSearch, probes));
+    }
+}
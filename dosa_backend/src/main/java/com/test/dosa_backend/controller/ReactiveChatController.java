@@ -0,0 +1,85 @@
+package com.test.dosa_backend.controller;
+
+import com.test.dosa_backend.dto.ChatDtos;
+import com.test.dosa_backend.rag.RetrievalMode;
+import com.test.dosa_backend.service.ChatService;
+import com.test.dosa_backend.util.ImageInputs;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@code app.chat.execution-mode=reactive}: same endpoints as {@link ChatController}, but the servlet thread is
+ * released (async dispatch) while OpenAI generates.
+ */
+@RestController
+@RequestMapping("/v1/chat")
+@ConditionalOnProperty(name = "app.chat.execution-mode", havingValue = "reactive")
+@Tag(name = "Chat", description = "Stateless chat message API")
+public class ReactiveChatController extends ChatControllerSupport {
+
+    public ReactiveChatController(ChatService chatService) {
+        super(chatService);
+    }
+
+    @PostMapping("/messages")
+    @Operation(summary = "Send a chat message", description = "Set useRag=true to enable RAG. If useRag=true and documentIds is empty, all ingested documents are searched.")
+    public Mono<ChatDtos.MessageResponse> message(@Valid @RequestBody ChatDtos.MessageRequest req) {
+        Map<String, Object> effectiveMetadata = mergeRequestMetadata(req);
+        return chatService.userMessageReactive(
+                        req.message(),
+                        req.useRag(),
+                        req.documentIds(),
+                        req.imageUrls(),
+                        effectiveMetadata,
+                        req.history(),
+                        RetrievalMode.parse(req.retrievalMode())
+                )
+                .map(this::toMessageResponse);
+    }
+
+    @PostMapping(
+            path = "/messages:multipart",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+    )
+    @Operation(summary = "Send a chat message with uploaded image file(s) and optional metadata/history")
+    public Mono<ChatDtos.MessageResponse> messageMultipart(
+            @Parameter(description = "User message text") @RequestPart("message") String message,
+            @Parameter(description = "Enable/disable RAG retrieval for this turn")
+            @RequestParam(value = "useRag", required = false) Boolean useRag,
+            @Parameter(description = "RAG retrieval mode for this turn: vector | hybrid (omitted = server default)")
+            @RequestParam(value = "retrievalMode", required = false) String retrievalMode,
+            @Parameter(description = "Optional document UUIDs (repeat the field)") @RequestPart(value = "documentIds", required = false) List<UUID> documentIds,
+            @Parameter(description = "Optional metadata as a JSON object string") @RequestPart(value = "extraMetadata", required = false) String extraMetadataJson,
+            @Parameter(description = "Optional history as JSON array string") @RequestPart(value = "history", required = false) String historyJson,
+            @Parameter(
+                    description = "Uploaded image file(s)",
+                    content = @Content(array = @ArraySchema(schema = @Schema(type = "string", format = "binary")))
+            ) @RequestPart(value = "images", required = false) List<MultipartFile> images
+    ) {
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("message is required.");
+        }
+
+        Map<String, Object> extraMetadata = parseExtraMetadata(extraMetadataJson);
+        List<ChatDtos.HistoryMessage> history = parseHistory(historyJson);
+        List<String> imageInputs = ImageInputs.filesToDataUrls(images);
+
+        return chatService.userMessageReactive(message, useRag, documentIds, imageInputs, extraMetadata, history,
+                        RetrievalMode.parse(retrievalMode))
+                .map(this::toMessageResponse);
+    }
+}
@@ -31,6 +31,10 @@ public class Document {
     @Column(nullable = false)
     private DocumentStatus status;
 
+    // Chunking strategy name (null = app.rag.chunking.default-strategy)
+    @Column(name = "chunking_strategy", length = 32)
+    private String chunkingStrategy;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -54,6 +58,7 @@ public class Document {
     public String getSourceType() { return sourceType; }
     public String getStorageUri() { return storageUri; }
     public DocumentStatus getStatus() { return status; }
+    public String getChunkingStrategy() { return chunkingStrategy; }
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
 
@@ -61,5 +66,6 @@ public class Document {
     public void setSourceType(String sourceType) { this.sourceType = sourceType; }
     public void setStorageUri(String storageUri) { this.storageUri = storageUri; }
     public void setStatus(DocumentStatus status) { this.status = status; }
+    public void setChunkingStrategy(String chunkingStrategy) { this.chunkingStrategy = chunkingStrategy; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
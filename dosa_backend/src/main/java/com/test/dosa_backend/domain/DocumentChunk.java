@@ -36,6 +36,10 @@ public class DocumentChunk {
     @Column(name = "meta", nullable = false, columnDefinition = "jsonb")
     private String metaJson;
 
+    // SHA-256 of contentText; lets re-ingest reuse unchanged chunks and their embeddings
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -50,10 +54,16 @@ public class DocumentChunk {
         this.createdAt = createdAt;
     }
 
+    public DocumentChunk(UUID id, Document document, int chunkIndex, String contentText, String metaJson, String contentSha256, Instant createdAt) {
+        this(id, document, chunkIndex, contentText, metaJson, createdAt);
+        this.contentSha256 = contentSha256;
+    }
+
     public UUID getId() { return id; }
     public Document getDocument() { return document; }
     public int getChunkIndex() { return chunkIndex; }
     public String getContentText() { return contentText; }
     public String getMetaJson() { return metaJson; }
+    public String getContentSha256() { return contentSha256; }
     public Instant getCreatedAt() { return createdAt; }
 }
@@ -41,9 +41,26 @@ public class IngestJob {
     @Column(name = "chunk_count")
     private Integer chunkCount;
 
+    // Incremental re-ingest: chunks whose content and embedding were kept vs. newly embedded
+    @Column(name = "reused_chunk_count")
+    private Integer reusedChunkCount;
+
+    @Column(name = "embedded_chunk_count")
+    private Integer embeddedChunkCount;
+
     @Column(name = "embedding_model")
     private String embeddingModel;
 
+    // Durable queue bookkeeping (see IngestJobQueue)
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    @Column(name = "locked_by", length = 128)
+    private String lockedBy;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -63,7 +80,12 @@ public class IngestJob {
     public Instant getFinishedAt() { return finishedAt; }
     public String getErrorMessage() { return errorMessage; }
     public Integer getChunkCount() { return chunkCount; }
+    public Integer getReusedChunkCount() { return reusedChunkCount; }
+    public Integer getEmbeddedChunkCount() { return embeddedChunkCount; }
     public String getEmbeddingModel() { return embeddingModel; }
+    public Integer getAttempts() { return attempts; }
+    public String getLockedBy() { return lockedBy; }
+    public Instant getHeartbeatAt() { return heartbeatAt; }
     public Instant getCreatedAt() { return createdAt; }
 
     public void setStatus(IngestJobStatus status) { this.status = status; }
@@ -71,5 +93,7 @@ public class IngestJob {
     public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
     public void setChunkCount(Integer chunkCount) { this.chunkCount = chunkCount; }
+    public void setReusedChunkCount(Integer reusedChunkCount) { this.reusedChunkCount = reusedChunkCount; }
+    public void setEmbeddedChunkCount(Integer embeddedChunkCount) { this.embeddedChunkCount = embeddedChunkCount; }
     public void setEmbeddingModel(String embeddingModel) { this.embeddingModel = embeddingModel; }
 }
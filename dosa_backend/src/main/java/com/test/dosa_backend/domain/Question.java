@@ -36,6 +36,9 @@ public class Question {
     private Integer correctOptionNo;      // 객관식 정답
     private String correctShortAnswer;    // 주관식 정답
 
+    @Column(columnDefinition = "TEXT")
+    private String acceptedAnswers;       // 주관식 동의어 정답 ('|' 또는 줄바꿈으로 구분)
+
     @BatchSize(size = 5)
     @OneToMany(mappedBy = "question", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<QuestionOption> options = new ArrayList<>();
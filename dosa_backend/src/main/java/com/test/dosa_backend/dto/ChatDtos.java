@@ -28,7 +28,9 @@ public class ChatDtos {
             Map<String, Object> extraMetadata,
             @JsonAlias({"conversationHistory"}) List<@Valid HistoryMessage> history,
             @JsonAlias({"modelMetadata"}) Map<String, Object> model,
-            @JsonAlias({"part", "selectedParts"}) Object parts
+            @JsonAlias({"part", "selectedParts"}) Object parts,
+            @Schema(description = "RAG retrieval mode for this turn: vector | hybrid (omitted = server default)")
+            String retrievalMode
     ) {}
 
     public record AppliedSystemPrompt(
@@ -38,6 +40,18 @@ public class ChatDtos {
             String modelSystemPrompt
     ) {}
 
+    /**
+     * First SSE event of a streamed turn.
+     */
+    public record StreamStart(
+            List<RagService.Citation> citations,
+            AppliedSystemPrompt appliedSystemPrompt
+    ) {}
+
+    public record StreamDelta(String text) {}
+
+    public record StreamError(String code, String message) {}
+
     public record MessageResponse(
             String answer,
             List<RagService.Citation> citations,
@@ -1,6 +1,7 @@
 package com.test.dosa_backend.dto;
 
 import com.test.dosa_backend.domain.AssemblyNode;
+import com.test.dosa_backend.repository.AssemblyNodeRow;
 import lombok.*;
 
 import java.util.List;
@@ -25,6 +26,14 @@ public class CoordinatesDto {
                 .build();
     }
 
+    public static CoordinatesDto fromRow(AssemblyNodeRow row) {
+        return CoordinatesDto.builder()
+                .pos(List.of(row.posX(), row.posY(), row.posZ()))
+                .quat(List.of(row.quatX(), row.quatY(), row.quatZ(), row.quatW()))
+                .scale(List.of(row.scaleX(), row.scaleY(), row.scaleZ()))
+                .build();
+    }
+
 
 
 }
@@ -1,6 +1,7 @@
 package com.test.dosa_backend.dto;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import com.test.dosa_backend.domain.DocumentStatus;
@@ -13,6 +14,8 @@ public class DocumentDtos {
             UUID documentId,
             String title,
             DocumentStatus status,
+            @Schema(description = "Chunking strategy used at ingest (null = server default)")
+            String chunkingStrategy,
             Instant createdAt,
             Instant updatedAt
     ) {}
@@ -27,7 +30,31 @@ public class DocumentDtos {
             Instant startedAt,
             Instant finishedAt,
             Integer chunkCount,
+            @Schema(description = "Chunks kept from the previous ingest (unchanged content, embedding reused)")
+            Integer reusedChunkCount,
+            @Schema(description = "Chunks embedded by this job (new or changed content)")
+            Integer embeddedChunkCount,
             String embeddingModel,
             String errorMessage
     ) {}
+
+    public record ChunkingBenchmarkResponse(
+            UUID documentId,
+            int pageCount,
+            List<ChunkingStrategyStats> strategies
+    ) {}
+
+    public record ChunkingStrategyStats(
+            String strategy,
+            int chunkCount,
+            double elapsedMs,
+            double chunksPerSec,
+            @Schema(description = "Chunk size distribution in cl100k_base tokens")
+            int minTokens,
+            int p50Tokens,
+            int p95Tokens,
+            int maxTokens,
+            double avgTokens,
+            double avgChars
+    ) {}
 }
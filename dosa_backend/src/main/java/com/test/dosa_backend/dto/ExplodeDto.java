@@ -1,6 +1,7 @@
 package com.test.dosa_backend.dto;
 
 import com.test.dosa_backend.domain.AssemblyNode;
+import com.test.dosa_backend.repository.AssemblyNodeRow;
 import lombok.*;
 
 import java.util.List;
@@ -28,5 +29,14 @@ public class ExplodeDto {
                 .build();
     }
 
+    public static ExplodeDto fromRow(AssemblyNodeRow row) {
+        return ExplodeDto.builder()
+                .dir(List.of(row.explodeDirX(), row.explodeDirY(), row.explodeDirZ()))
+                .distance(row.explodeDistance())
+                .start(row.explodeStart())
+                .duration(row.explodeDuration())
+                .build();
+    }
+
 
 }
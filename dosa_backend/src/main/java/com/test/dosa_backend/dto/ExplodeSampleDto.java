@@ -0,0 +1,37 @@
+package com.test.dosa_backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 분해 애니메이션 샘플: 위상 정렬된 노드 순서와 t별 월드 행렬
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ExplodeSampleDto {
+
+    private String modelId;
+
+    // 부모가 항상 자식보다 앞에 오는 순서
+    private List<String> nodeIds;
+
+    // nodeIds 기준 부모 인덱스 (루트는 -1)
+    private int[] parentIndex;
+
+    private List<Frame> frames;
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static class Frame {
+
+        private double t;
+
+        // 노드당 16개 값, column-major 4x4 월드 행렬 (nodeIds 순서)
+        private double[] matrices;
+    }
+}
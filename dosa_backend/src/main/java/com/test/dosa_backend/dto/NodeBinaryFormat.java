@@ -0,0 +1,123 @@
+package com.test.dosa_backend.dto;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.test.dosa_backend.repository.AssemblyNodeRow;
+
+/**
+ * Compact binary viewer payload: model/parts as a small JSON header, nodes as packed float32
+ * struct-of-arrays so clients can hand the columns to typed arrays without parsing.
+ * <p>
+ * Layout (little-endian, every section 4-byte aligned):
+ * <pre>
+ * u32 magic 'DSN1'  u32 nodeCount  u32 stringCount  u32 headerJsonLength
+ * u8[headerJsonLength] header JSON ({"model":..., "parts":[...]}), zero padded
+ * string table: stringCount x (u16 byteLength, UTF-8 bytes), zero padded
+ *               entries [0, nodeCount) are node ids, the rest are part ids
+ * i32[nodeCount] partIndex   (into the string table)
+ * i32[nodeCount] parentIndex (node index, -1 for roots)
+ * f32[nodeCount] x 16 columns, in {@link #COLUMNS} order
+ * </pre>
+ */
+public final class NodeBinaryFormat {
+
+    public static final String MEDIA_TYPE = "application/octet-stream";
+    public static final int MAGIC = 0x314E5344; // "DSN1" read as little-endian bytes
+    public static final List<String> COLUMNS = List.of(
+            "posX", "posY", "posZ",
+            "quatX", "quatY", "quatZ", "quatW",
+            "scaleX", "scaleY", "scaleZ",
+            "explodeDirX", "explodeDirY", "explodeDirZ",
+            "explodeDistance", "explodeStart", "explodeDuration"
+    );
+
+    private NodeBinaryFormat() {}
+
+    public static byte[] encode(byte[] headerJson, List<AssemblyNodeRow> nodes) {
+        int n = nodes.size();
+        Map<String, Integer> nodeIndex = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            nodeIndex.put(nodes.get(i).nodeId(), i);
+        }
+        Map<String, Integer> partIndex = new HashMap<>();
+        byte[][] strings = new byte[n * 2][];
+        int stringCount = 0;
+        int stringBytes = 0;
+        for (AssemblyNodeRow node : nodes) {
+            strings[stringCount] = utf8(node.nodeId());
+            stringBytes += 2 + strings[stringCount++].length;
+        }
+        int[] partRefs = new int[n];
+        for (int i = 0; i < n; i++) {
+            String partId = nodes.get(i).partId();
+            Integer ref = partIndex.get(partId);
+            if (ref == null) {
+                ref = stringCount;
+                partIndex.put(partId, ref);
+                strings[stringCount] = utf8(partId);
+                stringBytes += 2 + strings[stringCount++].length;
+            }
+            partRefs[i] = ref;
+        }
+
+        int size = 16 + align(headerJson.length) + align(stringBytes) + n * 4 * (2 + COLUMNS.size());
+        ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(n).putInt(stringCount).putInt(headerJson.length);
+        buf.put(headerJson);
+        pad(buf);
+        for (int i = 0; i < stringCount; i++) {
+            buf.putShort((short) strings[i].length).put(strings[i]);
+        }
+        pad(buf);
+
+        for (int i = 0; i < n; i++) buf.putInt(partRefs[i]);
+        for (AssemblyNodeRow node : nodes) {
+            Integer parent = node.parentNodeId() == null ? null : nodeIndex.get(node.parentNodeId());
+            buf.putInt(parent == null ? -1 : parent);
+        }
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.posX()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.posY()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.posZ()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.quatX()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.quatY()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.quatZ()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.quatW()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.scaleX()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.scaleY()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.scaleZ()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.explodeDirX()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.explodeDirY()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.explodeDirZ()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.explodeDistance()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.explodeStart()));
+        for (AssemblyNodeRow node : nodes) buf.putFloat(f(node.explodeDuration()));
+        return buf.array();
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("id too long for the binary node format: " + s);
+        }
+        return bytes;
+    }
+
+    private static float f(Double value) {
+        return value == null ? 0f : value.floatValue();
+    }
+
+    private static int align(int length) {
+        return (length + 3) & ~3;
+    }
+
+    private static void pad(ByteBuffer buf) {
+        while ((buf.position() & 3) != 0) {
+            buf.put((byte) 0);
+        }
+    }
+}
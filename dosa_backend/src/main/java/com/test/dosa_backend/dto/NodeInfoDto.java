@@ -1,6 +1,7 @@
 package com.test.dosa_backend.dto;
 
 import com.test.dosa_backend.domain.AssemblyNode;
+import com.test.dosa_backend.repository.AssemblyNodeRow;
 import lombok.*;
 
 @Getter
@@ -30,6 +31,16 @@ public class NodeInfoDto {
 
     }
 
+    public static NodeInfoDto fromRow(AssemblyNodeRow row) {
+        return NodeInfoDto.builder()
+                .nodeId(row.nodeId())
+                .partId(row.partId())
+                .parentNodeId(row.parentNodeId())
+                .assembled(CoordinatesDto.fromRow(row))
+                .explode(ExplodeDto.fromRow(row))
+                .build();
+    }
+
 
 
 }
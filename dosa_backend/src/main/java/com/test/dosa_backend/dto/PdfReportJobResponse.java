@@ -0,0 +1,44 @@
+package com.test.dosa_backend.dto;
+
+import com.test.dosa_backend.service.PdfReportJobService;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PdfReportJobResponse {
+
+    private UUID jobId;
+
+    private String modelId;
+
+    private PdfReportJobService.ReportJobStatus status;
+
+    private String contentHash; // 렌더링된 HTML의 SHA-256 (같은 값이면 같은 PDF를 공유)
+
+    private Long sizeBytes;
+
+    private String errorMessage;
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+
+    public static PdfReportJobResponse from(PdfReportJobService.ReportJob job) {
+        return PdfReportJobResponse.builder()
+                .jobId(job.getId())
+                .modelId(job.getModelId())
+                .status(job.getStatus())
+                .contentHash(job.getContentHash())
+                .sizeBytes(job.getSizeBytes() >= 0 ? job.getSizeBytes() : null)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+}
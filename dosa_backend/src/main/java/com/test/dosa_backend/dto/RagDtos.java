@@ -21,8 +21,21 @@ public class RagDtos {
                     schema = @Schema(format = "uuid"),
                     arraySchema = @Schema(description = "Optional document filters. If omitted or empty, search all ingested documents.")
             )
-            List<UUID> documentIds
+            List<UUID> documentIds,
+            @Schema(description = "Optional HNSW ef_search for this query (0/omitted = server default)")
+            Integer efSearch,
+            @Schema(description = "Optional IVFFlat probes for this query (0/omitted = server default)")
+            Integer probes,
+            @Schema(description = "vector | hybrid (omitted = app.rag.retrieval.default-mode). hybrid fuses full-text and vector results with RRF")
+            String retrievalMode
     ) {}
 
-    public record SearchResponse(String contextText, List<RagService.Citation> citations) {}
+    public record SearchResponse(
+            String contextText,
+            List<RagService.Citation> citations,
+            @Schema(description = "Retrieval mode and per-leg latency; null when retrieval was skipped")
+            RagService.RetrievalStats stats
+    ) {}
+
+    public record IndexResponse(String name, String type, String params, int dimensions) {}
 }
@@ -0,0 +1,100 @@
+package com.test.dosa_backend.openai;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD limit on in-flight OpenAI requests: the limit grows by one after a full window of
+ * successes and is halved on HTTP 429, so concurrency settles just under the account's rate limit.
+ * <p>
+ * One burst of 429s halves the limit once: callers pass the {@link #generation()} read before their
+ * request, and only a 429 from a request sent after the latest decrease lowers the limit again.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private final int maxLimit;
+
+    private int limit;
+    private int inFlight;
+    private int successesSinceIncrease;
+    // Bumped on every decrease
+    private long generation;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = Math.max(1, Math.min(initialLimit, this.maxLimit));
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= limit) {
+                permitAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight = Math.max(0, inFlight - 1);
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            if (++successesSinceIncrease >= limit && limit < maxLimit) {
+                limit++;
+                successesSinceIncrease = 0;
+                permitAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param requestGeneration {@link #generation()} read before the rate-limited request was sent
+     */
+    public void onRateLimited(long requestGeneration) {
+        lock.lock();
+        try {
+            if (requestGeneration != generation) {
+                // Sent before the latest decrease, which already accounted for this burst.
+                return;
+            }
+            limit = Math.max(1, limit / 2);
+            successesSinceIncrease = 0;
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
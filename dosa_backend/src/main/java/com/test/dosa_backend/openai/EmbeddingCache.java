@@ -0,0 +1,225 @@
+package com.test.dosa_backend.openai;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pgvector.PGvector;
+import com.test.dosa_backend.util.ContentHash;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Content-hash keyed cache for embedding vectors, keyed by (model, dimensions, sha256(text)).
+ * <p>
+ * Tier 1 is a bounded in-memory Caffeine cache (W-TinyLFU eviction, weighed by vector bytes).
+ * Tier 2 is an optional Postgres table that survives restarts and is shared between nodes.
+ * Returned arrays are shared between callers and must not be mutated.
+ */
+@Component
+public class EmbeddingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingCache.class);
+    // Rough per-entry overhead: key record + 64-char hash string + float[] header + cache node.
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final boolean persistent;
+    private final Cache<Key, float[]> memory;
+
+    private final Counter persistentHits;
+    private final Counter persistentMisses;
+    private final Counter avoidedRequests;
+    private final Timer remoteLatency;
+
+    public EmbeddingCache(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.embedding-cache.enabled:true}") boolean enabled,
+            @Value("${app.embedding-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${app.embedding-cache.persistent:false}") boolean persistent
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.persistent = enabled && persistent;
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, maxBytes))
+                .weigher((Key k, float[] v) -> ENTRY_OVERHEAD_BYTES + v.length * Float.BYTES)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "embeddings");
+        this.persistentHits = Counter.builder("embedding.cache.persistent")
+                .tag("result", "hit").register(meterRegistry);
+        this.persistentMisses = Counter.builder("embedding.cache.persistent")
+                .tag("result", "miss").register(meterRegistry);
+        // Requests fully answered from cache; multiply by the mean of embedding.remote.latency for saved time.
+        this.avoidedRequests = Counter.builder("embedding.cache.avoided.requests")
+                .register(meterRegistry);
+        this.remoteLatency = Timer.builder("embedding.remote.latency")
+                .register(meterRegistry);
+
+        if (this.persistent) {
+            ensureSchema();
+        }
+    }
+
+    private void ensureSchema() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            jdbcTemplate.execute(
+                    "CREATE TABLE IF NOT EXISTS embedding_cache (" +
+                            "model VARCHAR(255) NOT NULL," +
+                            "dimensions INT NOT NULL," +
+                            "content_sha256 VARCHAR(64) NOT NULL," +
+                            "embedding vector NOT NULL," +
+                            "created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()," +
+                            "PRIMARY KEY (model, dimensions, content_sha256)" +
+                            ")"
+            );
+            migrateHashColumn();
+        } catch (Exception e) {
+            log.warn("Failed to ensure embedding_cache schema; persistent embedding cache tier will miss.", e);
+        }
+    }
+
+    /**
+     * Tables created before the hash column was VARCHAR(64) have it as CHAR(64). {@code bpchar = text} resolves to
+     * the text operator by casting the column, so {@code content_sha256 = ANY(text[])} could not use the primary key
+     * and every lookup scanned all rows of the model. SHA-256 hex is always 64 chars, so the conversion is lossless.
+     */
+    private void migrateHashColumn() {
+        String type = jdbcTemplate.query(
+                "SELECT format_type(a.atttypid, a.atttypmod) FROM pg_attribute a " +
+                        "WHERE a.attrelid = to_regclass('embedding_cache') AND a.attname = 'content_sha256' " +
+                        "AND NOT a.attisdropped",
+                rs -> rs.next() ? rs.getString(1) : null);
+        if (type != null && type.startsWith("character(")) {
+            log.info("Converting embedding_cache.content_sha256 from {} to VARCHAR(64)", type);
+            jdbcTemplate.execute("ALTER TABLE embedding_cache ALTER COLUMN content_sha256 TYPE VARCHAR(64)");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static Key key(String model, int dimensions, String text) {
+        return new Key(model, dimensions, ContentHash.sha256Hex(text));
+    }
+
+    /**
+     * Looks up every key; the result has the same size as {@code keys} with {@code null} for misses.
+     */
+    public List<float[]> getAll(List<Key> keys) {
+        List<float[]> out = new ArrayList<>(keys.size());
+        Map<Key, List<Integer>> missing = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            float[] hit = memory.getIfPresent(keys.get(i));
+            out.add(hit);
+            if (hit == null) {
+                missing.computeIfAbsent(keys.get(i), k -> new ArrayList<>()).add(i);
+            }
+        }
+        if (!missing.isEmpty() && persistent) {
+            Map<Key, float[]> loaded = loadPersistent(new ArrayList<>(missing.keySet()));
+            persistentHits.increment(loaded.size());
+            persistentMisses.increment(missing.size() - loaded.size());
+            for (Map.Entry<Key, float[]> e : loaded.entrySet()) {
+                memory.put(e.getKey(), e.getValue());
+                for (int idx : missing.get(e.getKey())) {
+                    out.set(idx, e.getValue());
+                }
+            }
+        }
+        return out;
+    }
+
+    public void putAll(List<Key> keys, List<float[]> vectors) {
+        for (int i = 0; i < keys.size(); i++) {
+            memory.put(keys.get(i), vectors.get(i));
+        }
+        if (persistent) {
+            storePersistent(keys, vectors);
+        }
+    }
+
+    public void recordAvoidedRequest() {
+        avoidedRequests.increment();
+    }
+
+    public void recordRemoteCall(long nanos) {
+        remoteLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Map<Key, float[]> loadPersistent(List<Key> keys) {
+        Map<Key, float[]> out = new HashMap<>();
+        // Keys of one lookup always share model/dimensions (one embeddings call).
+        Key first = keys.get(0);
+        Map<String, Key> byHash = new HashMap<>();
+        for (Key k : keys) byHash.put(k.sha256(), k);
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT content_sha256, embedding::text FROM embedding_cache " +
+                                "WHERE model = ? AND dimensions = ? AND content_sha256 = ANY(?)");
+                ps.setString(1, first.model());
+                ps.setInt(2, first.dimensions());
+                ps.setArray(3, con.createArrayOf("text", byHash.keySet().toArray()));
+                return ps;
+            }, rs -> {
+                Key k = byHash.get(rs.getString(1));
+                if (k != null) {
+                    out.put(k, new PGvector(rs.getString(2)).toArray());
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Persistent embedding cache lookup failed; falling back to the embeddings API.", e);
+        }
+        return out;
+    }
+
+    private void storePersistent(List<Key> keys, List<float[]> vectors) {
+        try {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO embedding_cache (model, dimensions, content_sha256, embedding) VALUES (?, ?, ?, ?) " +
+                            "ON CONFLICT DO NOTHING",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Key k = keys.get(i);
+                            ps.setString(1, k.model());
+                            ps.setInt(2, k.dimensions());
+                            ps.setString(3, k.sha256());
+                            ps.setObject(4, new PGvector(vectors.get(i)));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return keys.size();
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Failed to write embeddings to persistent cache.", e);
+        }
+    }
+
+    public record Key(String model, int dimensions, String sha256) {}
+}
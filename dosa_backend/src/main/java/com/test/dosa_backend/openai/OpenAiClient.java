@@ -2,14 +2,21 @@ package com.test.dosa_backend.openai;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
@@ -24,6 +31,7 @@ public class OpenAiClient {
     private final WebClient webClient;
     private final Duration timeout;
     private final ObjectMapper mapper;
+    private final EmbeddingCache embeddingCache;
 
     private final String embeddingModel;
     private final int embeddingDimensions;
@@ -32,6 +40,13 @@ public class OpenAiClient {
     private final String responsesReasoningEffort;
     private final int chatMaxCompletionTokens;
 
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    // In-memory buffer for one response body (embeddings batches are sized to fit, see EmbeddingIngestProperties)
+    public static final int MAX_RESPONSE_BYTES = 8 * 1024 * 1024;
+    private static final int MAX_LOGGED_BODY_CHARS = 2_000;
+
     private static final String PARTIAL_WARNING =
             "\n\n(답변이 길어 일부가 생략되었습니다. 질문을 나눠서 요청하면 더 자세히 답할 수 있습니다.)";
 
@@ -39,6 +54,7 @@ public class OpenAiClient {
             WebClient openaiWebClient,
             ObjectMapper objectMapper,
             Duration openaiTimeout,
+            EmbeddingCache embeddingCache,
             @Value("${openai.embedding-model}") String embeddingModel,
             @Value("${openai.embedding-dimensions}") int embeddingDimensions,
             @Value("${openai.responses.max-output-tokens}") int responsesMaxOutputTokens,
@@ -49,6 +65,7 @@ public class OpenAiClient {
         this.webClient = openaiWebClient;
         this.mapper = objectMapper;
         this.timeout = openaiTimeout;
+        this.embeddingCache = embeddingCache;
         this.embeddingModel = embeddingModel;
         this.embeddingDimensions = embeddingDimensions;
         this.responsesMaxOutputTokens = responsesMaxOutputTokens;
@@ -61,12 +78,61 @@ public class OpenAiClient {
         return embeddingModel;
     }
 
+    // 0 = provider default
+    public int embeddingDimensions() {
+        return embeddingDimensions;
+    }
+
     /**
-     * Calls POST /v1/embeddings
+     * Embeds the inputs, serving repeated texts from {@link EmbeddingCache} and calling
+     * POST /v1/embeddings only for the misses.
      */
     public List<float[]> embedTexts(List<String> inputs) {
         if (inputs == null || inputs.isEmpty()) return List.of();
+        if (!embeddingCache.isEnabled()) return requestEmbeddings(inputs);
+
+        List<EmbeddingCache.Key> keys = new ArrayList<>(inputs.size());
+        for (String s : inputs) {
+            keys.add(EmbeddingCache.key(embeddingModel, embeddingDimensions, s));
+        }
+        List<float[]> out = embeddingCache.getAll(keys);
+
+        // Identical texts inside one call are embedded once.
+        Map<EmbeddingCache.Key, String> missing = new LinkedHashMap<>();
+        for (int i = 0; i < out.size(); i++) {
+            if (out.get(i) == null) {
+                missing.putIfAbsent(keys.get(i), inputs.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            embeddingCache.recordAvoidedRequest();
+            return out;
+        }
+
+        List<EmbeddingCache.Key> missingKeys = new ArrayList<>(missing.keySet());
+        List<float[]> fetched = requestEmbeddings(new ArrayList<>(missing.values()));
+        if (fetched.size() != missingKeys.size()) {
+            throw new OpenAiException("Embeddings API returned " + fetched.size() + " vectors for " + missingKeys.size() + " inputs");
+        }
+        embeddingCache.putAll(missingKeys, fetched);
 
+        Map<EmbeddingCache.Key, float[]> byKey = new HashMap<>();
+        for (int i = 0; i < missingKeys.size(); i++) {
+            byKey.put(missingKeys.get(i), fetched.get(i));
+        }
+        for (int i = 0; i < out.size(); i++) {
+            if (out.get(i) == null) {
+                out.set(i, byKey.get(keys.get(i)));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Calls POST /v1/embeddings
+     */
+    private List<float[]> requestEmbeddings(List<String> inputs) {
+        long start = System.nanoTime();
         ObjectNode body = mapper.createObjectNode();
         body.put("model", embeddingModel);
         ArrayNode inputArr = body.putArray("input");
@@ -92,6 +158,7 @@ public class OpenAiClient {
             }
             out.add(vec);
         }
+        embeddingCache.recordRemoteCall(System.nanoTime() - start);
         return out;
     }
 
@@ -105,100 +172,152 @@ public class OpenAiClient {
     }
 
     public String generateResponse(String model, String instructions, List<ChatInputMessage> messages, int maxOutputTokens) {
+        return generateResponseReactive(model, instructions, messages, maxOutputTokens).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #generateResponse}: same retry and chat completions fallback,
+     * but no thread waits on the HTTP exchange.
+     */
+    public Mono<String> generateResponseReactive(String model, String instructions, List<ChatInputMessage> messages, int maxOutputTokens) {
         List<ChatInputMessage> normalizedMessages = normalizeMessages(messages);
         if (normalizedMessages.isEmpty()) {
-            throw new OpenAiException("At least one chat message is required.");
+            return Mono.error(new OpenAiException("At least one chat message is required."));
         }
-        try {
-            return generateViaResponses(model, instructions, normalizedMessages, maxOutputTokens);
-        } catch (OpenAiException e) {
-            log.warn("Responses API failed; attempting chat completions fallback.", e);
-            try {
-                return generateViaChatCompletions(model, instructions, normalizedMessages, maxOutputTokens);
-            } catch (OpenAiException e2) {
-                throw new OpenAiException("Responses API failed and chat completions fallback also failed: " + e2.getMessage(), e2);
+        return generateViaResponses(model, instructions, normalizedMessages, maxOutputTokens)
+                .onErrorResume(OpenAiException.class, e -> {
+                    log.warn("Responses API failed; attempting chat completions fallback.", e);
+                    return generateViaChatCompletions(model, instructions, normalizedMessages, maxOutputTokens)
+                            .onErrorMap(OpenAiException.class, e2 -> new OpenAiException(
+                                    "Responses API failed and chat completions fallback also failed: " + e2.getMessage(), e2));
+                });
+    }
+
+    private Mono<String> generateViaResponses(String model, String instructions, List<ChatInputMessage> messages, int maxOutputTokens) {
+        return callResponses(model, instructions, messages, maxOutputTokens, responsesReasoningEffort).flatMap(first -> {
+            if (first.hasText() && "completed".equals(first.status)) {
+                return Mono.just(first.text);
             }
-        }
+
+            boolean shouldRetry = "max_output_tokens".equals(first.incompleteReason);
+            if (shouldRetry) {
+                log.warn("Responses API incomplete (status={}, reason={}); retrying with higher token budget.",
+                        first.status, first.incompleteReason);
+                return callResponses(model, instructions, messages, responsesRetryMaxOutputTokens, responsesReasoningEffort).flatMap(second -> {
+                    if (second.hasText() && "completed".equals(second.status)) {
+                        return Mono.just(second.text);
+                    }
+                    if (second.hasText()) {
+                        log.warn("Responses API retry still incomplete (status={}, reason={}); returning partial response.",
+                                second.status, second.incompleteReason);
+                        return Mono.just(second.text + PARTIAL_WARNING);
+                    }
+                    log.warn("Responses API retry produced no text (status={}, reason={}).", second.status, second.incompleteReason);
+                    return Mono.error(incompleteResponse(first));
+                });
+            } else if (first.hasText()) {
+                log.warn("Responses API incomplete (status={}, reason={}); returning available text without retry.",
+                        first.status, first.incompleteReason);
+                return Mono.just(first.text);
+            }
+
+            return Mono.error(incompleteResponse(first));
+        });
+    }
+
+    private OpenAiException incompleteResponse(ResponseOutcome outcome) {
+        return new OpenAiException("Responses API returned empty or incomplete response (status=" + outcome.status + ", reason=" + outcome.incompleteReason + ")");
     }
 
-    private String generateViaResponses(String model, String instructions, List<ChatInputMessage> messages, int maxOutputTokens) {
-        ResponseOutcome first = callResponses(model, instructions, messages, maxOutputTokens, responsesReasoningEffort);
-        if (first.hasText() && "completed".equals(first.status)) {
-            return first.text;
+    /**
+     * Calls POST /v1/responses with stream=true and emits output text deltas as they arrive.
+     * Unlike {@link #generateResponse}, there is no retry or chat completions fallback: once tokens
+     * have been forwarded to the client the turn cannot be transparently restarted.
+     */
+    public Flux<String> streamResponse(String model, String instructions, List<ChatInputMessage> messages, int maxOutputTokens) {
+        List<ChatInputMessage> normalizedMessages = normalizeMessages(messages);
+        if (normalizedMessages.isEmpty()) {
+            return Flux.error(new OpenAiException("At least one chat message is required."));
         }
+        ObjectNode body = buildResponsesBody(model, instructions, normalizedMessages, maxOutputTokens, responsesReasoningEffort);
+        body.put("stream", true);
 
-        boolean shouldRetry = "max_output_tokens".equals(first.incompleteReason);
-        if (shouldRetry) {
-            log.warn("Responses API incomplete (status={}, reason={}); retrying with higher token budget.",
-                    first.status, first.incompleteReason);
-            ResponseOutcome second = callResponses(model, instructions, messages, responsesRetryMaxOutputTokens, responsesReasoningEffort);
-            if (second.hasText() && "completed".equals(second.status)) {
-                return second.text;
-            }
-            if (second.hasText()) {
-                log.warn("Responses API retry still incomplete (status={}, reason={}); returning partial response.",
-                        second.status, second.incompleteReason);
-                return second.text + PARTIAL_WARNING;
-            }
-            log.warn("Responses API retry produced no text (status={}, reason={}).", second.status, second.incompleteReason);
-        } else if (first.hasText()) {
-            log.warn("Responses API incomplete (status={}, reason={}); returning available text without retry.",
-                    first.status, first.incompleteReason);
-            return first.text;
+        String bodyString;
+        try {
+            bodyString = mapper.writeValueAsString(body);
+        } catch (Exception e) {
+            return Flux.error(new OpenAiException("Failed to serialize request body", e));
         }
+        log.info("Streaming request to '/responses' - Body size: {} bytes", bodyString.length());
 
-        throw new OpenAiException("Responses API returned empty or incomplete response (status=" + first.status + ", reason=" + first.incompleteReason + ")");
+        return webClient.post()
+                .uri("/responses")
+                .header(org.springframework.http.HttpHeaders.CONTENT_TYPE, "application/json")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(bodyString)
+                .retrieve()
+                .onStatus(
+                        status -> status.is4xxClientError() || status.is5xxServerError(),
+                        response -> response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(bodyText -> {
+                                    log.error("OpenAI API Error Response - Status: {}, Body: {}",
+                                            response.statusCode().value(), bodyText);
+                                    return Mono.error(new OpenAiException(
+                                            "Responses API stream failed (HTTP " + response.statusCode().value() + "): " + bodyText));
+                                })
+                )
+                .bodyToFlux(SSE_TYPE)
+                .timeout(timeout)
+                .concatMap(this::streamEventText)
+                .onErrorMap(ex -> !(ex instanceof OpenAiException), ex -> new OpenAiException("Responses API stream failed", ex));
+    }
+
+    private Flux<String> streamEventText(ServerSentEvent<String> event) {
+        String data = event.data();
+        if (data == null || data.isBlank() || "[DONE]".equals(data.trim())) {
+            return Flux.empty();
+        }
+        JsonNode node;
+        try {
+            node = mapper.readTree(data);
+        } catch (Exception e) {
+            log.warn("Ignoring unparseable Responses stream event: {}", data);
+            return Flux.empty();
+        }
+        String type = node.path("type").asString(event.event() == null ? "" : event.event());
+        switch (type) {
+            case "response.output_text.delta":
+                String delta = node.path("delta").asString("");
+                return delta.isEmpty() ? Flux.empty() : Flux.just(delta);
+            case "response.incomplete":
+                String reason = node.path("response").path("incomplete_details").path("reason").asString("");
+                log.warn("Responses API stream incomplete (reason={}).", reason);
+                return "max_output_tokens".equals(reason) ? Flux.just(PARTIAL_WARNING) : Flux.empty();
+            case "response.failed":
+            case "error":
+                String message = node.path("response").path("error").path("message")
+                        .asString(node.path("message").asString("unknown error"));
+                return Flux.error(new OpenAiException("Responses API stream failed: " + message));
+            default:
+                return Flux.empty();
+        }
     }
 
-    private ResponseOutcome callResponses(
+    private Mono<ResponseOutcome> callResponses(
             String model,
             String instructions,
             List<ChatInputMessage> messages,
             int maxOutputTokens,
             String reasoningEffort
     ) {
-        ObjectNode body = mapper.createObjectNode();
-        body.put("model", model);
-        if (instructions != null && !instructions.isBlank()) {
-            body.put("instructions", instructions);
-        }
-        int effectiveMaxTokens;
-        if (responsesMaxOutputTokens > 0) {
-            effectiveMaxTokens = (maxOutputTokens > 0)
-                    ? Math.max(maxOutputTokens, responsesMaxOutputTokens)
-                    : responsesMaxOutputTokens;
-        } else {
-            effectiveMaxTokens = maxOutputTokens;
-        }
-        if (effectiveMaxTokens > 0) {
-            body.put("max_output_tokens", effectiveMaxTokens);
-        }
-        if (reasoningEffort != null && !reasoningEffort.isBlank()) {
-            ObjectNode reasoning = body.putObject("reasoning");
-            reasoning.put("effort", reasoningEffort);
-        }
-
-        ArrayNode input = body.putArray("input");
-        for (ChatInputMessage msg : messages) {
-            ObjectNode node = input.addObject();
-            node.put("role", normalizeRole(msg.role()));
-            ArrayNode content = node.putArray("content");
-            content.addObject().put("type", "input_text").put("text", msg.text());
-            if (msg.imageUrls() != null && "user".equals(normalizeRole(msg.role()))) {
-                for (String url : msg.imageUrls()) {
-                    if (url == null || url.isBlank()) continue;
-                    ObjectNode img = content.addObject();
-                    img.put("type", "input_image");
-                    img.put("image_url", url);
-                }
-            }
-        }
-
-        JsonNode resp = postJson("/responses", body, "Responses API call failed");
+        ObjectNode body = buildResponsesBody(model, instructions, messages, maxOutputTokens, reasoningEffort);
+        return postJsonReactive("/responses", body, "Responses API call failed")
+                .switchIfEmpty(Mono.error(() -> new OpenAiException("Responses API returned empty response")))
+                .map(this::toResponseOutcome);
+    }
 
-        if (resp == null) {
-            throw new OpenAiException("Responses API returned empty response");
-        }
+    private ResponseOutcome toResponseOutcome(JsonNode resp) {
         String status = resp.path("status").asText("");
         String incompleteReason = resp.path("incomplete_details").path("reason").asText("");
 
@@ -242,7 +361,54 @@ public class OpenAiClient {
         return new ResponseOutcome(out, status, incompleteReason);
     }
 
-    private String generateViaChatCompletions(String model, String instructions, List<ChatInputMessage> chatMessages, int maxOutputTokens) {
+    private ObjectNode buildResponsesBody(
+            String model,
+            String instructions,
+            List<ChatInputMessage> messages,
+            int maxOutputTokens,
+            String reasoningEffort
+    ) {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("model", model);
+        if (instructions != null && !instructions.isBlank()) {
+            body.put("instructions", instructions);
+        }
+        int effectiveMaxTokens;
+        if (responsesMaxOutputTokens > 0) {
+            effectiveMaxTokens = (maxOutputTokens > 0)
+                    ? Math.max(maxOutputTokens, responsesMaxOutputTokens)
+                    : responsesMaxOutputTokens;
+        } else {
+            effectiveMaxTokens = maxOutputTokens;
+        }
+        if (effectiveMaxTokens > 0) {
+            body.put("max_output_tokens", effectiveMaxTokens);
+        }
+        if (reasoningEffort != null && !reasoningEffort.isBlank()) {
+            ObjectNode reasoning = body.putObject("reasoning");
+            reasoning.put("effort", reasoningEffort);
+        }
+
+        ArrayNode input = body.putArray("input");
+        for (ChatInputMessage msg : messages) {
+            ObjectNode node = input.addObject();
+            node.put("role", normalizeRole(msg.role()));
+            ArrayNode content = node.putArray("content");
+            content.addObject().put("type", "input_text").put("text", msg.text());
+            if (msg.imageUrls() != null && "user".equals(normalizeRole(msg.role()))) {
+                for (String url : msg.imageUrls()) {
+                    if (url == null || url.isBlank()) continue;
+                    ObjectNode img = content.addObject();
+                    img.put("type", "input_image");
+                    img.put("image_url", url);
+                }
+            }
+        }
+
+        return body;
+    }
+
+    private Mono<String> generateViaChatCompletions(String model, String instructions, List<ChatInputMessage> chatMessages, int maxOutputTokens) {
         ObjectNode body = mapper.createObjectNode();
         body.put("model", model);
         int totalInputLength = chatMessages.stream().mapToInt(m -> m.text() == null ? 0 : m.text().length()).sum();
@@ -289,20 +455,19 @@ public class OpenAiClient {
             }
         }
 
-        JsonNode resp = postJson("/chat/completions", body, "Chat Completions API call failed");
-        if (resp == null) {
-            throw new OpenAiException("Chat Completions API returned empty response");
-        }
-
-        JsonNode choices = resp.path("choices");
-        if (choices.isArray() && choices.size() > 0) {
-            JsonNode msg = choices.get(0).path("message");
-            String content = msg.path("content").asText("");
-            if (!content.isBlank()) {
-                return content;
-            }
-        }
-        throw new OpenAiException("Chat Completions returned empty content");
+        return postJsonReactive("/chat/completions", body, "Chat Completions API call failed")
+                .switchIfEmpty(Mono.error(() -> new OpenAiException("Chat Completions API returned empty response")))
+                .flatMap(resp -> {
+                    JsonNode choices = resp.path("choices");
+                    if (choices.isArray() && choices.size() > 0) {
+                        JsonNode msg = choices.get(0).path("message");
+                        String content = msg.path("content").asString("");
+                        if (!content.isBlank()) {
+                            return Mono.just(content);
+                        }
+                    }
+                    return Mono.error(new OpenAiException("Chat Completions returned empty content"));
+                });
     }
 
     private List<ChatInputMessage> normalizeMessages(List<ChatInputMessage> messages) {
@@ -329,6 +494,13 @@ public class OpenAiClient {
     }
 
     private JsonNode postJson(String path, ObjectNode body, String errorPrefix) {
+        return postJsonReactive(path, body, errorPrefix).block();
+    }
+
+    /**
+     * Emits the parsed response body, or completes empty when the API returned no body.
+     */
+    private Mono<JsonNode> postJsonReactive(String path, ObjectNode body, String errorPrefix) {
         String bodyString = null;
         try {
             bodyString = mapper.writeValueAsString(body);
@@ -337,11 +509,11 @@ public class OpenAiClient {
             log.info("Sending request to '{}' with body: {}", path, bodyString);
         } catch (Exception e) {
             log.error("Could not serialize body for logging: {}", e.getMessage(), e);
-            throw new OpenAiException("Failed to serialize request body", e);
+            return Mono.error(new OpenAiException("Failed to serialize request body", e));
         }
         
         // ✅ 응답을 먼저 raw string으로 받아서 로그로 남기고 -> 그 다음 JsonNode로 파싱 (가장 디버그가 잘 됨)
-        String raw = webClient.post()
+        return webClient.post()
                 .uri(path)
                 .header(org.springframework.http.HttpHeaders.CONTENT_TYPE, "application/json")
                 .bodyValue(bodyString)
@@ -353,9 +525,10 @@ public class OpenAiClient {
                                 .flatMap(bodyText -> {
                                     log.error("OpenAI API Error Response - Status: {}, Body: {}",
                                             response.statusCode().value(), bodyText);
-                                    return Mono.error(
-                                            new OpenAiException(errorPrefix + " (HTTP " + response.statusCode().value() + "): " + bodyText)
-                                    );
+                                    return Mono.error(new OpenAiException(
+                                            errorPrefix + " (HTTP " + response.statusCode().value() + "): " + bodyText,
+                                            response.statusCode().value()
+                                    ));
                                 })
                 )
                 .bodyToMono(String.class)
@@ -364,20 +537,28 @@ public class OpenAiClient {
                     if (ex instanceof OpenAiException) return Mono.error(ex);
                     return Mono.error(new OpenAiException(errorPrefix, ex));
                 })
-                .block();
+                .defaultIfEmpty("")
+                .flatMap(raw -> {
+                    if (raw == null || raw.isBlank()) {
+                        log.warn("OpenAI API returned empty body for path={}", path);
+                        return Mono.empty();
+                    }
+                    // Embedding responses are megabytes of floats; never log them whole.
+                    if (log.isDebugEnabled()) {
+                        log.debug("OpenAI API raw response (path={}, {} chars): {}", path, raw.length(), abbreviate(raw));
+                    }
 
-        if (raw == null || raw.isBlank()) {
-            log.warn("OpenAI API returned empty body for path={}", path);
-            return null;
-        }
-        log.info("OpenAI API raw response (path={}): {}", path, raw);
+                    try {
+                        return Mono.just(mapper.readTree(raw));
+                    } catch (Exception e) {
+                        log.error("Failed to parse OpenAI response JSON. raw={}", abbreviate(raw), e);
+                        return Mono.error(new OpenAiException("Failed to parse OpenAI response JSON", e));
+                    }
+                });
+    }
 
-        try {
-            return mapper.readTree(raw);
-        } catch (Exception e) {
-            log.error("Failed to parse OpenAI response JSON. raw={}", raw, e);
-            throw new OpenAiException("Failed to parse OpenAI response JSON", e);
-        }
+    private static String abbreviate(String raw) {
+        return raw.length() <= MAX_LOGGED_BODY_CHARS ? raw : raw.substring(0, MAX_LOGGED_BODY_CHARS) + "...";
     }
 
     private record ResponseOutcome(String text, String status, String incompleteReason) {
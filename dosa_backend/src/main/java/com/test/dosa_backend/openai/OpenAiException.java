@@ -1,11 +1,29 @@
 package com.test.dosa_backend.openai;
 
 public class OpenAiException extends RuntimeException {
+
+    // HTTP status of the failed call; 0 when the failure was not an HTTP error response.
+    private final int statusCode;
+
     public OpenAiException(String message) {
-        super(message);
+        this(message, 0);
     }
 
     public OpenAiException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = 0;
+    }
+
+    public OpenAiException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRateLimited() {
+        return statusCode == 429;
     }
 }
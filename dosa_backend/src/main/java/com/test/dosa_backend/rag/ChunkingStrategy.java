@@ -0,0 +1,14 @@
+package com.test.dosa_backend.rag;
+
+import java.util.List;
+
+/**
+ * Turns extracted PDF pages into chunks. Implementations are Spring beans looked up by
+ * {@link #name()} in {@link TextChunker}; chunk indices are assigned by the caller.
+ */
+public interface ChunkingStrategy {
+
+    String name();
+
+    List<TextChunker.TextChunk> chunk(Iterable<PdfTextExtractor.PageText> pages);
+}
@@ -0,0 +1,63 @@
+package com.test.dosa_backend.rag;
+
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Helpers for indexes built with {@code CREATE INDEX CONCURRENTLY}, which must run outside a transaction and
+ * leave an INVALID index behind when the build fails or is cancelled.
+ */
+final class ConcurrentIndexes {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentIndexes.class);
+    private static final String LOCK_PREFIX = "index-build:";
+
+    private ConcurrentIndexes() {
+    }
+
+    /**
+     * Runs {@code work} on a single connection while holding a session advisory lock named after the index,
+     * so builds of the same index never overlap, on this node or another.
+     *
+     * @return {@code false} without running {@code work} when another session holds the lock
+     */
+    static boolean withLock(JdbcTemplate jdbcTemplate, String indexName, Consumer<JdbcTemplate> work) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+            String lockName = LOCK_PREFIX + indexName;
+            Boolean locked = session.queryForObject("SELECT pg_try_advisory_lock(hashtext(?))", Boolean.class, lockName);
+            if (!Boolean.TRUE.equals(locked)) {
+                return false;
+            }
+            try {
+                work.accept(session);
+                return true;
+            } finally {
+                session.queryForObject("SELECT pg_advisory_unlock(hashtext(?))", Boolean.class, lockName);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    /**
+     * Runs {@code createDdl} ({@code CREATE INDEX CONCURRENTLY IF NOT EXISTS ...}) after dropping an INVALID
+     * leftover of {@code indexName}, which {@code IF NOT EXISTS} would otherwise skip forever.
+     * Call it while holding {@link #withLock} so a build still running elsewhere is not mistaken for a leftover.
+     */
+    static void createIfMissing(JdbcTemplate session, String indexName, String createDdl) {
+        Boolean valid = session.query(
+                "SELECT i.indisvalid FROM pg_index i WHERE i.indexrelid = to_regclass(?)",
+                rs -> rs.next() ? rs.getBoolean(1) : null,
+                indexName);
+        if (Boolean.FALSE.equals(valid)) {
+            log.warn("Index {} is INVALID after an interrupted build; dropping it before building again.", indexName);
+            session.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+        }
+        session.execute(createDdl);
+    }
+}
@@ -0,0 +1,56 @@
+package com.test.dosa_backend.rag;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits embedding inputs into request-sized batches by estimated token count instead of a
+ * fixed number of inputs, so short chunks are packed densely and no request exceeds the limits.
+ */
+public final class EmbeddingBatcher {
+
+    private EmbeddingBatcher() {
+    }
+
+    /**
+     * Conservative token estimate without a tokenizer: UTF-8 bytes / 2.
+     * English BPE averages ~4 bytes per token and Hangul ~3 bytes per token, so this over-counts.
+     */
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) return 1;
+        int bytes = text.getBytes(StandardCharsets.UTF_8).length;
+        return Math.max(1, (bytes + 1) / 2);
+    }
+
+    /**
+     * Returns [start, end) index ranges over {@code texts}. Every range holds at most
+     * {@code maxInputs} inputs and {@code maxTokens} estimated tokens, except that a single
+     * oversized input still gets a batch of its own.
+     */
+    public static List<Range> plan(List<String> texts, int maxTokens, int maxInputs) {
+        List<Range> out = new ArrayList<>();
+        int start = 0;
+        int tokens = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            int t = estimateTokens(texts.get(i));
+            int count = i - start;
+            if (count > 0 && (tokens + t > maxTokens || count >= maxInputs)) {
+                out.add(new Range(start, i, tokens));
+                start = i;
+                tokens = 0;
+            }
+            tokens += t;
+        }
+        if (start < texts.size()) {
+            out.add(new Range(start, texts.size(), tokens));
+        }
+        return out;
+    }
+
+    public record Range(int start, int end, int estimatedTokens) {
+        public int size() {
+            return end - start;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Original behavior: 1200-char window with a 150-char overlap, measured in Java chars.
+ */
+@Component
+public class FixedWindowChunkingStrategy implements ChunkingStrategy {
+
+    public static final String NAME = "fixed";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<TextChunker.TextChunk> chunk(Iterable<PdfTextExtractor.PageText> pages) {
+        // Heuristic: 1200 chars chunk, 150 chars overlap
+        final int maxChars = 1200;
+        final int overlap = 150;
+
+        List<TextChunker.TextChunk> chunks = new ArrayList<>();
+        StringBuilder buf = new StringBuilder();
+        int startPage = -1;
+        int endPage = -1;
+
+        for (PdfTextExtractor.PageText p : pages) {
+            String t = p.text();
+            if (t == null || t.isBlank()) {
+                continue;
+            }
+            if (startPage == -1) startPage = p.pageNumber();
+            endPage = p.pageNumber();
+
+            // page delimiter (help the model cite pages)
+            String pagePrefix = "\n\n[page " + p.pageNumber() + "]\n";
+            if (buf.length() + pagePrefix.length() + t.length() > maxChars && buf.length() > 0) {
+                // flush
+                chunks.add(TextChunker.newChunk(buf.toString(), startPage, endPage, NAME, null));
+
+                // overlap
+                String tail = tail(buf.toString(), overlap);
+                buf.setLength(0);
+                buf.append(tail);
+                // reset pages: overlap may cross pages; keep conservative range
+                startPage = Math.max(1, endPage);
+            }
+
+            buf.append(pagePrefix).append(t);
+        }
+
+        if (buf.length() > 0) {
+            chunks.add(TextChunker.newChunk(buf.toString(), startPage == -1 ? 1 : startPage, endPage == -1 ? 1 : endPage, NAME, null));
+        }
+        return chunks;
+    }
+
+    private String tail(String s, int n) {
+        if (s == null) return "";
+        if (s.length() <= n) return s;
+        return s.substring(Math.max(0, s.length() - n));
+    }
+}
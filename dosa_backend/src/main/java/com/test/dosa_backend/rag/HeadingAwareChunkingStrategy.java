@@ -0,0 +1,84 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.test.dosa_backend.config.ChunkingProperties;
+
+/**
+ * Sentence packing that also starts a new chunk at every detected heading and records the
+ * heading as the chunk's {@code section}, so a chunk never mixes two sections of a manual.
+ */
+@Component
+public class HeadingAwareChunkingStrategy implements ChunkingStrategy {
+
+    public static final String NAME = "heading";
+
+    private static final int MAX_HEADING_CHARS = 60;
+    // "# 제목", "제 3 장 ...", "1.2 ...", "IV. ...", "가. ...", "Chapter 2 ..."
+    private static final Pattern HEADING = Pattern.compile(
+            "^(#{1,6}\\s+\\S.*"
+                    + "|제\\s*\\d+\\s*[편장절조].*"
+                    // a number alone is not a heading: "2 3.5 kW" is a table row
+                    + "|\\d+(\\.\\d+)*\\.?\\s+[^\\d\\s].*"
+                    + "|[IVX]+\\.\\s+\\S.*"
+                    + "|[가-하]\\.\\s+\\S.*"
+                    + "|(?i:chapter|section)\\s+\\d+.*)$");
+    // Numbered list items that are full sentences ("1. 볼트를 조인다.") are body text.
+    private static final Pattern SENTENCE_TAIL = Pattern.compile("[.!?。！？:;,]$");
+
+    private final TokenCounter tokenCounter;
+    private final ChunkingProperties properties;
+    private final SentenceChunkingStrategy sentences;
+
+    public HeadingAwareChunkingStrategy(
+            TokenCounter tokenCounter,
+            ChunkingProperties properties,
+            SentenceChunkingStrategy sentences
+    ) {
+        this.tokenCounter = tokenCounter;
+        this.properties = properties;
+        this.sentences = sentences;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<TextChunker.TextChunk> chunk(Iterable<PdfTextExtractor.PageText> pages) {
+        List<SegmentPacker.Segment> segments = new ArrayList<>();
+        String section = null;
+        for (PdfTextExtractor.PageText p : pages) {
+            if (p.text() == null || p.text().isBlank()) continue;
+            StringBuilder paragraph = new StringBuilder();
+            for (String raw : p.text().split("\n")) {
+                String line = raw.trim();
+                if (line.isEmpty()) {
+                    sentences.addParagraph(segments, paragraph.toString(), p.pageNumber(), section);
+                    paragraph.setLength(0);
+                } else if (isHeading(line)) {
+                    sentences.addParagraph(segments, paragraph.toString(), p.pageNumber(), section);
+                    paragraph.setLength(0);
+                    section = line;
+                    segments.add(new SegmentPacker.Segment(
+                            line, p.pageNumber(), tokenCounter.count(line), section, true, true));
+                } else {
+                    paragraph.append(line).append('\n');
+                }
+            }
+            sentences.addParagraph(segments, paragraph.toString(), p.pageNumber(), section);
+        }
+        return SegmentPacker.pack(segments, properties.getMaxTokens(), properties.getOverlapTokens(), NAME);
+    }
+
+    static boolean isHeading(String line) {
+        return line.length() <= MAX_HEADING_CHARS
+                && HEADING.matcher(line).matches()
+                && !SENTENCE_TAIL.matcher(line).find();
+    }
+}
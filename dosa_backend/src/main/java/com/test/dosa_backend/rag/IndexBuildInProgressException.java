@@ -0,0 +1,11 @@
+package com.test.dosa_backend.rag;
+
+/**
+ * Thrown when another session is already building the same index; mapped to HTTP 409.
+ */
+public class IndexBuildInProgressException extends RuntimeException {
+
+    public IndexBuildInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,175 @@
+package com.test.dosa_backend.rag;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Full-text search over document_chunks.content_text, the lexical leg of hybrid retrieval.
+ * <p>
+ * Uses the 'simple' text search configuration (lowercasing only, no stemming or stop words) so that
+ * part identifiers such as {@code v4_engine} and Korean technical terms are matched as written.
+ */
+@Repository
+public class LexicalSearchRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(LexicalSearchRepository.class);
+    private static final String INDEX_NAME = "document_chunks_content_fts_idx";
+    private static final String TSVECTOR = "to_tsvector('simple', c.content_text)";
+    private static final String SEARCH_SELECT =
+            "SELECT c.id AS chunk_id, c.document_id, c.chunk_index, c.content_text, c.meta, d.title AS doc_title, " +
+                    "ts_rank_cd(" + TSVECTOR + ", q) AS rank " +
+                    "FROM document_chunks c " +
+                    "JOIN documents d ON d.id = c.document_id " +
+                    "CROSS JOIN to_tsquery('simple', ?) q " +
+                    "WHERE " + TSVECTOR + " @@ q ";
+    private static final String SEARCH_ALL_SQL = SEARCH_SELECT +
+            "ORDER BY rank DESC LIMIT ?";
+    private static final String SEARCH_BY_DOCUMENTS_SQL = SEARCH_SELECT +
+            "AND c.document_id = ANY(?) " +
+            "ORDER BY rank DESC LIMIT ?";
+
+    private static final Pattern WORD = Pattern.compile("\\S+");
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAX_QUERY_WORDS = 16;
+    // Common trailing particles; "엔진의" should still find "엔진". Longest first.
+    private static final String[] KOREAN_PARTICLES = {
+            "에서", "으로", "에게", "까지", "부터", "은", "는", "이", "가", "을", "를", "의", "에", "로", "와", "과", "도", "만"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor indexBuildExecutor;
+
+    public LexicalSearchRepository(
+            JdbcTemplate jdbcTemplate,
+            @Qualifier("indexBuildExecutor") Executor indexBuildExecutor
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexBuildExecutor = indexBuildExecutor;
+    }
+
+    /**
+     * Builds the GIN index after startup, like the vector index; full-text search scans sequentially until then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexAfterStartup() {
+        indexBuildExecutor.execute(this::ensureIndex);
+    }
+
+    void ensureIndex() {
+        try {
+            // Expression index; queries must use the exact same to_tsvector(...) expression to hit it.
+            String ddl = "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX_NAME +
+                    " ON document_chunks USING gin (to_tsvector('simple', content_text))";
+            boolean ran = ConcurrentIndexes.withLock(jdbcTemplate, INDEX_NAME,
+                    session -> ConcurrentIndexes.createIfMissing(session, INDEX_NAME, ddl));
+            if (!ran) {
+                log.info("Full-text index {} is being built by another session; skipping.", INDEX_NAME);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to create full-text index {}; lexical search will fall back to a sequential scan.", INDEX_NAME, e);
+        }
+    }
+
+    /**
+     * @return hits ordered by ts_rank_cd, best first; empty when the query has no searchable terms
+     */
+    public List<LexicalHit> search(String query, int limit, List<UUID> documentIds) {
+        String tsQuery = toTsQuery(query);
+        if (tsQuery == null) {
+            return List.of();
+        }
+        boolean filtered = documentIds != null && !documentIds.isEmpty();
+        String sql = filtered ? SEARCH_BY_DOCUMENTS_SQL : SEARCH_ALL_SQL;
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int idx = 1;
+            ps.setString(idx++, tsQuery);
+            if (filtered) {
+                ps.setArray(idx++, con.createArrayOf("uuid", documentIds.toArray()));
+            }
+            ps.setInt(idx, limit);
+            return ps;
+        }, (rs, rowNum) -> new LexicalHit(
+                rs.getObject("chunk_id", UUID.class),
+                rs.getObject("document_id", UUID.class),
+                rs.getInt("chunk_index"),
+                rs.getString("content_text"),
+                rs.getString("meta"),
+                rs.getString("doc_title"),
+                rs.getDouble("rank")
+        ));
+    }
+
+    /**
+     * Builds an OR of prefix terms from free text. Tokens of one word are AND-ed, so {@code v4_engine}
+     * becomes {@code (v4:* & engine:*)}, matching how the 'simple' parser splits it in the document.
+     * Only letters and digits reach the tsquery, so user input cannot inject tsquery operators.
+     *
+     * @return the tsquery text, or {@code null} if nothing searchable is left
+     */
+    static String toTsQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        Set<String> words = new LinkedHashSet<>();
+        Matcher word = WORD.matcher(query.toLowerCase(Locale.ROOT));
+        while (word.find() && words.size() < MAX_QUERY_WORDS) {
+            List<String> tokens = new ArrayList<>();
+            Matcher token = TOKEN.matcher(word.group());
+            while (token.find()) {
+                String t = stripParticle(token.group());
+                if (t.length() >= 2 || t.chars().allMatch(Character::isDigit)) {
+                    tokens.add(t + ":*");
+                }
+            }
+            if (tokens.size() == 1) {
+                words.add(tokens.get(0));
+            } else if (tokens.size() > 1) {
+                words.add("(" + String.join(" & ", tokens) + ")");
+            }
+        }
+        return words.isEmpty() ? null : String.join(" | ", words);
+    }
+
+    private static String stripParticle(String token) {
+        if (token.length() < 3 || !isHangul(token.charAt(token.length() - 1))) {
+            return token;
+        }
+        for (String particle : KOREAN_PARTICLES) {
+            if (token.endsWith(particle) && token.length() - particle.length() >= 2) {
+                return token.substring(0, token.length() - particle.length());
+            }
+        }
+        return token;
+    }
+
+    private static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+
+    public record LexicalHit(
+            UUID chunkId,
+            UUID documentId,
+            int chunkIndex,
+            String contentText,
+            String metaJson,
+            String documentTitle,
+            double rank
+    ) {}
+}
@@ -1,51 +1,260 @@
 package com.test.dosa_backend.rag;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
+/**
+ * Extracts text page by page as a {@link PageStream}, so callers never hold the whole document's
+ * text and PDFBox never holds the whole parsed document in heap.
+ * <p>
+ * Each open document buffers at most {@code app.pdf-extract.max-main-memory-bytes} of stream data
+ * in heap and spills the rest to temp files. Large PDFs are read through several handles (one per
+ * worker, since PDDocument is not thread-safe) that strip consecutive page windows concurrently;
+ * the budget is per document and split evenly between its handles.
+ */
 @Component
 public class PdfTextExtractor {
 
-    public List<PageText> extract(String pdfPath) throws IOException {
+    private static final Logger log = LoggerFactory.getLogger(PdfTextExtractor.class);
+    // Upper bound on pages stripped per handle per window (bounds buffered text).
+    private static final int MAX_PAGES_PER_WINDOW = 64;
+
+    private final Executor executor;
+    private final int workers;
+    private final int minPagesPerWorker;
+    private final long maxMainMemoryBytes;
+    private final File tempDir;
+
+    @Autowired
+    public PdfTextExtractor(
+            @Qualifier("pdfExtractExecutor") Executor executor,
+            @Value("${app.pdf-extract.workers:0}") int workers,
+            @Value("${app.pdf-extract.min-pages-per-worker:16}") int minPagesPerWorker,
+            @Value("${app.pdf-extract.max-main-memory-bytes:33554432}") long maxMainMemoryBytes,
+            @Value("${app.pdf-extract.temp-dir:}") String tempDir
+    ) {
+        this.executor = executor;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.minPagesPerWorker = Math.max(1, minPagesPerWorker);
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+        this.tempDir = (tempDir == null || tempDir.isBlank()) ? null : new File(tempDir);
+    }
+
+    /**
+     * Sequential extractor (no worker pool), e.g. for tools and tests.
+     */
+    public PdfTextExtractor() {
+        this(Runnable::run, 1, Integer.MAX_VALUE, 32L * 1024 * 1024, null);
+    }
+
+    /**
+     * Opens the PDF for page-by-page extraction. The caller must close the returned stream.
+     */
+    public PageStream open(String pdfPath) throws IOException {
         File f = new File(pdfPath);
         if (!f.exists()) {
             throw new IllegalArgumentException("PDF not found: " + pdfPath);
         }
 
-        try (PDDocument doc = Loader.loadPDF(f)) {
-            int pages = doc.getNumberOfPages();
-            PDFTextStripper stripper = new PDFTextStripper();
-            List<PageText> out = new ArrayList<>(pages);
+        List<PDDocument> handles = new ArrayList<>();
+        try {
+            handles.add(load(f, 1));
+            int pages = handles.get(0).getNumberOfPages();
+            int handleCount = Math.max(1, Math.min(workers, pages / minPagesPerWorker));
+            if (handleCount > 1 && maxMainMemoryBytes > 0) {
+                // The first handle was opened with the whole budget; reopen it with its share.
+                handles.remove(0).close();
+            }
+            while (handles.size() < handleCount) {
+                handles.add(load(f, handleCount));
+            }
+            log.debug("Opened {} ({} pages, {} handles, memory={})", pdfPath, pages, handleCount, memoryUsage(handleCount));
+            return new PageStream(handles, pages);
+        } catch (IOException | RuntimeException e) {
+            closeAll(handles, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Convenience for callers that need every page at once (e.g. benchmarks over the same pages).
+     */
+    public List<PageText> extract(String pdfPath) throws IOException {
+        try (PageStream pages = open(pdfPath)) {
+            List<PageText> out = new ArrayList<>(pages.pageCount());
+            for (PageText p : pages) {
+                out.add(p);
+            }
+            return out;
+        }
+    }
+
+    private PDDocument load(File f, int handleCount) throws IOException {
+        RandomAccessReadBufferedFile source = new RandomAccessReadBufferedFile(f);
+        try {
+            // PDDocument closes the source on close()
+            return Loader.loadPDF(source, null, memoryUsage(handleCount).streamCache);
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    // The memory setting applies per handle, so each of the document's handles gets an equal share.
+    private MemoryUsageSetting memoryUsage(int handleCount) {
+        MemoryUsageSetting setting;
+        if (maxMainMemoryBytes < 0) {
+            setting = MemoryUsageSetting.setupMainMemoryOnly();
+        } else if (maxMainMemoryBytes == 0) {
+            setting = MemoryUsageSetting.setupTempFileOnly();
+        } else {
+            setting = MemoryUsageSetting.setupMixed(Math.max(1, maxMainMemoryBytes / handleCount));
+        }
+        return tempDir == null ? setting : setting.setTempDir(tempDir);
+    }
+
+    private static void closeAll(List<PDDocument> handles, Exception primary) {
+        for (PDDocument d : handles) {
+            try {
+                d.close();
+            } catch (IOException e) {
+                primary.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Single-use, ordered stream of pages. Pages are stripped in windows of
+     * {@code handles × min-pages-per-worker} pages, so at most one window of text is buffered.
+     */
+    public final class PageStream implements Iterable<PageText>, AutoCloseable {
+
+        private final List<PDDocument> handles;
+        private final List<PDFTextStripper> strippers;
+        private final int pageCount;
+        private final Deque<PageText> buffer = new ArrayDeque<>();
+        private int nextPage = 1;
+        private boolean iterated;
 
-            for (int p = 1; p <= pages; p++) {
+        private PageStream(List<PDDocument> handles, int pageCount) throws IOException {
+            this.handles = handles;
+            this.pageCount = pageCount;
+            this.strippers = new ArrayList<>(handles.size());
+            for (int i = 0; i < handles.size(); i++) {
+                strippers.add(new PDFTextStripper());
+            }
+        }
+
+        public int pageCount() {
+            return pageCount;
+        }
+
+        @Override
+        public Iterator<PageText> iterator() {
+            if (iterated) {
+                throw new IllegalStateException("PageStream can only be iterated once");
+            }
+            iterated = true;
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    if (buffer.isEmpty()) {
+                        fill();
+                    }
+                    return !buffer.isEmpty();
+                }
+
+                @Override
+                public PageText next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return buffer.poll();
+                }
+            };
+        }
+
+        private void fill() {
+            if (nextPage > pageCount) return;
+            int perHandle = Math.min(minPagesPerWorker, MAX_PAGES_PER_WINDOW);
+            List<CompletableFuture<List<PageText>>> futures = new ArrayList<>(handles.size() - 1);
+            int firstEnd = Math.min(pageCount, nextPage + perHandle - 1);
+            // Handles 1..n strip the following ranges on the pool; handle 0 runs on the caller.
+            for (int h = 1, from = firstEnd + 1; h < handles.size() && from <= pageCount; h++, from += perHandle) {
+                int handle = h;
+                int rangeStart = from;
+                int rangeEnd = Math.min(pageCount, from + perHandle - 1);
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return extractRange(handle, rangeStart, rangeEnd);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, executor));
+            }
+
+            try {
+                buffer.addAll(extractRange(0, nextPage, firstEnd));
+                nextPage = firstEnd + 1;
+                for (CompletableFuture<List<PageText>> future : futures) {
+                    List<PageText> range = future.join();
+                    buffer.addAll(range);
+                    nextPage = range.get(range.size() - 1).pageNumber() + 1;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Never let close() run while a worker still uses its handle.
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).handle((r, x) -> null).join();
+                if (e instanceof IOException io) throw new UncheckedIOException(io);
+                if (e instanceof CompletionException && e.getCause() instanceof RuntimeException re) throw re;
+                throw (RuntimeException) e;
+            }
+        }
+
+        private List<PageText> extractRange(int handle, int startPage, int endPage) throws IOException {
+            PDFTextStripper stripper = strippers.get(handle);
+            List<PageText> out = new ArrayList<>(endPage - startPage + 1);
+            for (int p = startPage; p <= endPage; p++) {
                 stripper.setStartPage(p);
                 stripper.setEndPage(p);
-                String text = stripper.getText(doc);
-                text = normalize(text);
-                out.add(new PageText(p, text));
+                String text = stripper.getText(handles.get(handle));
+                out.add(new PageText(p, TextNormalizer.normalize(text)));
             }
             return out;
         }
-    }
 
-    private String normalize(String s) {
-        if (s == null) return "";
-        // Reduce weird whitespace; keep line breaks as single \n
-        s = s.replace("\r\n", "\n").replace("\r", "\n");
-        // Remove null byte and non-printable control chars that break PostgreSQL UTF-8 inserts.
-        s = s.replace("\u0000", "");
-        s = s.replaceAll("[\\x00-\\x08\\x0B\\x0E-\\x1F\\x7F]", " ");
-        s = s.replaceAll("[\t\f]", " ");
-        s = s.replaceAll("[ ]{2,}", " ");
-        s = s.replaceAll("\n{3,}", "\n\n");
-        return s.trim();
+        @Override
+        public void close() throws IOException {
+            IOException first = null;
+            for (PDDocument d : handles) {
+                try {
+                    d.close();
+                } catch (IOException e) {
+                    if (first == null) first = e;
+                    else first.addSuppressed(e);
+                }
+            }
+            if (first != null) throw first;
+        }
     }
 
     public record PageText(int pageNumber, String text) {}
@@ -0,0 +1,38 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reciprocal rank fusion: every ranking contributes {@code 1 / (k + rank)} (rank is 1-based) to an item's score.
+ * Only ranks are used, so scores from different retrievers (cosine distance, ts_rank) never need normalizing.
+ */
+public final class ReciprocalRankFusion {
+
+    private ReciprocalRankFusion() {}
+
+    /**
+     * @return at most {@code limit} items ordered by fused score; ties keep first-seen order
+     */
+    public static List<Fused> fuse(List<List<UUID>> rankings, int k, int limit) {
+        Map<UUID, double[]> scores = new LinkedHashMap<>();
+        for (List<UUID> ranking : rankings) {
+            for (int i = 0; i < ranking.size(); i++) {
+                scores.computeIfAbsent(ranking.get(i), id -> new double[1])[0] += 1.0 / (k + i + 1);
+            }
+        }
+        List<Fused> out = new ArrayList<>(scores.size());
+        for (Map.Entry<UUID, double[]> e : scores.entrySet()) {
+            out.add(new Fused(e.getKey(), e.getValue()[0]));
+        }
+        // List.sort is stable, so equal scores stay in first-seen order.
+        out.sort(Comparator.comparingDouble(Fused::score).reversed());
+        return out.size() > limit ? out.subList(0, Math.max(0, limit)) : out;
+    }
+
+    public record Fused(UUID chunkId, double score) {}
+}
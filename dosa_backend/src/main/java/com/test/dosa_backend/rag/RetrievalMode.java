@@ -0,0 +1,27 @@
+package com.test.dosa_backend.rag;
+
+import java.util.Locale;
+
+/**
+ * How {@link com.test.dosa_backend.service.RagService} finds candidate chunks.
+ */
+public enum RetrievalMode {
+    /** Cosine distance over chunk_embeddings only. */
+    VECTOR,
+    /** Full-text and vector search run concurrently and are fused with reciprocal rank fusion. */
+    HYBRID;
+
+    /**
+     * @return the matching mode, or {@code null} when {@code value} is blank
+     */
+    public static RetrievalMode parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "vector" -> VECTOR;
+            case "hybrid" -> HYBRID;
+            default -> throw new IllegalArgumentException("Unknown retrieval mode: " + value + " (expected vector or hybrid)");
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Greedily packs pre-split segments (lines, sentences, headings) into chunks under a token budget.
+ * Overlap carries whole trailing segments, so chunks never start mid-segment.
+ */
+final class SegmentPacker {
+
+    /**
+     * @param paragraphStart segment starts a new paragraph (joined with a newline instead of a space)
+     * @param breakBefore    always start a new chunk here, without overlap (e.g. a heading)
+     */
+    record Segment(String text, int page, int tokens, String section, boolean paragraphStart, boolean breakBefore) {}
+
+    private SegmentPacker() {
+    }
+
+    static List<TextChunker.TextChunk> pack(List<Segment> segments, int maxTokens, int overlapTokens, String strategy) {
+        List<TextChunker.TextChunk> out = new ArrayList<>();
+        List<Segment> cur = new ArrayList<>();
+        int curTokens = 0;
+
+        for (Segment seg : segments) {
+            if (seg.breakBefore() && !cur.isEmpty()) {
+                out.add(build(cur, curTokens, strategy));
+                cur = new ArrayList<>();
+                curTokens = 0;
+            } else if (curTokens + seg.tokens() > maxTokens && !cur.isEmpty()) {
+                out.add(build(cur, curTokens, strategy));
+                Deque<Segment> carried = overlap(cur, overlapTokens, maxTokens - seg.tokens());
+                cur = new ArrayList<>(carried);
+                curTokens = carried.stream().mapToInt(Segment::tokens).sum();
+            }
+            cur.add(seg);
+            curTokens += seg.tokens();
+        }
+        if (!cur.isEmpty()) {
+            out.add(build(cur, curTokens, strategy));
+        }
+        return out;
+    }
+
+    private static Deque<Segment> overlap(List<Segment> flushed, int overlapTokens, int room) {
+        Deque<Segment> carried = new ArrayDeque<>();
+        int budget = Math.min(overlapTokens, room);
+        int used = 0;
+        // Keep at least one fresh segment per chunk: never carry the whole previous chunk.
+        for (int i = flushed.size() - 1; i > 0; i--) {
+            Segment s = flushed.get(i);
+            if (used + s.tokens() > budget) break;
+            carried.addFirst(s);
+            used += s.tokens();
+        }
+        return carried;
+    }
+
+    private static TextChunker.TextChunk build(List<Segment> segs, int tokens, String strategy) {
+        StringBuilder sb = new StringBuilder();
+        int prevPage = -1;
+        for (Segment s : segs) {
+            if (s.page() != prevPage) {
+                // page delimiter (help the model cite pages)
+                sb.append("\n\n[page ").append(s.page()).append("]\n");
+                prevPage = s.page();
+            } else if (s.paragraphStart()) {
+                sb.append('\n');
+            } else {
+                sb.append(' ');
+            }
+            sb.append(s.text());
+        }
+        String section = segs.get(0).section();
+        return TextChunker.newChunk(sb.toString(), segs.get(0).page(), segs.get(segs.size() - 1).page(), strategy,
+                meta -> {
+                    meta.put("tokens", tokens);
+                    if (section != null) meta.put("section", section);
+                });
+    }
+}
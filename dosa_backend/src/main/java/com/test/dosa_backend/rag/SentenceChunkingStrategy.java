@@ -0,0 +1,65 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.test.dosa_backend.config.ChunkingProperties;
+
+/**
+ * Splits pages into paragraphs and sentences and packs whole sentences under the token budget,
+ * so chunks never end mid-sentence (only a single over-budget sentence is cut).
+ */
+@Component
+public class SentenceChunkingStrategy implements ChunkingStrategy {
+
+    public static final String NAME = "sentence";
+
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern LINE_BREAK = Pattern.compile("\\s*\\n\\s*");
+    // Sentence end: . ! ? (and full-width forms) followed by whitespace; covers Korean "~다." endings.
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?。！？])\\s+");
+
+    private final TokenCounter tokenCounter;
+    private final ChunkingProperties properties;
+
+    public SentenceChunkingStrategy(TokenCounter tokenCounter, ChunkingProperties properties) {
+        this.tokenCounter = tokenCounter;
+        this.properties = properties;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<TextChunker.TextChunk> chunk(Iterable<PdfTextExtractor.PageText> pages) {
+        List<SegmentPacker.Segment> segments = new ArrayList<>();
+        for (PdfTextExtractor.PageText p : pages) {
+            if (p.text() == null || p.text().isBlank()) continue;
+            for (String paragraph : PARAGRAPH_BREAK.split(p.text())) {
+                addParagraph(segments, paragraph, p.pageNumber(), null);
+            }
+        }
+        return SegmentPacker.pack(segments, properties.getMaxTokens(), properties.getOverlapTokens(), NAME);
+    }
+
+    /**
+     * Appends the sentences of one paragraph; PDF hard line breaks inside it are joined with a space.
+     */
+    void addParagraph(List<SegmentPacker.Segment> segments, String paragraph, int page, String section) {
+        String flat = LINE_BREAK.matcher(paragraph.trim()).replaceAll(" ");
+        if (flat.isEmpty()) return;
+        boolean first = true;
+        for (String sentence : SENTENCE_END.split(flat)) {
+            for (String piece : tokenCounter.split(sentence, properties.getMaxTokens())) {
+                segments.add(new SegmentPacker.Segment(
+                        piece, page, tokenCounter.count(piece), section, first, false));
+                first = false;
+            }
+        }
+    }
+}
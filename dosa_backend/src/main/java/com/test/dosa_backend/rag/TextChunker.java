@@ -4,75 +4,141 @@ import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.node.ObjectNode;
 import org.springframework.stereotype.Component;
 
+import com.test.dosa_backend.config.ChunkingProperties;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Entry point for chunking: resolves a {@link ChunkingStrategy} by name (per document, falling
+ * back to {@code app.rag.chunking.default-strategy}) and assigns chunk indices.
+ */
 @Component
 public class TextChunker {
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
-    public List<TextChunk> chunk(List<PdfTextExtractor.PageText> pages) {
-        // Heuristic: 1200 chars chunk, 150 chars overlap
-        final int maxChars = 1200;
-        final int overlap = 150;
+    private final Map<String, ChunkingStrategy> strategies = new LinkedHashMap<>();
+    private final ChunkingProperties properties;
+    private final TokenCounter tokenCounter;
 
-        List<TextChunk> chunks = new ArrayList<>();
-        StringBuilder buf = new StringBuilder();
-        int startPage = -1;
-        int endPage = -1;
+    public TextChunker(List<ChunkingStrategy> strategies, ChunkingProperties properties, TokenCounter tokenCounter) {
+        for (ChunkingStrategy s : strategies) {
+            this.strategies.put(s.name(), s);
+        }
+        this.properties = properties;
+        this.tokenCounter = tokenCounter;
+    }
 
-        for (PdfTextExtractor.PageText p : pages) {
-            String t = p.text();
-            if (t == null || t.isBlank()) {
-                continue;
-            }
-            if (startPage == -1) startPage = p.pageNumber();
-            endPage = p.pageNumber();
-
-            // page delimiter (help the model cite pages)
-            String pagePrefix = "\n\n[page " + p.pageNumber() + "]\n";
-            if (buf.length() + pagePrefix.length() + t.length() > maxChars && buf.length() > 0) {
-                // flush
-                chunks.add(buildChunk(buf.toString(), startPage, endPage));
-
-                // overlap
-                String tail = tail(buf.toString(), overlap);
-                buf.setLength(0);
-                buf.append(tail);
-                // reset pages: overlap may cross pages; keep conservative range
-                startPage = Math.max(1, endPage);
-            }
+    public List<TextChunk> chunk(Iterable<PdfTextExtractor.PageText> pages) {
+        return chunk(pages, null);
+    }
+
+    public List<TextChunk> chunk(Iterable<PdfTextExtractor.PageText> pages, String strategy) {
+        List<TextChunk> chunks = resolve(strategy).chunk(pages);
 
-            buf.append(pagePrefix).append(t);
+        // assign chunkIndex
+        List<TextChunk> out = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            out.add(new TextChunk(i, chunks.get(i).text(), chunks.get(i).metaJson()));
         }
+        return out;
+    }
+
+    public List<String> strategyNames() {
+        return List.copyOf(strategies.keySet());
+    }
+
+    /**
+     * Returns the canonical strategy name, or {@code null} to use the configured default.
+     * Throws {@link IllegalArgumentException} for unknown names.
+     */
+    public String normalizeStrategy(String strategy) {
+        if (strategy == null || strategy.isBlank()) return null;
+        return resolve(strategy).name();
+    }
 
-        if (buf.length() > 0) {
-            chunks.add(buildChunk(buf.toString(), startPage == -1 ? 1 : startPage, endPage == -1 ? 1 : endPage));
+    /**
+     * Runs every strategy over the same pages and reports throughput and chunk size distribution.
+     */
+    public List<StrategyStats> benchmark(List<PdfTextExtractor.PageText> pages) {
+        List<StrategyStats> out = new ArrayList<>();
+        for (ChunkingStrategy s : strategies.values()) {
+            s.chunk(pages); // warm-up (regex/JIT/BPE table)
+            long start = System.nanoTime();
+            List<TextChunk> chunks = s.chunk(pages);
+            long elapsedNanos = System.nanoTime() - start;
+
+            int[] tokens = new int[chunks.size()];
+            long chars = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                tokens[i] = tokenCounter.count(chunks.get(i).text());
+                chars += chunks.get(i).text().length();
+            }
+            Arrays.sort(tokens);
+            int n = tokens.length;
+            out.add(new StrategyStats(
+                    s.name(),
+                    n,
+                    elapsedNanos / 1_000_000.0,
+                    elapsedNanos == 0 ? 0 : n / (elapsedNanos / 1_000_000_000.0),
+                    n == 0 ? 0 : tokens[0],
+                    percentile(tokens, 0.5),
+                    percentile(tokens, 0.95),
+                    n == 0 ? 0 : tokens[n - 1],
+                    n == 0 ? 0 : Arrays.stream(tokens).average().orElse(0),
+                    n == 0 ? 0 : (double) chars / n
+            ));
         }
+        return out;
+    }
 
-        // assign chunkIndex
-        for (int i = 0; i < chunks.size(); i++) {
-            chunks.set(i, new TextChunk(i, chunks.get(i).text(), chunks.get(i).metaJson()));
+    private ChunkingStrategy resolve(String strategy) {
+        String name = (strategy == null || strategy.isBlank())
+                ? properties.getDefaultStrategy()
+                : strategy.trim().toLowerCase(Locale.ROOT);
+        ChunkingStrategy s = strategies.get(name);
+        if (s == null) {
+            throw new IllegalArgumentException("Unknown chunking strategy: " + name + " (supported: " + strategies.keySet() + ")");
         }
+        return s;
+    }
 
-        return chunks;
+    private static int percentile(int[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
     }
 
-    private TextChunk buildChunk(String text, int startPage, int endPage) {
-        ObjectNode meta = mapper.createObjectNode();
+    static TextChunk newChunk(String text, int startPage, int endPage, String strategy, Consumer<ObjectNode> extraMeta) {
+        ObjectNode meta = MAPPER.createObjectNode();
         meta.put("startPage", startPage);
         meta.put("endPage", endPage);
         meta.put("source", "pdf");
-        String metaJson = meta.toString();
-        return new TextChunk(-1, text.trim(), metaJson);
-    }
-
-    private String tail(String s, int n) {
-        if (s == null) return "";
-        if (s.length() <= n) return s;
-        return s.substring(Math.max(0, s.length() - n));
+        meta.put("strategy", strategy);
+        if (extraMeta != null) {
+            extraMeta.accept(meta);
+        }
+        return new TextChunk(-1, text.trim(), meta.toString());
     }
 
     public record TextChunk(int chunkIndex, String text, String metaJson) {}
+
+    public record StrategyStats(
+            String strategy,
+            int chunkCount,
+            double elapsedMs,
+            double chunksPerSec,
+            int minTokens,
+            int p50Tokens,
+            int p95Tokens,
+            int maxTokens,
+            double avgTokens,
+            double avgChars
+    ) {}
 }
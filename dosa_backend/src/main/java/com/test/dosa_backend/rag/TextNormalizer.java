@@ -0,0 +1,52 @@
+package com.test.dosa_backend.rag;
+
+/**
+ * Single-pass replacement for the former chain of regex passes on extracted PDF text:
+ * <ul>
+ *     <li>CRLF / CR become LF</li>
+ *     <li>NUL is dropped; other C0 controls (except LF/CR), DEL, TAB and FF become a space
+ *     (they break PostgreSQL UTF-8 inserts)</li>
+ *     <li>runs of spaces collapse to one; three or more LFs collapse to a blank line</li>
+ *     <li>leading/trailing whitespace is trimmed</li>
+ * </ul>
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String s) {
+        if (s == null || s.isEmpty()) return "";
+        int n = s.length();
+        char[] out = new char[n];
+        int len = 0;
+        int newlineRun = 0;
+
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < n && s.charAt(i + 1) == '\n') {
+                    continue; // the following LF is emitted
+                }
+                c = '\n';
+            } else if (c == '\u0000') {
+                continue;
+            } else if ((c < 0x20 && c != '\n') || c == 0x7F) {
+                c = ' ';
+            }
+
+            if (c == ' ') {
+                if (len > 0 && out[len - 1] == ' ') continue;
+            } else if (c == '\n') {
+                if (newlineRun >= 2) continue;
+            }
+            newlineRun = (c == '\n') ? newlineRun + 1 : 0;
+            out[len++] = c;
+        }
+
+        int start = 0;
+        while (start < len && (out[start] == ' ' || out[start] == '\n')) start++;
+        while (len > start && (out[len - 1] == ' ' || out[len - 1] == '\n')) len--;
+        return new String(out, start, len - start);
+    }
+}
@@ -0,0 +1,48 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.test.dosa_backend.config.ChunkingProperties;
+
+/**
+ * Packs extracted lines into chunks of at most {@code app.rag.chunking.max-tokens} BPE tokens,
+ * so every chunk costs about the same to embed regardless of script (Hangul vs Latin).
+ */
+@Component
+public class TokenBudgetChunkingStrategy implements ChunkingStrategy {
+
+    public static final String NAME = "token";
+
+    private final TokenCounter tokenCounter;
+    private final ChunkingProperties properties;
+
+    public TokenBudgetChunkingStrategy(TokenCounter tokenCounter, ChunkingProperties properties) {
+        this.tokenCounter = tokenCounter;
+        this.properties = properties;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<TextChunker.TextChunk> chunk(Iterable<PdfTextExtractor.PageText> pages) {
+        int maxTokens = properties.getMaxTokens();
+        List<SegmentPacker.Segment> segments = new ArrayList<>();
+        for (PdfTextExtractor.PageText p : pages) {
+            if (p.text() == null || p.text().isBlank()) continue;
+            for (String line : p.text().split("\n")) {
+                if (line.isBlank()) continue;
+                for (String piece : tokenCounter.split(line.trim(), maxTokens)) {
+                    segments.add(new SegmentPacker.Segment(
+                            piece, p.pageNumber(), tokenCounter.count(piece), null, true, false));
+                }
+            }
+        }
+        return SegmentPacker.pack(segments, maxTokens, properties.getOverlapTokens(), NAME);
+    }
+}
@@ -0,0 +1,81 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+
+/**
+ * Counts tokens with the cl100k_base BPE table used by the text-embedding-3 models.
+ * The table ships inside the jtokkit jar, so counting never leaves the process.
+ */
+@Component
+public class TokenCounter {
+
+    private final Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    public int count(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        return encoding.countTokensOrdinary(text);
+    }
+
+    /**
+     * Splits text that exceeds {@code maxTokens} on whitespace, falling back to character
+     * boundaries for runs without spaces. Never cuts inside a character, unlike slicing token ids.
+     */
+    public List<String> split(String text, int maxTokens) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isBlank()) return out;
+        if (count(text) <= maxTokens) {
+            out.add(text);
+            return out;
+        }
+        StringBuilder buf = new StringBuilder();
+        int bufTokens = 0;
+        for (String word : text.split("(?<=\\s)")) {
+            int t = count(word);
+            if (t > maxTokens) {
+                if (buf.length() > 0) {
+                    out.add(buf.toString().trim());
+                    buf.setLength(0);
+                    bufTokens = 0;
+                }
+                splitByChars(word, maxTokens, out);
+                continue;
+            }
+            if (bufTokens + t > maxTokens && buf.length() > 0) {
+                out.add(buf.toString().trim());
+                buf.setLength(0);
+                bufTokens = 0;
+            }
+            buf.append(word);
+            bufTokens += t;
+        }
+        if (!buf.toString().isBlank()) {
+            out.add(buf.toString().trim());
+        }
+        return out;
+    }
+
+    private void splitByChars(String word, int maxTokens, List<String> out) {
+        int start = 0;
+        while (start < word.length()) {
+            // Binary search the longest prefix that fits the budget.
+            int lo = start + 1;
+            int hi = word.length();
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (count(word.substring(start, mid)) <= maxTokens) lo = mid;
+                else hi = mid - 1;
+            }
+            if (lo < word.length() && Character.isHighSurrogate(word.charAt(lo - 1))) lo--;
+            if (lo <= start) lo = start + 1;
+            out.add(word.substring(start, lo));
+            start = lo;
+        }
+    }
+}
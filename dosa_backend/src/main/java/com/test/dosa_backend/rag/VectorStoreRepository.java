@@ -2,81 +2,357 @@ package com.test.dosa_backend.rag;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.pgvector.PGvector;
+import com.test.dosa_backend.config.VectorIndexProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 @Repository
 public class VectorStoreRepository {
 
     private static final Logger log = LoggerFactory.getLogger(VectorStoreRepository.class);
+    private static final String INDEX_NAME = "chunk_embeddings_embedding_idx";
+    // pgvector cannot build HNSW/IVFFlat indexes on `vector` columns wider than this.
+    private static final int MAX_INDEXABLE_DIMENSIONS = 2000;
+    private static final String UPSERT_SQL =
+            "INSERT INTO chunk_embeddings (chunk_id, embedding, model, created_at) " +
+                    "VALUES (?, ?, ?, NOW()) " +
+                    "ON CONFLICT (chunk_id) DO UPDATE SET embedding = EXCLUDED.embedding, model = EXCLUDED.model";
+    private static final String SEARCH_SELECT =
+            "SELECT c.id AS chunk_id, c.document_id, c.chunk_index, c.content_text, c.meta, d.title AS doc_title, " +
+                    "(e.embedding <=> ?) AS distance " +
+                    "FROM document_chunks c " +
+                    "JOIN chunk_embeddings e ON e.chunk_id = c.id " +
+                    "JOIN documents d ON d.id = c.document_id ";
+    private static final String SEARCH_ALL_SQL = SEARCH_SELECT +
+            "ORDER BY distance LIMIT ?";
+    private static final String SEARCH_BY_DOCUMENTS_SQL = SEARCH_SELECT +
+            "WHERE c.document_id = ANY(?) " +
+            "ORDER BY distance LIMIT ?";
+
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VectorIndexProperties indexProperties;
+    private final Executor indexBuildExecutor;
+    private final int dimensions;
 
-    public VectorStoreRepository(JdbcTemplate jdbcTemplate) {
+    public VectorStoreRepository(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            VectorIndexProperties indexProperties,
+            @Qualifier("indexBuildExecutor") Executor indexBuildExecutor,
+            @Value("${openai.embedding-model:text-embedding-3-small}") String embeddingModel,
+            @Value("${openai.embedding-dimensions:0}") int embeddingDimensions
+    ) {
         this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.indexProperties = indexProperties;
+        this.indexBuildExecutor = indexBuildExecutor;
+        this.dimensions = resolveDimensions(embeddingModel, embeddingDimensions);
         ensureSchema();
     }
 
     private void ensureSchema() {
         try {
             jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            String vectorType = dimensions > 0 ? "vector(" + dimensions + ")" : "vector";
             jdbcTemplate.execute(
                     "CREATE TABLE IF NOT EXISTS chunk_embeddings (" +
                             "chunk_id UUID PRIMARY KEY REFERENCES document_chunks(id) ON DELETE CASCADE," +
-                            "embedding vector NOT NULL," +
+                            "embedding " + vectorType + " NOT NULL," +
                             "model VARCHAR(255)," +
                             "created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()" +
                             ")"
             );
         } catch (Exception e) {
             log.warn("Failed to ensure vector schema; ingest may fail until schema is created manually.", e);
+            return;
+        }
+        pinDimensions();
+    }
+
+    /**
+     * The ANN index can take minutes to build on a large table, so it is built after startup on
+     * {@code indexBuildExecutor} instead of in the constructor. Searches use a sequential scan until it is valid.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexAfterStartup() {
+        indexBuildExecutor.execute(this::ensureIndex);
+    }
+
+    void ensureIndex() {
+        String ddl = indexDdl(INDEX_NAME, true);
+        if (ddl == null) return;
+        try {
+            boolean ran = ConcurrentIndexes.withLock(jdbcTemplate, INDEX_NAME,
+                    session -> ConcurrentIndexes.createIfMissing(session, INDEX_NAME, ddl));
+            if (!ran) {
+                log.info("Vector index {} is being built by another session; skipping.", INDEX_NAME);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to create vector index {}; similarity search will fall back to a sequential scan.", INDEX_NAME, e);
+        }
+    }
+
+    /**
+     * Tables created before the dimension was pinned have an untyped `vector` column, which cannot be indexed;
+     * only those are altered. A column pinned to another dimension holds embeddings of a different model and
+     * fails startup instead of being rewritten.
+     */
+    private void pinDimensions() {
+        if (dimensions <= 0) return;
+        String current;
+        try {
+            current = jdbcTemplate.query(
+                    "SELECT format_type(a.atttypid, a.atttypmod) FROM pg_attribute a " +
+                            "WHERE a.attrelid = to_regclass('chunk_embeddings') AND a.attname = 'embedding' " +
+                            "AND NOT a.attisdropped",
+                    rs -> rs.next() ? rs.getString(1) : null);
+        } catch (Exception e) {
+            log.warn("Could not read the type of chunk_embeddings.embedding; leaving it unchanged.", e);
+            return;
+        }
+        String expected = "vector(" + dimensions + ")";
+        if (current == null || current.equals(expected)) {
+            return;
+        }
+        if (!current.equals("vector")) {
+            throw new IllegalStateException("chunk_embeddings.embedding is " + current + " but the embedding model produces "
+                    + expected + "; re-embed the documents or set openai.embedding-dimensions to match.");
+        }
+        try {
+            jdbcTemplate.execute("ALTER TABLE chunk_embeddings ALTER COLUMN embedding TYPE " + expected);
+        } catch (Exception e) {
+            log.warn("Could not pin chunk_embeddings.embedding to {}; stored embeddings may have a different dimension.",
+                    expected, e);
         }
     }
 
+    /**
+     * Rebuilds the ANN index with the current {@link VectorIndexProperties} without blocking writes:
+     * the new index is built concurrently under a temporary name and then swapped in.
+     * Holds the same advisory lock as the startup build, so only one build runs at a time.
+     * Must be called outside of a transaction.
+     *
+     * @throws IndexBuildInProgressException when another build of the index is running
+     */
+    public IndexInfo rebuildIndex() {
+        String tmpName = INDEX_NAME + "_rebuild";
+        String ddl = indexDdl(tmpName, false);
+        boolean ran = ConcurrentIndexes.withLock(jdbcTemplate, INDEX_NAME, session -> {
+            // A leftover from a rebuild that died half way; nobody else can be using it while we hold the lock.
+            session.execute("DROP INDEX CONCURRENTLY IF EXISTS " + tmpName);
+            if (ddl == null) {
+                session.execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX_NAME);
+                return;
+            }
+            session.execute(ddl);
+            session.execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX_NAME);
+            session.execute("ALTER INDEX " + tmpName + " RENAME TO " + INDEX_NAME);
+        });
+        if (!ran) {
+            throw new IndexBuildInProgressException("vector index " + INDEX_NAME + " is already being built");
+        }
+        return indexInfo();
+    }
+
+    public IndexInfo indexInfo() {
+        String type = indexProperties.getType();
+        String params = switch (type) {
+            case VectorIndexProperties.TYPE_HNSW ->
+                    "m=" + indexProperties.getM() + ", ef_construction=" + indexProperties.getEfConstruction();
+            case VectorIndexProperties.TYPE_IVFFLAT -> "lists=" + indexProperties.getLists();
+            default -> "";
+        };
+        return new IndexInfo(INDEX_NAME, type, params, dimensions);
+    }
+
+    private String indexDdl(String name, boolean ifNotExists) {
+        String type = indexProperties.getType();
+        if (VectorIndexProperties.TYPE_NONE.equals(type)) {
+            return null;
+        }
+        if (dimensions <= 0 || dimensions > MAX_INDEXABLE_DIMENSIONS) {
+            log.warn("Skipping vector index: dimension {} is unknown or above the indexable limit of {}.",
+                    dimensions, MAX_INDEXABLE_DIMENSIONS);
+            return null;
+        }
+        String prefix = "CREATE INDEX CONCURRENTLY " + (ifNotExists ? "IF NOT EXISTS " : "") + name + " ON chunk_embeddings ";
+        return switch (type) {
+            case VectorIndexProperties.TYPE_HNSW -> prefix + String.format(Locale.ROOT,
+                    "USING hnsw (embedding vector_cosine_ops) WITH (m = %d, ef_construction = %d)",
+                    indexProperties.getM(), indexProperties.getEfConstruction());
+            case VectorIndexProperties.TYPE_IVFFLAT -> prefix + String.format(Locale.ROOT,
+                    "USING ivfflat (embedding vector_cosine_ops) WITH (lists = %d)",
+                    indexProperties.getLists());
+            default -> throw new IllegalArgumentException("Unsupported vector index type: " + type);
+        };
+    }
+
+    private static int resolveDimensions(String model, int configured) {
+        if (configured > 0) return configured;
+        if (model == null) return 0;
+        return switch (model.trim().toLowerCase(Locale.ROOT)) {
+            case "text-embedding-3-small", "text-embedding-ada-002" -> 1536;
+            case "text-embedding-3-large" -> 3072;
+            default -> 0;
+        };
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
     public void upsertEmbedding(UUID chunkId, float[] embedding, String model) {
-        String vectorLiteral = toVectorLiteral(embedding);
-        String sql = "INSERT INTO chunk_embeddings (chunk_id, embedding, model, created_at) " +
-                "VALUES (?, '" + vectorLiteral + "'::vector, ?, NOW()) " +
-                "ON CONFLICT (chunk_id) DO UPDATE SET embedding = EXCLUDED.embedding, model = EXCLUDED.model";
-        jdbcTemplate.update(
-                sql,
-                chunkId,
-                model
-        );
+        upsertEmbeddings(List.of(new ChunkEmbedding(chunkId, embedding)), model);
+    }
+
+    /**
+     * Upserts a whole embedding batch as one JDBC batch. Vectors are bound as {@link PGvector}
+     * parameters instead of being formatted into the SQL text.
+     */
+    public void upsertEmbeddings(List<ChunkEmbedding> rows, String model) {
+        if (rows == null || rows.isEmpty()) return;
+        for (ChunkEmbedding row : rows) {
+            if (row.embedding() == null || row.embedding().length == 0) {
+                throw new IllegalArgumentException("Embedding vector must not be empty.");
+            }
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new EmbeddingBatchSetter(rows, model));
+    }
+
+    /**
+     * Binds {@code (chunk_id, embedding, model)} of each row, the vector as a {@link PGvector} parameter.
+     */
+    static final class EmbeddingBatchSetter implements BatchPreparedStatementSetter {
+
+        private final List<ChunkEmbedding> rows;
+        private final String model;
+
+        EmbeddingBatchSetter(List<ChunkEmbedding> rows, String model) {
+            this.rows = rows;
+            this.model = model;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ChunkEmbedding row = rows.get(i);
+            ps.setObject(1, row.chunkId());
+            ps.setObject(2, new PGvector(row.embedding()));
+            ps.setString(3, model);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return rows.size();
+        }
     }
 
     public List<SearchHit> similaritySearch(float[] queryEmbedding, int topK, List<UUID> documentIds) {
+        return similaritySearch(queryEmbedding, topK, documentIds, null);
+    }
+
+    /**
+     * @param tuning per-query ANN knobs; {@code null} falls back to the configured defaults.
+     */
+    public List<SearchHit> similaritySearch(float[] queryEmbedding, int topK, List<UUID> documentIds, SearchTuning tuning) {
+        if (queryEmbedding == null || queryEmbedding.length == 0) {
+            throw new IllegalArgumentException("Embedding vector must not be empty.");
+        }
         if (topK <= 0) topK = 5;
+        SearchTuning effective = (tuning == null)
+                ? new SearchTuning(indexProperties.getEfSearch(), indexProperties.getProbes(), false)
+                : tuning;
 
-        String queryVector = "'" + toVectorLiteral(queryEmbedding) + "'::vector";
-        String sql = "SELECT c.id AS chunk_id, c.document_id, c.chunk_index, c.content_text, c.meta, d.title AS doc_title, " +
-                "(e.embedding <=> " + queryVector + ") AS distance " +
-                "FROM document_chunks c " +
-                "JOIN chunk_embeddings e ON e.chunk_id = c.id " +
-                "JOIN documents d ON d.id = c.document_id ";
-
-        // We intentionally avoid JDBC uuid[] binding quirks by generating an IN (...) clause.
-        List<Object> params = new java.util.ArrayList<>();
-
-        if (documentIds != null && !documentIds.isEmpty()) {
-            sql += "WHERE c.document_id IN (";
-            for (int i = 0; i < documentIds.size(); i++) {
-                if (i > 0) sql += ",";
-                sql += "?";
-                params.add(documentIds.get(i));
-            }
-            sql += ") ";
+        // Fixed SQL shapes (vector bound once, document filter as a single uuid[]) so the driver
+        // can reuse server-side prepared statements across requests.
+        boolean filtered = documentIds != null && !documentIds.isEmpty();
+        String sql = filtered ? SEARCH_BY_DOCUMENTS_SQL : SEARCH_ALL_SQL;
+        PGvector vector = new PGvector(queryEmbedding);
+        int limit = topK;
+
+        if (!effective.hasSessionSettings()) {
+            return runSearch(sql, vector, filtered ? documentIds : null, limit);
         }
+        // SET LOCAL-style settings only live for the surrounding transaction.
+        return transactionTemplate.execute(status -> {
+            if (effective.efSearch() > 0) {
+                setLocal("hnsw.ef_search", String.valueOf(effective.efSearch()));
+            }
+            if (effective.probes() > 0) {
+                setLocal("ivfflat.probes", String.valueOf(effective.probes()));
+            }
+            if (effective.exactScan()) {
+                setLocal("enable_indexscan", "off");
+            }
+            return runSearch(sql, vector, filtered ? documentIds : null, limit);
+        });
+    }
+
+    private List<SearchHit> runSearch(String sql, PGvector vector, List<UUID> documentIds, int limit) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int idx = 1;
+            ps.setObject(idx++, vector);
+            if (documentIds != null) {
+                ps.setArray(idx++, con.createArrayOf("uuid", documentIds.toArray()));
+            }
+            ps.setInt(idx, limit);
+            return ps;
+        }, SEARCH_HIT_ROW_MAPPER);
+    }
 
-        sql += "ORDER BY e.embedding <=> " + queryVector + " LIMIT ?";
-        params.add(topK);
+    /**
+     * Cosine distance from {@code queryEmbedding} to the given chunks; chunks without an embedding are absent.
+     */
+    public Map<UUID, Double> distances(float[] queryEmbedding, List<UUID> chunkIds) {
+        Map<UUID, Double> out = new HashMap<>();
+        if (chunkIds == null || chunkIds.isEmpty()) return out;
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT chunk_id, (embedding <=> ?) AS distance FROM chunk_embeddings WHERE chunk_id = ANY(?)");
+            ps.setObject(1, new PGvector(queryEmbedding));
+            ps.setArray(2, con.createArrayOf("uuid", chunkIds.toArray()));
+            return ps;
+        }, rs -> {
+            out.put(rs.getObject("chunk_id", UUID.class), rs.getDouble("distance"));
+        });
+        return out;
+    }
+
+    private void setLocal(String name, String value) {
+        jdbcTemplate.queryForObject("SELECT set_config(?, ?, true)", String.class, name, value);
+    }
 
-        return jdbcTemplate.query(sql, params.toArray(), new SearchHitRowMapper());
+    /**
+     * Picks stored embeddings at random to use as evaluation queries.
+     */
+    public List<float[]> sampleEmbeddings(int limit) {
+        List<float[]> out = new ArrayList<>();
+        jdbcTemplate.query("SELECT embedding::text FROM chunk_embeddings ORDER BY random() LIMIT ?",
+                rs -> {
+                    out.add(new PGvector(rs.getString(1)).toArray());
+                },
+                limit);
+        return out;
     }
 
     private static class SearchHitRowMapper implements RowMapper<SearchHit> {
@@ -94,6 +370,22 @@ public class VectorStoreRepository {
         }
     }
 
+    private static final RowMapper<SearchHit> SEARCH_HIT_ROW_MAPPER = new SearchHitRowMapper();
+
+    public record ChunkEmbedding(UUID chunkId, float[] embedding) {}
+
+    /**
+     * Per-query ANN knobs. {@code efSearch} applies to HNSW, {@code probes} to IVFFlat (0 = server default);
+     * {@code exactScan} disables index scans to get a ground-truth result.
+     */
+    public record SearchTuning(int efSearch, int probes, boolean exactScan) {
+        boolean hasSessionSettings() {
+            return efSearch > 0 || probes > 0 || exactScan;
+        }
+    }
+
+    public record IndexInfo(String name, String type, String params, int dimensions) {}
+
     public record SearchHit(
             UUID chunkId,
             UUID documentId,
@@ -103,18 +395,4 @@ public class VectorStoreRepository {
             String documentTitle,
             double distance
     ) {}
-
-    private String toVectorLiteral(float[] embedding) {
-        if (embedding == null || embedding.length == 0) {
-            throw new IllegalArgumentException("Embedding vector must not be empty.");
-        }
-        StringBuilder sb = new StringBuilder(embedding.length * 8);
-        sb.append('[');
-        for (int i = 0; i < embedding.length; i++) {
-            if (i > 0) sb.append(',');
-            sb.append(String.format(Locale.US, "%.8f", embedding[i]));
-        }
-        sb.append(']');
-        return sb.toString();
-    }
 }
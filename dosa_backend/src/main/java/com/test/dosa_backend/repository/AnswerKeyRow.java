@@ -0,0 +1,16 @@
+package com.test.dosa_backend.repository;
+
+import com.test.dosa_backend.domain.QuestionType;
+
+/**
+ * Grading columns of a {@link com.test.dosa_backend.domain.Question}, read without its options.
+ */
+public record AnswerKeyRow(
+        Long questionId,
+        String modelId,
+        QuestionType type,
+        Integer correctOptionNo,
+        String correctShortAnswer,
+        String acceptedAnswers,
+        String explanation
+) {}
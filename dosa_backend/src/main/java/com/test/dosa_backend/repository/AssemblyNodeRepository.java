@@ -12,4 +12,13 @@ import java.util.List;
 public interface AssemblyNodeRepository extends JpaRepository<AssemblyNode, String> {
     @Query("SELECT n FROM AssemblyNode n WHERE n.model.modelId = :modelId")
     List<AssemblyNode> findAllByModelId(@Param("modelId") String modelId);
+
+    // 뷰어 조회용: 연관 엔티티 로딩 없이 한 번의 SELECT로 노드 전체를 평면 컬럼으로 읽음
+    @Query("SELECT new com.test.dosa_backend.repository.AssemblyNodeRow(" +
+            "n.nodeId, n.part.partId, parent.nodeId, " +
+            "n.posX, n.posY, n.posZ, n.quatX, n.quatY, n.quatZ, n.quatW, n.scaleX, n.scaleY, n.scaleZ, " +
+            "n.explodeDirX, n.explodeDirY, n.explodeDirZ, n.explodeDistance, n.explodeStart, n.explodeDuration) " +
+            "FROM AssemblyNode n LEFT JOIN n.parentNodeId parent " +
+            "WHERE n.model.modelId = :modelId")
+    List<AssemblyNodeRow> findRowsByModelId(@Param("modelId") String modelId);
 }
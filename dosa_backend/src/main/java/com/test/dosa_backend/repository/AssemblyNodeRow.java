@@ -0,0 +1,27 @@
+package com.test.dosa_backend.repository;
+
+/**
+ * Flat projection of an {@link com.test.dosa_backend.domain.AssemblyNode} row. Foreign keys are read as
+ * plain ids so loading a whole assembly never touches the Part/Model/parent associations.
+ */
+public record AssemblyNodeRow(
+        String nodeId,
+        String partId,
+        String parentNodeId,
+        Double posX,
+        Double posY,
+        Double posZ,
+        Double quatX,
+        Double quatY,
+        Double quatZ,
+        Double quatW,
+        Double scaleX,
+        Double scaleY,
+        Double scaleZ,
+        Double explodeDirX,
+        Double explodeDirY,
+        Double explodeDirZ,
+        Double explodeDistance,
+        Double explodeStart,
+        Double explodeDuration
+) {}
@@ -0,0 +1,124 @@
+package com.test.dosa_backend.repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Durable work queue on top of {@code ingest_jobs}. Any number of nodes may poll it:
+ * {@code FOR UPDATE SKIP LOCKED} hands each job to exactly one claimer, and a RUNNING job whose
+ * owner stopped heart-beating (crash, restart, deploy) becomes claimable again.
+ */
+@Repository
+public class IngestJobQueue {
+
+    private static final String CLAIM_SQL =
+            "UPDATE ingest_jobs j SET status = 'RUNNING', locked_by = ?, heartbeat_at = now(), " +
+                    "started_at = COALESCE(j.started_at, now()), attempts = COALESCE(j.attempts, 0) + 1 " +
+                    "FROM (" +
+                    "  SELECT id FROM ingest_jobs " +
+                    "  WHERE (status = 'PENDING' OR (status = 'RUNNING' AND (heartbeat_at IS NULL OR heartbeat_at < now() - make_interval(secs => ?)))) " +
+                    "    AND COALESCE(attempts, 0) < ? " +
+                    "  ORDER BY created_at " +
+                    "  LIMIT 1 " +
+                    "  FOR UPDATE SKIP LOCKED" +
+                    ") next " +
+                    "WHERE j.id = next.id " +
+                    "RETURNING j.id";
+    // Abandoned jobs that already used every attempt fail, and so does their document.
+    private static final String FAIL_EXHAUSTED_SQL =
+            "WITH dead AS (" +
+                    "  UPDATE ingest_jobs SET status = 'FAILED', finished_at = now(), error_message = ? " +
+                    "  WHERE status IN ('PENDING', 'RUNNING') " +
+                    "    AND (status = 'PENDING' OR heartbeat_at IS NULL OR heartbeat_at < now() - make_interval(secs => ?)) " +
+                    "    AND COALESCE(attempts, 0) >= ? " +
+                    "  RETURNING document_id" +
+                    ") " +
+                    "UPDATE documents SET status = 'FAILED', updated_at = now() " +
+                    "WHERE id IN (SELECT document_id FROM dead) AND status = 'INGESTING'";
+    private static final String HEARTBEAT_SQL =
+            "UPDATE ingest_jobs SET heartbeat_at = now() WHERE id = ANY(?) AND status = 'RUNNING' AND locked_by = ?";
+    private static final String CHECKPOINT_SQL =
+            "UPDATE ingest_jobs SET heartbeat_at = now(), embedded_chunk_count = COALESCE(embedded_chunk_count, 0) + ? " +
+                    "WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+    private static final String LOCK_OWNED_SQL =
+            "SELECT id FROM ingest_jobs WHERE id = ? AND status = 'RUNNING' AND locked_by = ? FOR UPDATE";
+    // embedded_chunk_count was accumulated per committed batch, across attempts of the job.
+    private static final String COMPLETE_SQL =
+            "UPDATE ingest_jobs SET status = 'COMPLETED', finished_at = now(), chunk_count = ?, " +
+                    "embedded_chunk_count = COALESCE(embedded_chunk_count, 0), " +
+                    "reused_chunk_count = GREATEST(0, ? - COALESCE(embedded_chunk_count, 0)), embedding_model = ? " +
+                    "WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+    private static final String FAIL_SQL =
+            "UPDATE ingest_jobs SET status = 'FAILED', finished_at = now(), error_message = ? " +
+                    "WHERE id = ? AND status = 'RUNNING' AND locked_by = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IngestJobQueue(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claims the oldest runnable job (pending, or running but abandoned) for {@code nodeId}.
+     */
+    public Optional<UUID> claimNext(String nodeId, long staleAfterSeconds, int maxAttempts) {
+        List<UUID> ids = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> rs.getObject(1, UUID.class),
+                nodeId, staleAfterSeconds, maxAttempts);
+        return ids.stream().findFirst();
+    }
+
+    public int failExhausted(long staleAfterSeconds, int maxAttempts) {
+        return jdbcTemplate.update(FAIL_EXHAUSTED_SQL,
+                "Gave up after " + maxAttempts + " attempts.", staleAfterSeconds, maxAttempts);
+    }
+
+    /**
+     * Refreshes the lease of jobs this node is running; returns how many it still owns.
+     */
+    public int heartbeat(Collection<UUID> jobIds, String nodeId) {
+        if (jobIds.isEmpty()) return 0;
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(HEARTBEAT_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", jobIds.toArray()));
+            ps.setString(2, nodeId);
+            return ps;
+        });
+    }
+
+    /**
+     * Records a committed embedding batch. Returns false when the job is no longer owned by
+     * {@code nodeId} (superseded, or reclaimed after a missed heartbeat).
+     */
+    public boolean checkpoint(UUID jobId, String nodeId, int embeddedChunks) {
+        return jdbcTemplate.update(CHECKPOINT_SQL, embeddedChunks, jobId, nodeId) == 1;
+    }
+
+    /**
+     * Row-locks the job for the rest of the caller's transaction if {@code nodeId} still owns it, so a
+     * reclaiming node cannot take it over until that transaction ends. Must run inside a transaction.
+     */
+    public boolean lockIfOwned(UUID jobId, String nodeId) {
+        return !jdbcTemplate.query(LOCK_OWNED_SQL, (rs, rowNum) -> rs.getObject(1, UUID.class), jobId, nodeId).isEmpty();
+    }
+
+    /**
+     * Marks the job COMPLETED. Returns false (and changes nothing) when {@code nodeId} no longer owns it.
+     */
+    public boolean complete(UUID jobId, String nodeId, int chunkCount, String embeddingModel) {
+        return jdbcTemplate.update(COMPLETE_SQL, chunkCount, chunkCount, embeddingModel, jobId, nodeId) == 1;
+    }
+
+    /**
+     * Marks the job FAILED. Returns false (and changes nothing) when {@code nodeId} no longer owns it.
+     */
+    public boolean fail(UUID jobId, String nodeId, String errorMessage) {
+        return jdbcTemplate.update(FAIL_SQL, errorMessage, jobId, nodeId) == 1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.test.dosa_backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +12,5 @@ import com.test.dosa_backend.domain.IngestJobStatus;
 public interface IngestJobRepository extends JpaRepository<IngestJob, UUID> {
     List<IngestJob> findByDocument_Id(UUID documentId);
     List<IngestJob> findByDocument_IdAndStatus(UUID documentId, IngestJobStatus status);
+    List<IngestJob> findByDocument_IdAndStatusIn(UUID documentId, Collection<IngestJobStatus> statuses);
 }
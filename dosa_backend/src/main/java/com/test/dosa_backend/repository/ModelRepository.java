@@ -1,6 +1,7 @@
 package com.test.dosa_backend.repository;
 
 import com.test.dosa_backend.domain.Model;
+import com.test.dosa_backend.dto.ModelInfoDto;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,18 +9,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ModelRepository extends JpaRepository<Model, String> {
 
     Slice<Model> findAllBy(Pageable pageable);
 
-    @Query("SELECT m.title FROM Model m WHERE m.modelId = :id")
-    String findTitleByModelId(@Param("id") String modelId);
-
-    @Query("SELECT m.overview FROM Model m WHERE m.modelId = :id")
-    String findOverviewByModelId(@Param("id") String modelId);
-
-    @Query("SELECT m.theory FROM Model m WHERE m.modelId = :id")
-    String findTheoryByModelId(@Param("id") String modelId);
+    @Query("SELECT new com.test.dosa_backend.dto.ModelInfoDto(m.modelId, m.title, m.thumbnailUrl, m.overview, m.theory) " +
+            "FROM Model m WHERE m.modelId = :id")
+    Optional<ModelInfoDto> findInfoByModelId(@Param("id") String modelId);
 
 }
@@ -1,6 +1,7 @@
 package com.test.dosa_backend.repository;
 
 import com.test.dosa_backend.domain.Part;
+import com.test.dosa_backend.dto.PartInfoDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,4 +13,9 @@ import java.util.List;
 public interface PartRepository extends JpaRepository<Part, String> {
     @Query("SELECT p FROM Part p WHERE p.model.modelId = :modelId")
     List<Part> findAllByModelId(@Param("modelId") String modelId);
+
+    // 뷰어 조회용: Part.model 즉시 로딩 없이 DTO로 바로 조회
+    @Query("SELECT new com.test.dosa_backend.dto.PartInfoDto(p.partId, p.displayNameKo, p.glbUrl, p.summary, p.materialType) " +
+            "FROM Part p WHERE p.model.modelId = :modelId")
+    List<PartInfoDto> findInfoByModelId(@Param("modelId") String modelId);
 }
@@ -5,17 +5,27 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
 
-    // 이미 푼 문제(excludedIds)는 제외하고 랜덤으로 count만큼 가져오기
-    @Query(value = "SELECT * FROM question q " +
-                   "WHERE q.model_id = :modelId " +
-                   "AND q.question_id NOT IN (:excludedIds) " +
-                   "ORDER BY RANDOM() " +
-                   "LIMIT :count", nativeQuery = true)
-    List<Question> findRandomQuestions(@Param("modelId") String modelId,
-                                       @Param("excludedIds") List<Long> excludedIds,
-                                       @Param("count") int count);
+    // QuizSampler가 메모리에 유지하는 모델별 문제 ID 목록
+    @Query("SELECT q.id FROM Question q WHERE q.modelId = :modelId")
+    List<Long> findIdsByModelId(@Param("modelId") String modelId);
+
+    // 채점용 정답 키: 모델 전체 / 지정한 문제들 (보기는 읽지 않음)
+    @Query("SELECT new com.test.dosa_backend.repository.AnswerKeyRow(" +
+            "q.id, q.modelId, q.type, q.correctOptionNo, q.correctShortAnswer, q.acceptedAnswers, q.explanation) " +
+            "FROM Question q WHERE q.modelId = :modelId")
+    List<AnswerKeyRow> findAnswerKeysByModelId(@Param("modelId") String modelId);
+
+    @Query("SELECT new com.test.dosa_backend.repository.AnswerKeyRow(" +
+            "q.id, q.modelId, q.type, q.correctOptionNo, q.correctShortAnswer, q.acceptedAnswers, q.explanation) " +
+            "FROM Question q WHERE q.id IN :ids")
+    List<AnswerKeyRow> findAnswerKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 샘플링된 문제와 보기를 한 번에 조회
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.options WHERE q.id IN :ids")
+    List<Question> findAllWithOptionsByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
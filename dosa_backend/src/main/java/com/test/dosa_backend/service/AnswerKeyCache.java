@@ -0,0 +1,119 @@
+package com.test.dosa_backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.test.dosa_backend.domain.QuestionType;
+import com.test.dosa_backend.repository.AnswerKeyRow;
+import com.test.dosa_backend.repository.QuestionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Immutable per-model answer keys, so grading a hot model does not touch the database.
+ * <p>
+ * A model's keys are loaded with one query on first use. Ids missing from the cached map (questions added
+ * since, or ids of another model) are resolved with one IN query. Reloaded after
+ * {@code app.quiz.answer-keys.refresh} (defaults to the {@link QuizSampler} refresh) or on {@link #invalidate}.
+ */
+@Component
+public class AnswerKeyCache {
+
+    private final QuestionRepository questionRepository;
+    private final int maxEdits;
+    private final LoadingCache<String, Map<Long, AnswerKey>> keys;
+
+    public AnswerKeyCache(
+            QuestionRepository questionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.quiz.answer-keys.refresh:${app.quiz.sampler.refresh:PT10M}}") Duration refresh,
+            // 0 = exact match after normalization; typo tolerance is opt-in
+            @Value("${app.quiz.grading.max-edits:0}") int maxEdits
+    ) {
+        this.questionRepository = questionRepository;
+        this.maxEdits = maxEdits;
+        this.keys = Caffeine.newBuilder()
+                .expireAfterWrite(refresh)
+                .recordStats()
+                .build(modelId -> toMap(questionRepository.findAnswerKeysByModelId(modelId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, keys, "quiz-answer-keys");
+    }
+
+    /**
+     * @return a key for every id in {@code questionIds}
+     * @throws IllegalArgumentException if a question does not exist
+     */
+    public Map<Long, AnswerKey> lookup(String modelId, Collection<Long> questionIds) {
+        Map<Long, AnswerKey> modelKeys = keys.get(modelId);
+        // A submission may repeat an id; each is queried and counted once.
+        LinkedHashSet<Long> missing = new LinkedHashSet<>();
+        for (Long id : questionIds) {
+            if (!modelKeys.containsKey(id)) missing.add(id);
+        }
+        if (missing.isEmpty()) {
+            return modelKeys;
+        }
+
+        Map<Long, AnswerKey> loaded = toMap(questionRepository.findAnswerKeysByIdIn(new ArrayList<>(missing)));
+        if (loaded.size() < missing.size()) {
+            throw new IllegalArgumentException("존재하지 않는 문제 ID");
+        }
+        if (loaded.values().stream().anyMatch(k -> modelId.equals(k.modelId()))) {
+            // The cached map predates these questions.
+            keys.invalidate(modelId);
+        }
+        Map<Long, AnswerKey> merged = new HashMap<>(modelKeys);
+        merged.putAll(loaded);
+        return merged;
+    }
+
+    public void invalidate(String modelId) {
+        keys.invalidate(modelId);
+    }
+
+    public void invalidateAll() {
+        keys.invalidateAll();
+    }
+
+    private Map<Long, AnswerKey> toMap(List<AnswerKeyRow> rows) {
+        Map<Long, AnswerKey> out = new HashMap<>(rows.size() * 2);
+        for (AnswerKeyRow row : rows) {
+            out.put(row.questionId(), new AnswerKey(
+                    row.questionId(),
+                    row.modelId(),
+                    row.type(),
+                    row.correctOptionNo(),
+                    row.correctShortAnswer(),
+                    row.type() == QuestionType.MULTIPLE_CHOICE || row.correctShortAnswer() == null
+                            ? null
+                            : ShortAnswerMatcher.compile(row.correctShortAnswer(), row.acceptedAnswers(), maxEdits),
+                    row.explanation()));
+        }
+        return Map.copyOf(out);
+    }
+
+    /**
+     * @param shortAnswerMatcher compiled from {@code correctShortAnswer} and its synonyms; {@code null} for
+     *                           multiple-choice questions
+     */
+    public record AnswerKey(
+            Long questionId,
+            String modelId,
+            QuestionType type,
+            Integer correctOptionNo,
+            String correctShortAnswer,
+            ShortAnswerMatcher shortAnswerMatcher,
+            String explanation
+    ) {}
+}
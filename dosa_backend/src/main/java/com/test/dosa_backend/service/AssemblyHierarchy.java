@@ -0,0 +1,215 @@
+package com.test.dosa_backend.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.test.dosa_backend.repository.AssemblyNodeRow;
+
+/**
+ * An assembly flattened into parallel primitive arrays, topologically sorted so every parent comes
+ * before its children. World transforms for an explode progress are then a single forward pass.
+ * <p>
+ * Position, rotation, scale and explode direction are in the parent's space; a node's explode offset is
+ * {@code dir * distance * clamp((t - start) / duration, 0, 1)}, added to its local position.
+ * Immutable and safe to share between requests.
+ */
+public final class AssemblyHierarchy {
+
+    // Per-node R * S block (column-major 3x3); it does not depend on t, so it is computed once.
+    private static final int RS = 9;
+
+    private final String[] nodeIds;
+    private final int[] parent;
+    private final double[] position;   // 3 per node
+    private final double[] rotScale;   // 9 per node, column-major 3x3 of R * S
+    private final double[] explode;    // 6 per node: dirX, dirY, dirZ, distance, start, duration
+
+    private AssemblyHierarchy(String[] nodeIds, int[] parent, double[] position, double[] rotScale, double[] explode) {
+        this.nodeIds = nodeIds;
+        this.parent = parent;
+        this.position = position;
+        this.rotScale = rotScale;
+        this.explode = explode;
+    }
+
+    /**
+     * Nodes whose parent is missing are treated as roots; nodes on a parent cycle are appended as roots.
+     */
+    public static AssemblyHierarchy of(List<AssemblyNodeRow> rows) {
+        int n = rows.size();
+        Map<String, Integer> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            index.put(rows.get(i).nodeId(), i);
+        }
+        // children adjacency as a linked list over arrays (no per-node collections)
+        int[] firstChild = new int[n];
+        int[] nextSibling = new int[n];
+        int[] rowParent = new int[n];
+        Arrays.fill(firstChild, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int i = n - 1; i >= 0; i--) {
+            Integer p = rows.get(i).parentNodeId() == null ? null : index.get(rows.get(i).parentNodeId());
+            rowParent[i] = (p == null || p == i) ? -1 : p;
+            if (rowParent[i] < 0) {
+                queue.addFirst(i);
+            } else {
+                nextSibling[i] = firstChild[rowParent[i]];
+                firstChild[rowParent[i]] = i;
+            }
+        }
+
+        int[] order = new int[n];
+        int[] sortedIndex = new int[n];
+        Arrays.fill(sortedIndex, -1);
+        int count = 0;
+        while (count < n) {
+            if (queue.isEmpty()) {
+                // Only cycles are left; break one open by promoting its first unvisited node to a root.
+                for (int i = 0; i < n; i++) {
+                    if (sortedIndex[i] < 0) {
+                        rowParent[i] = -1;
+                        queue.add(i);
+                        break;
+                    }
+                }
+            }
+            int i = queue.poll();
+            if (sortedIndex[i] >= 0) continue;
+            sortedIndex[i] = count;
+            order[count++] = i;
+            for (int c = firstChild[i]; c >= 0; c = nextSibling[c]) {
+                if (sortedIndex[c] < 0) queue.add(c);
+            }
+        }
+
+        String[] ids = new String[n];
+        int[] parent = new int[n];
+        double[] position = new double[n * 3];
+        double[] rotScale = new double[n * RS];
+        double[] explode = new double[n * 6];
+        for (int s = 0; s < n; s++) {
+            int i = order[s];
+            AssemblyNodeRow r = rows.get(i);
+            ids[s] = r.nodeId();
+            parent[s] = rowParent[i] < 0 ? -1 : sortedIndex[rowParent[i]];
+            position[s * 3] = d(r.posX());
+            position[s * 3 + 1] = d(r.posY());
+            position[s * 3 + 2] = d(r.posZ());
+            writeRotScale(rotScale, s * RS, d(r.quatX()), d(r.quatY()), d(r.quatZ()), d(r.quatW()),
+                    d(r.scaleX()), d(r.scaleY()), d(r.scaleZ()));
+            explode[s * 6] = d(r.explodeDirX());
+            explode[s * 6 + 1] = d(r.explodeDirY());
+            explode[s * 6 + 2] = d(r.explodeDirZ());
+            explode[s * 6 + 3] = d(r.explodeDistance());
+            explode[s * 6 + 4] = d(r.explodeStart());
+            explode[s * 6 + 5] = d(r.explodeDuration());
+        }
+        return new AssemblyHierarchy(ids, parent, position, rotScale, explode);
+    }
+
+    public int size() {
+        return nodeIds.length;
+    }
+
+    /**
+     * Node ids in topological order; the order of {@link #worldMatrices} and {@link #parentIndexes}.
+     */
+    public List<String> nodeIds() {
+        return List.of(nodeIds);
+    }
+
+    public int[] parentIndexes() {
+        return parent.clone();
+    }
+
+    /**
+     * @return {@code 16 * size()} values: one column-major 4x4 world matrix per node
+     */
+    public double[] worldMatrices(double t) {
+        int n = nodeIds.length;
+        double[] out = new double[n * 16];
+        double[] local = new double[16];
+        for (int s = 0; s < n; s++) {
+            int e = s * 6;
+            double progress = progress(t, explode[e + 4], explode[e + 5]);
+            double offset = explode[e + 3] * progress;
+
+            int m = s * RS;
+            local[0] = rotScale[m];
+            local[1] = rotScale[m + 1];
+            local[2] = rotScale[m + 2];
+            local[4] = rotScale[m + 3];
+            local[5] = rotScale[m + 4];
+            local[6] = rotScale[m + 5];
+            local[8] = rotScale[m + 6];
+            local[9] = rotScale[m + 7];
+            local[10] = rotScale[m + 8];
+            local[12] = position[s * 3] + explode[e] * offset;
+            local[13] = position[s * 3 + 1] + explode[e + 1] * offset;
+            local[14] = position[s * 3 + 2] + explode[e + 2] * offset;
+            local[15] = 1.0;
+
+            int o = s * 16;
+            if (parent[s] < 0) {
+                System.arraycopy(local, 0, out, o, 16);
+            } else {
+                multiplyAffine(out, parent[s] * 16, local, out, o);
+            }
+        }
+        return out;
+    }
+
+    static double progress(double t, double start, double duration) {
+        if (duration <= 0) {
+            return t >= start ? 1.0 : 0.0;
+        }
+        double p = (t - start) / duration;
+        return p <= 0 ? 0.0 : (p >= 1 ? 1.0 : p);
+    }
+
+    // out = a * b for affine column-major matrices (bottom row 0, 0, 0, 1)
+    private static void multiplyAffine(double[] a, int ao, double[] b, double[] out, int oo) {
+        for (int c = 0; c < 4; c++) {
+            double b0 = b[c * 4];
+            double b1 = b[c * 4 + 1];
+            double b2 = b[c * 4 + 2];
+            double b3 = c == 3 ? 1.0 : 0.0;
+            for (int r = 0; r < 3; r++) {
+                out[oo + c * 4 + r] = a[ao + r] * b0 + a[ao + 4 + r] * b1 + a[ao + 8 + r] * b2 + a[ao + 12 + r] * b3;
+            }
+            out[oo + c * 4 + 3] = b3;
+        }
+    }
+
+    private static void writeRotScale(double[] out, int o, double x, double y, double z, double w,
+                                      double sx, double sy, double sz) {
+        double len = Math.sqrt(x * x + y * y + z * z + w * w);
+        if (len == 0) {
+            x = 0; y = 0; z = 0; w = 1;
+        } else {
+            x /= len; y /= len; z /= len; w /= len;
+        }
+        double xx = x * x, yy = y * y, zz = z * z;
+        double xy = x * y, xz = x * z, yz = y * z;
+        double wx = w * x, wy = w * y, wz = w * z;
+        // column 0
+        out[o] = (1 - 2 * (yy + zz)) * sx;
+        out[o + 1] = 2 * (xy + wz) * sx;
+        out[o + 2] = 2 * (xz - wy) * sx;
+        // column 1
+        out[o + 3] = 2 * (xy - wz) * sy;
+        out[o + 4] = (1 - 2 * (xx + zz)) * sy;
+        out[o + 5] = 2 * (yz + wx) * sy;
+        // column 2
+        out[o + 6] = 2 * (xz + wy) * sz;
+        out[o + 7] = 2 * (yz - wx) * sz;
+        out[o + 8] = (1 - 2 * (xx + yy)) * sz;
+    }
+
+    private static double d(Double value) {
+        return value == null ? 0.0 : value;
+    }
+}
@@ -11,6 +11,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,9 +23,13 @@ import com.test.dosa_backend.config.ChatPromptProperties;
 import com.test.dosa_backend.domain.Part;
 import com.test.dosa_backend.dto.ChatDtos;
 import com.test.dosa_backend.openai.OpenAiClient;
+import com.test.dosa_backend.rag.RetrievalMode;
 import com.test.dosa_backend.repository.PartRepository;
 import com.test.dosa_backend.util.ImageInputs;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import tools.jackson.databind.ObjectMapper;
 
 @Service
@@ -81,7 +86,93 @@ public class ChatService {
             List<UUID> documentIds,
             List<String> imageUrls,
             Map<String, Object> extraMetadata,
-            List<ChatDtos.HistoryMessage> history
+            List<ChatDtos.HistoryMessage> history,
+            RetrievalMode retrievalMode
+    ) {
+        PreparedTurn turn = prepareTurn(userText, useRag, documentIds, imageUrls, extraMetadata, history, retrievalMode);
+        String assistantText = openAiClient.generateResponse(chatModel, turn.instructions(), turn.conversation(), DEFAULT_MAX_OUTPUT_TOKENS);
+        return new ChatTurnResult(assistantText, turn.rag().citations(), turn.appliedSystemPrompt());
+    }
+
+    /**
+     * Same preparation as {@link #userMessage}, but the answer is streamed as text deltas.
+     * RAG retrieval happens eagerly so citations are known before the first token.
+     */
+    @Transactional(readOnly = true)
+    public ChatStream streamUserMessage(
+            String userText,
+            Boolean useRag,
+            List<UUID> documentIds,
+            List<String> imageUrls,
+            Map<String, Object> extraMetadata,
+            List<ChatDtos.HistoryMessage> history,
+            RetrievalMode retrievalMode
+    ) {
+        long start = System.nanoTime();
+        PreparedTurn turn = prepareTurn(userText, useRag, documentIds, imageUrls, extraMetadata, history, retrievalMode);
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+        Flux<String> deltas = openAiClient.streamResponse(chatModel, turn.instructions(), turn.conversation(), DEFAULT_MAX_OUTPUT_TOKENS)
+                .doOnNext(d -> {
+                    if (firstToken.compareAndSet(true, false)) {
+                        log.info("Chat stream time-to-first-token={}ms", (System.nanoTime() - start) / 1_000_000);
+                    }
+                })
+                .doOnComplete(() -> log.info("Chat stream completed in {}ms", (System.nanoTime() - start) / 1_000_000));
+        return new ChatStream(turn.rag().citations(), turn.appliedSystemPrompt(), deltas);
+    }
+
+    /**
+     * Variant of {@link #userMessage} for app.chat.execution-mode=reactive.
+     * Metadata enrichment and RAG retrieval run on the bounded elastic scheduler and still block a
+     * thread there (JDBC, and the query embedding call); only the generation call is a non-blocking
+     * WebClient exchange, so no servlet thread waits on OpenAI.
+     */
+    public Mono<ChatTurnResult> userMessageReactive(
+            String userText,
+            Boolean useRag,
+            List<UUID> documentIds,
+            List<String> imageUrls,
+            Map<String, Object> extraMetadata,
+            List<ChatDtos.HistoryMessage> history,
+            RetrievalMode retrievalMode
+    ) {
+        return Mono.fromCallable(() -> prepareContext(userText, useRag, documentIds, imageUrls, extraMetadata, history, retrievalMode))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(ctx -> {
+                    Mono<RagService.RagResult> rag = ctx.ragEnabled()
+                            ? ragService.retrieveReactive(ctx.ragQuery(), 2, ctx.documentIds(),
+                                    RagService.RetrievalOptions.of(ctx.retrievalMode()))
+                            : Mono.just(new RagService.RagResult("", List.of()));
+                    return rag.map(r -> completeTurn(ctx, r));
+                })
+                .flatMap(turn -> openAiClient.generateResponseReactive(chatModel, turn.instructions(), turn.conversation(), DEFAULT_MAX_OUTPUT_TOKENS)
+                        .map(text -> new ChatTurnResult(text, turn.rag().citations(), turn.appliedSystemPrompt())));
+    }
+
+    private PreparedTurn prepareTurn(
+            String userText,
+            Boolean useRag,
+            List<UUID> documentIds,
+            List<String> imageUrls,
+            Map<String, Object> extraMetadata,
+            List<ChatDtos.HistoryMessage> history,
+            RetrievalMode retrievalMode
+    ) {
+        TurnContext ctx = prepareContext(userText, useRag, documentIds, imageUrls, extraMetadata, history, retrievalMode);
+        RagService.RagResult rag = ctx.ragEnabled()
+                ? ragService.retrieve(ctx.ragQuery(), 2, ctx.documentIds(), RagService.RetrievalOptions.of(ctx.retrievalMode()))
+                : new RagService.RagResult("", List.of());
+        return completeTurn(ctx, rag);
+    }
+
+    private TurnContext prepareContext(
+            String userText,
+            Boolean useRag,
+            List<UUID> documentIds,
+            List<String> imageUrls,
+            Map<String, Object> extraMetadata,
+            List<ChatDtos.HistoryMessage> history,
+            RetrievalMode retrievalMode
     ) {
         if (userText == null || userText.isBlank()) {
             throw new IllegalArgumentException("message is required.");
@@ -94,21 +185,22 @@ public class ChatService {
         Map<String, Object> metadataForPrompt = enrichMetadataForPrompt(extraMetadata, effectiveModelId);
         String ragQuery = buildRagQuery(userText, metadataForPrompt, history);
 
-        RagService.RagResult rag = ragEnabled ? ragService.retrieve(ragQuery, 2, normalizedDocumentIds)
-                : new RagService.RagResult("", List.of());
+        return new TurnContext(userText, ragEnabled, normalizedDocumentIds, retrievalMode, normalizedImages,
+                effectiveModelId, metadataForPrompt, ragQuery, history);
+    }
 
-        AppliedSystemPrompt appliedSystemPrompt = resolveAppliedSystemPrompt(effectiveModelId);
-        String prompt = buildUserPrompt(userText, rag.contextText(), metadataForPrompt, ragEnabled, effectiveModelId);
-        String instructions = buildSystemInstructions(ragEnabled, appliedSystemPrompt);
-        List<OpenAiClient.ChatInputMessage> conversation = buildConversation(history, prompt, normalizedImages);
+    private PreparedTurn completeTurn(TurnContext ctx, RagService.RagResult rag) {
+        AppliedSystemPrompt appliedSystemPrompt = resolveAppliedSystemPrompt(ctx.modelId());
+        String prompt = buildUserPrompt(ctx.userText(), rag.contextText(), ctx.metadataForPrompt(), ctx.ragEnabled(), ctx.modelId());
+        String instructions = buildSystemInstructions(ctx.ragEnabled(), appliedSystemPrompt);
+        List<OpenAiClient.ChatInputMessage> conversation = buildConversation(ctx.history(), prompt, ctx.images());
 
         log.info("Using chat model='{}', modelId='{}', historyCount={}",
                 chatModel,
-                effectiveModelId == null ? "" : effectiveModelId,
+                ctx.modelId() == null ? "" : ctx.modelId(),
                 conversation.size() - 1);
 
-        String assistantText = openAiClient.generateResponse(chatModel, instructions, conversation, DEFAULT_MAX_OUTPUT_TOKENS);
-        return new ChatTurnResult(assistantText, rag.citations(), appliedSystemPrompt);
+        return new PreparedTurn(rag, appliedSystemPrompt, instructions, conversation);
     }
 
     private List<UUID> normalizeDocumentIds(List<UUID> documentIds) {
@@ -598,6 +690,31 @@ public class ChatService {
         }
     }
 
+    public record ChatStream(
+            List<RagService.Citation> citations,
+            AppliedSystemPrompt appliedSystemPrompt,
+            Flux<String> deltas
+    ) {}
+
+    private record TurnContext(
+            String userText,
+            boolean ragEnabled,
+            List<UUID> documentIds,
+            RetrievalMode retrievalMode,
+            List<String> images,
+            String modelId,
+            Map<String, Object> metadataForPrompt,
+            String ragQuery,
+            List<ChatDtos.HistoryMessage> history
+    ) {}
+
+    private record PreparedTurn(
+            RagService.RagResult rag,
+            AppliedSystemPrompt appliedSystemPrompt,
+            String instructions,
+            List<OpenAiClient.ChatInputMessage> conversation
+    ) {}
+
     public record AppliedSystemPrompt(
             String rootSystemPrompt,
             String modelId,
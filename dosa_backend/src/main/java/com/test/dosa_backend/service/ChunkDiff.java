@@ -0,0 +1,102 @@
+package com.test.dosa_backend.service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.test.dosa_backend.domain.Document;
+import com.test.dosa_backend.domain.DocumentChunk;
+import com.test.dosa_backend.rag.TextChunker;
+import com.test.dosa_backend.repository.DocumentChunkBulkWriter;
+import com.test.dosa_backend.util.ContentHash;
+
+/**
+ * Matches freshly produced chunks against a document's stored chunks by content hash.
+ * <ul>
+ *     <li>reused: same text and already embedded with the current model; keeps its id (and so its
+ *     embedding), only index/meta are refreshed since surrounding pages may have moved</li>
+ *     <li>reembed: same text but no current embedding (e.g. an interrupted ingest or a model change);
+ *     keeps its row and needs an embedding</li>
+ *     <li>inserted: new or changed text; needs a row and an embedding</li>
+ *     <li>staleIds: stored chunks no longer produced; deleted with their embeddings</li>
+ * </ul>
+ */
+public record ChunkDiff(
+        List<DocumentChunk> reused,
+        List<DocumentChunk> reembed,
+        List<DocumentChunk> inserted,
+        List<UUID> staleIds
+) {
+
+    /**
+     * Rows that need an embedding: kept rows without one, then new rows.
+     */
+    public List<DocumentChunk> toEmbed() {
+        List<DocumentChunk> out = new ArrayList<>(reembed.size() + inserted.size());
+        out.addAll(reembed);
+        out.addAll(inserted);
+        return out;
+    }
+
+    /**
+     * Existing rows whose index/meta are rewritten.
+     */
+    public List<DocumentChunk> kept() {
+        List<DocumentChunk> out = new ArrayList<>(reused.size() + reembed.size());
+        out.addAll(reused);
+        out.addAll(reembed);
+        return out;
+    }
+
+    public static ChunkDiff compute(
+            Document doc,
+            List<TextChunker.TextChunk> chunks,
+            List<DocumentChunkBulkWriter.ExistingChunk> existing,
+            Instant now
+    ) {
+        // Repeated boilerplate produces identical chunks; each stored copy is reused at most once.
+        // Embedded copies are preferred so that as few chunks as possible need embedding.
+        Map<String, Deque<DocumentChunkBulkWriter.ExistingChunk>> reusable = new HashMap<>();
+        List<UUID> stale = new ArrayList<>();
+        for (DocumentChunkBulkWriter.ExistingChunk e : existing) {
+            if (e.contentSha256() == null) {
+                stale.add(e.id());
+                continue;
+            }
+            Deque<DocumentChunkBulkWriter.ExistingChunk> copies =
+                    reusable.computeIfAbsent(e.contentSha256(), k -> new ArrayDeque<>());
+            if (e.embedded()) copies.addFirst(e);
+            else copies.addLast(e);
+        }
+
+        List<DocumentChunk> reused = new ArrayList<>();
+        List<DocumentChunk> reembed = new ArrayList<>();
+        List<DocumentChunk> inserted = new ArrayList<>();
+        for (TextChunker.TextChunk c : chunks) {
+            String hash = ContentHash.sha256Hex(c.text());
+            Deque<DocumentChunkBulkWriter.ExistingChunk> copies = reusable.get(hash);
+            DocumentChunkBulkWriter.ExistingChunk match = (copies == null) ? null : copies.poll();
+            DocumentChunk row = new DocumentChunk(
+                    match != null ? match.id() : UUID.randomUUID(),
+                    doc,
+                    c.chunkIndex(),
+                    c.text(),
+                    c.metaJson(),
+                    hash,
+                    now
+            );
+            if (match == null) inserted.add(row);
+            else if (match.embedded()) reused.add(row);
+            else reembed.add(row);
+        }
+        for (Deque<DocumentChunkBulkWriter.ExistingChunk> leftover : reusable.values()) {
+            leftover.forEach(e -> stale.add(e.id()));
+        }
+        return new ChunkDiff(reused, reembed, inserted, stale);
+    }
+}
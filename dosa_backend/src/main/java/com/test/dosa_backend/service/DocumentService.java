@@ -2,6 +2,7 @@ package com.test.dosa_backend.service;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +12,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.test.dosa_backend.domain.Document;
 import com.test.dosa_backend.domain.DocumentStatus;
+import com.test.dosa_backend.rag.PdfTextExtractor;
+import com.test.dosa_backend.rag.TextChunker;
 import com.test.dosa_backend.repository.DocumentRepository;
 
 @Service
@@ -18,14 +21,29 @@ public class DocumentService {
 
     private final DocumentRepository documentRepository;
     private final StorageService storageService;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final TextChunker textChunker;
 
-    public DocumentService(DocumentRepository documentRepository, StorageService storageService) {
+    public DocumentService(
+            DocumentRepository documentRepository,
+            StorageService storageService,
+            PdfTextExtractor pdfTextExtractor,
+            TextChunker textChunker
+    ) {
         this.documentRepository = documentRepository;
         this.storageService = storageService;
+        this.pdfTextExtractor = pdfTextExtractor;
+        this.textChunker = textChunker;
     }
 
     @Transactional
     public Document uploadPdf(String title, MultipartFile pdfFile) throws IOException {
+        return uploadPdf(title, pdfFile, null);
+    }
+
+    @Transactional
+    public Document uploadPdf(String title, MultipartFile pdfFile, String chunkingStrategy) throws IOException {
+        String strategy = textChunker.normalizeStrategy(chunkingStrategy);
         UUID id = UUID.randomUUID();
         StorageService.StoredFile stored = storageService.savePdf(id, pdfFile);
         Instant now = Instant.now();
@@ -38,10 +56,23 @@ public class DocumentService {
                 now,
                 now
         );
+        doc.setChunkingStrategy(strategy);
         return documentRepository.save(doc);
     }
 
     public Optional<Document> get(UUID id) {
         return documentRepository.findById(id);
     }
+
+    /**
+     * Extracts the document once and runs every chunking strategy over the same pages.
+     */
+    public ChunkingBenchmark benchmarkChunking(UUID id) throws IOException {
+        Document doc = documentRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("document not found"));
+        List<PdfTextExtractor.PageText> pages = pdfTextExtractor.extract(doc.getStorageUri());
+        return new ChunkingBenchmark(pages.size(), textChunker.benchmark(pages));
+    }
+
+    public record ChunkingBenchmark(int pageCount, List<TextChunker.StrategyStats> strategies) {}
 }
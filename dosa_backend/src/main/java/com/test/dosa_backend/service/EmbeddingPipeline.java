@@ -0,0 +1,172 @@
+package com.test.dosa_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import com.test.dosa_backend.config.EmbeddingIngestProperties;
+import com.test.dosa_backend.openai.AdaptiveConcurrencyLimiter;
+import com.test.dosa_backend.openai.OpenAiClient;
+import com.test.dosa_backend.openai.OpenAiException;
+import com.test.dosa_backend.rag.EmbeddingBatcher;
+import com.test.dosa_backend.rag.VectorStoreRepository;
+
+/**
+ * Embeds chunks with several embedding requests in flight and writes each batch's vectors as soon
+ * as it returns, so DB writes overlap the HTTP calls of the following batches.
+ * <p>
+ * The number of in-flight requests is shared by all ingest jobs and adapts to HTTP 429 responses.
+ */
+@Component
+public class EmbeddingPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingPipeline.class);
+
+    private final OpenAiClient openAiClient;
+    private final VectorStoreRepository vectorStoreRepository;
+    private final EmbeddingIngestProperties properties;
+    private final Executor executor;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public EmbeddingPipeline(
+            OpenAiClient openAiClient,
+            VectorStoreRepository vectorStoreRepository,
+            EmbeddingIngestProperties properties,
+            @Qualifier("embeddingExecutor") Executor executor
+    ) {
+        this.openAiClient = openAiClient;
+        this.vectorStoreRepository = vectorStoreRepository;
+        this.properties = properties;
+        this.executor = executor;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties.getInitialConcurrency(), properties.getMaxConcurrency());
+    }
+
+    public int embedAndStore(UUID jobId, List<UUID> chunkIds, List<String> texts) {
+        return embedAndStore(jobId, chunkIds, texts, stored -> {});
+    }
+
+    /**
+     * Embeds {@code texts} and upserts the vectors for the matching {@code chunkIds}.
+     * {@code onBatchStored} receives the chunk count of each batch after its vectors are written
+     * (called from worker threads); an exception from it fails the run like a batch failure.
+     * Returns the number of embedding batches; throws the first batch failure.
+     */
+    public int embedAndStore(UUID jobId, List<UUID> chunkIds, List<String> texts, IntConsumer onBatchStored) {
+        if (chunkIds.size() != texts.size()) {
+            throw new IllegalArgumentException("chunkIds and texts must have the same size");
+        }
+        List<EmbeddingBatcher.Range> batches = EmbeddingBatcher.plan(
+                texts, properties.getMaxTokensPerRequest(),
+                properties.maxInputsPerRequest(openAiClient.embeddingDimensions()));
+        String model = openAiClient.embeddingModel();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(batches.size());
+        try {
+            for (int b = 0; b < batches.size() && failure.get() == null; b++) {
+                EmbeddingBatcher.Range range = batches.get(b);
+                int batchNo = b + 1;
+                limiter.acquire();
+                try {
+                    inFlight.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            runBatch(jobId, batchNo, batches.size(), range, chunkIds, texts, model);
+                            onBatchStored.accept(range.size());
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                            throw t;
+                        } finally {
+                            limiter.release();
+                        }
+                    }, executor));
+                } catch (RuntimeException e) {
+                    limiter.release();
+                    throw e;
+                }
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while embedding chunks", e);
+        } catch (CompletionException e) {
+            // rethrown below from the first recorded failure
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException re) throw re;
+        if (t instanceof Error err) throw err;
+        if (t != null) throw new IllegalStateException(t);
+        return batches.size();
+    }
+
+    private void runBatch(
+            UUID jobId,
+            int batchNo,
+            int batchCount,
+            EmbeddingBatcher.Range range,
+            List<UUID> chunkIds,
+            List<String> texts,
+            String model
+    ) {
+        long embedStart = System.nanoTime();
+        List<float[]> embs = embedWithBackoff(jobId, batchNo, texts.subList(range.start(), range.end()));
+        long storeStart = System.nanoTime();
+
+        List<VectorStoreRepository.ChunkEmbedding> rows = new ArrayList<>(range.size());
+        for (int i = 0; i < range.size(); i++) {
+            rows.add(new VectorStoreRepository.ChunkEmbedding(chunkIds.get(range.start() + i), embs.get(i)));
+        }
+        vectorStoreRepository.upsertEmbeddings(rows, model);
+        long storeEnd = System.nanoTime();
+
+        log.info("Ingest job {} - embedded batch {}/{} ({} chunks, ~{} tokens, embed={}ms, store={}ms, concurrency={})",
+                jobId, batchNo, batchCount, range.size(), range.estimatedTokens(),
+                (storeStart - embedStart) / 1_000_000, (storeEnd - storeStart) / 1_000_000, limiter.limit());
+    }
+
+    private List<float[]> embedWithBackoff(UUID jobId, int batchNo, List<String> texts) {
+        for (int attempt = 0; ; attempt++) {
+            long generation = limiter.generation();
+            try {
+                List<float[]> embs = openAiClient.embedTexts(texts);
+                if (embs.size() != texts.size()) {
+                    throw new OpenAiException("Embeddings API returned " + embs.size() + " vectors for " + texts.size() + " inputs");
+                }
+                limiter.onSuccess();
+                return embs;
+            } catch (OpenAiException e) {
+                if (!e.isRateLimited() || attempt >= properties.getMaxRetries()) {
+                    throw e;
+                }
+                limiter.onRateLimited(generation);
+                long backoffMs = backoffMs(attempt);
+                log.warn("Ingest job {} - batch {} rate limited (attempt {}); retrying in {}ms with concurrency={}",
+                        jobId, batchNo, attempt + 1, backoffMs, limiter.limit());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while backing off from rate limit", ie);
+                }
+            }
+        }
+    }
+
+    // Exponential backoff with jitter in [cap/2, cap] so retrying batches do not line up.
+    private long backoffMs(int attempt) {
+        long cap = Math.min(properties.getMaxBackoffMs(), properties.getInitialBackoffMs() << Math.min(attempt, 20));
+        if (cap <= 1) return cap;
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.test.dosa_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.test.dosa_backend.dto.ExplodeSampleDto;
+
+/**
+ * Precomputes world transforms of a model's node hierarchy at explode progress values, so clients can
+ * render frames without walking the parent chain themselves.
+ */
+@Service
+public class ExplodeAnimationService {
+
+    private final ModelViewerCache modelViewerCache;
+    private final int maxSamples;
+    private final int maxMatrices;
+
+    public ExplodeAnimationService(
+            ModelViewerCache modelViewerCache,
+            @Value("${app.model-explode.max-samples:120}") int maxSamples,
+            // Bounds the response size: each matrix is 16 doubles (~300 bytes of JSON).
+            @Value("${app.model-explode.max-matrices:20000}") int maxMatrices
+    ) {
+        this.modelViewerCache = modelViewerCache;
+        this.maxSamples = Math.max(1, maxSamples);
+        this.maxMatrices = Math.max(1, maxMatrices);
+    }
+
+    /**
+     * @param samples explode progress values in the same timeline as explodeStart/explodeDuration
+     */
+    public ExplodeSampleDto sample(String modelId, List<Double> samples) {
+        if (samples == null || samples.isEmpty()) {
+            throw new IllegalArgumentException("t is required.");
+        }
+        if (samples.size() > maxSamples) {
+            throw new IllegalArgumentException("Too many t samples (max " + maxSamples + ").");
+        }
+        for (Double t : samples) {
+            if (t == null || !Double.isFinite(t)) {
+                throw new IllegalArgumentException("t must be a finite number.");
+            }
+        }
+
+        AssemblyHierarchy hierarchy = modelViewerCache.get(modelId).hierarchy();
+        long matrices = (long) samples.size() * hierarchy.size();
+        if (matrices > maxMatrices) {
+            throw new IllegalArgumentException("Too many t samples for a model with " + hierarchy.size()
+                    + " nodes: " + matrices + " matrices (max " + maxMatrices + ", i.e. "
+                    + maxMatrices / hierarchy.size() + " samples).");
+        }
+        List<ExplodeSampleDto.Frame> frames = new ArrayList<>(samples.size());
+        for (double t : samples) {
+            frames.add(ExplodeSampleDto.Frame.builder()
+                    .t(t)
+                    .matrices(hierarchy.worldMatrices(t))
+                    .build());
+        }
+        return ExplodeSampleDto.builder()
+                .modelId(modelId)
+                .nodeIds(hierarchy.nodeIds())
+                .parentIndex(hierarchy.parentIndexes())
+                .frames(frames)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.test.dosa_backend.service;
+
+import java.net.InetAddress;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.test.dosa_backend.repository.IngestJobQueue;
+
+/**
+ * Pulls ingest jobs from the durable queue and runs up to {@code app.ingest.queue.concurrency} of
+ * them on this node. Leases are kept alive by a heartbeat; jobs of a node that died are picked up
+ * by any node once the lease expires and resume from their last committed embedding batch.
+ */
+@Component
+public class IngestQueueWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestQueueWorker.class);
+
+    private final IngestJobQueue queue;
+    private final IngestService ingestService;
+    private final Executor executor;
+    private final String nodeId;
+    private final int concurrency;
+    private final long staleAfterSeconds;
+    private final int maxAttempts;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+
+    public IngestQueueWorker(
+            IngestJobQueue queue,
+            IngestService ingestService,
+            @Qualifier("ingestExecutor") Executor executor,
+            @Value("${app.ingest.queue.node-id:}") String nodeId,
+            @Value("${app.ingest.queue.concurrency:2}") int concurrency,
+            @Value("${app.ingest.queue.stale-after-seconds:120}") long staleAfterSeconds,
+            @Value("${app.ingest.queue.max-attempts:3}") int maxAttempts
+    ) {
+        this.queue = queue;
+        this.ingestService = ingestService;
+        this.executor = executor;
+        this.nodeId = (nodeId == null || nodeId.isBlank()) ? defaultNodeId() : nodeId;
+        this.concurrency = Math.max(1, concurrency);
+        this.staleAfterSeconds = Math.max(10, staleAfterSeconds);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Polls right away instead of waiting for the next tick (call after the job row is committed).
+     */
+    public void wakeUp() {
+        try {
+            executor.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            log.debug("Ingest queue wake-up skipped; executor saturated.");
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.ingest.queue.initial-delay-ms:5000}",
+            fixedDelayString = "${app.ingest.queue.poll-interval-ms:2000}"
+    )
+    public synchronized void poll() {
+        try {
+            int failed = queue.failExhausted(staleAfterSeconds, maxAttempts);
+            if (failed > 0) {
+                log.warn("Marked {} document(s) FAILED after their ingest jobs exhausted {} attempts.", failed, maxAttempts);
+            }
+            while (running.size() < concurrency) {
+                UUID jobId = queue.claimNext(nodeId, staleAfterSeconds, maxAttempts).orElse(null);
+                if (jobId == null) {
+                    return;
+                }
+                running.add(jobId);
+                log.info("Claimed ingest job {} on node {}", jobId, nodeId);
+                try {
+                    executor.execute(() -> {
+                        try {
+                            ingestService.runJob(jobId, nodeId);
+                        } finally {
+                            running.remove(jobId);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // The lease expires and the job is claimed again.
+                    running.remove(jobId);
+                    log.warn("Ingest executor rejected job {}; it will be retried after its lease expires.", jobId);
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Ingest queue poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingest.queue.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (running.isEmpty()) return;
+        try {
+            queue.heartbeat(Set.copyOf(running), nodeId);
+        } catch (Exception e) {
+            log.warn("Ingest queue heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
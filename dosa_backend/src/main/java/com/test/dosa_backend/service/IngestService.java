@@ -1,13 +1,11 @@
 package com.test.dosa_backend.service;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,9 +17,9 @@ import com.test.dosa_backend.domain.IngestJobStatus;
 import com.test.dosa_backend.openai.OpenAiClient;
 import com.test.dosa_backend.rag.PdfTextExtractor;
 import com.test.dosa_backend.rag.TextChunker;
-import com.test.dosa_backend.rag.VectorStoreRepository;
-import com.test.dosa_backend.repository.DocumentChunkRepository;
+import com.test.dosa_backend.repository.DocumentChunkBulkWriter;
 import com.test.dosa_backend.repository.DocumentRepository;
+import com.test.dosa_backend.repository.IngestJobQueue;
 import com.test.dosa_backend.repository.IngestJobRepository;
 
 @Service
@@ -32,37 +30,56 @@ public class IngestService {
 
     private final DocumentRepository documentRepository;
     private final IngestJobRepository ingestJobRepository;
-    private final DocumentChunkRepository chunkRepository;
+    private final DocumentChunkBulkWriter chunkBulkWriter;
     private final PdfTextExtractor pdfTextExtractor;
     private final TextChunker textChunker;
     private final OpenAiClient openAiClient;
-    private final VectorStoreRepository vectorStoreRepository;
+    private final EmbeddingPipeline embeddingPipeline;
+    private final IngestJobQueue ingestJobQueue;
+    private final RagResultCache ragResultCache;
 
     public IngestService(
             DocumentRepository documentRepository,
             IngestJobRepository ingestJobRepository,
-            DocumentChunkRepository chunkRepository,
+            DocumentChunkBulkWriter chunkBulkWriter,
             PdfTextExtractor pdfTextExtractor,
             TextChunker textChunker,
             OpenAiClient openAiClient,
-            VectorStoreRepository vectorStoreRepository
+            EmbeddingPipeline embeddingPipeline,
+            IngestJobQueue ingestJobQueue,
+            RagResultCache ragResultCache
     ) {
         this.documentRepository = documentRepository;
         this.ingestJobRepository = ingestJobRepository;
-        this.chunkRepository = chunkRepository;
+        this.chunkBulkWriter = chunkBulkWriter;
         this.pdfTextExtractor = pdfTextExtractor;
         this.textChunker = textChunker;
         this.openAiClient = openAiClient;
-        this.vectorStoreRepository = vectorStoreRepository;
+        this.embeddingPipeline = embeddingPipeline;
+        this.ingestJobQueue = ingestJobQueue;
+        this.ragResultCache = ragResultCache;
     }
 
     @Transactional
     public IngestJob createJob(UUID documentId) {
+        return createJob(documentId, null);
+    }
+
+    /**
+     * @param chunkingStrategy when non-blank, replaces the document's chunking strategy before ingest
+     */
+    @Transactional
+    public IngestJob createJob(UUID documentId, String chunkingStrategy) {
         Document doc = documentRepository.findById(documentId)
                 .orElseThrow(() -> new IllegalArgumentException("document not found"));
+        String strategy = textChunker.normalizeStrategy(chunkingStrategy);
+        if (strategy != null) {
+            doc.setChunkingStrategy(strategy);
+        }
 
-        // Recover stale jobs for the same document so status never stays RUNNING forever.
-        List<IngestJob> runningJobs = ingestJobRepository.findByDocument_IdAndStatus(documentId, IngestJobStatus.RUNNING);
+        // Supersede queued/running jobs for the same document; their workers stop at the next ownership check.
+        List<IngestJob> runningJobs = ingestJobRepository.findByDocument_IdAndStatusIn(
+                documentId, List.of(IngestJobStatus.PENDING, IngestJobStatus.RUNNING));
         Instant now = Instant.now();
         for (IngestJob running : runningJobs) {
             running.setStatus(IngestJobStatus.FAILED);
@@ -86,91 +103,91 @@ public class IngestService {
                 .orElseThrow(() -> new IllegalArgumentException("job not found"));
     }
 
-    @Async("ingestExecutor")
-    public void runJobAsync(UUID jobId) {
+    /**
+     * Runs a job claimed from {@link com.test.dosa_backend.repository.IngestJobQueue} by {@code nodeId}.
+     * A resumed job redoes extraction and chunking, but chunks whose embedding was committed by an
+     * earlier attempt are reused, so embedding continues after the last committed batch.
+     */
+    public void runJob(UUID jobId, String nodeId) {
         // We intentionally do NOT annotate this method @Transactional because it does long work.
         UUID docId = null;
 
         try {
             IngestJob job = getJob(jobId);
             docId = job.getDocument().getId();
-            log.info("Ingest job started: jobId={}, documentId={}", jobId, docId);
-            markRunning(jobId);
+            log.info("Ingest job started: jobId={}, documentId={}, attempt={}", jobId, docId, job.getAttempts());
 
             Document doc = documentRepository.findById(docId).orElseThrow();
             log.info("Ingest job {} - extracting PDF from {}", jobId, doc.getStorageUri());
 
-            // 1) Extract & chunk
-            List<PdfTextExtractor.PageText> pages = pdfTextExtractor.extract(doc.getStorageUri());
-            log.info("Ingest job {} - extracted {} pages", jobId, pages.size());
-            List<TextChunker.TextChunk> chunks = textChunker.chunk(pages);
-            log.info("Ingest job {} - produced {} chunks", jobId, chunks.size());
+            // 1) Extract & chunk (pages are streamed into the chunker, never held all at once)
+            List<TextChunker.TextChunk> chunks;
+            try (PdfTextExtractor.PageStream pages = pdfTextExtractor.open(doc.getStorageUri())) {
+                chunks = textChunker.chunk(pages, doc.getChunkingStrategy());
+                log.info("Ingest job {} - extracted {} pages", jobId, pages.pageCount());
+            }
+            log.info("Ingest job {} - produced {} chunks (strategy={})", jobId, chunks.size(), doc.getChunkingStrategy());
             if (chunks.isEmpty()) {
                 throw new IllegalStateException("No extractable text was found in PDF.");
             }
 
-            // 2) Persist chunks
-            List<DocumentChunk> savedChunks = saveChunks(docId, chunks);
-            log.info("Ingest job {} - persisted {} chunks", jobId, savedChunks.size());
-
-            // 3) Embed & store vectors (batched)
-            final int batchSize = 16;
-            for (int i = 0; i < savedChunks.size(); i += batchSize) {
-                int end = Math.min(savedChunks.size(), i + batchSize);
-                List<DocumentChunk> batch = savedChunks.subList(i, end);
-                List<String> texts = batch.stream().map(DocumentChunk::getContentText).toList();
-                List<float[]> embs = openAiClient.embedTexts(texts);
-                for (int j = 0; j < batch.size(); j++) {
-                    vectorStoreRepository.upsertEmbedding(batch.get(j).getId(), embs.get(j), openAiClient.embeddingModel());
-                }
-                log.info("Ingest job {} - embedded batch {}/{}", jobId, (i / batchSize) + 1, (savedChunks.size() + batchSize - 1) / batchSize);
-            }
+            // 2) Persist chunks (unchanged chunks keep their rows and embeddings)
+            String embeddingModel = openAiClient.embeddingModel();
+            ChunkDiff diff = saveChunks(jobId, nodeId, doc, chunks, embeddingModel);
+
+            // 3) Embed & store vectors for new/changed chunks (token-sized batches, several requests in flight)
+            List<DocumentChunk> toEmbed = diff.toEmbed();
+            long embedStart = System.nanoTime();
+            int batches = embeddingPipeline.embedAndStore(
+                    jobId,
+                    toEmbed.stream().map(DocumentChunk::getId).toList(),
+                    toEmbed.stream().map(DocumentChunk::getContentText).toList(),
+                    stored -> checkpoint(jobId, nodeId, stored)
+            );
+            log.info("Ingest job {} - embedded {} chunks in {} batches ({}ms), reused {}",
+                    jobId, toEmbed.size(), batches, (System.nanoTime() - embedStart) / 1_000_000, diff.reused().size());
 
-            markCompleted(jobId, savedChunks.size(), openAiClient.embeddingModel());
+            // Conditional on ownership: a superseded worker must not complete the new owner's job.
+            if (!ingestJobQueue.complete(jobId, nodeId, chunks.size(), embeddingModel)) {
+                throw new JobOwnershipLostException("job is no longer owned by " + nodeId);
+            }
             markDocumentReady(docId);
-            log.info("Ingest job completed: jobId={}, documentId={}, chunks={}", jobId, docId, savedChunks.size());
+            ragResultCache.invalidateDocument(docId);
+            log.info("Ingest job completed: jobId={}, documentId={}, chunks={}", jobId, docId, chunks.size());
 
+        } catch (JobOwnershipLostException e) {
+            // Another request superseded the job or another node reclaimed it; leave the row to its new owner.
+            log.warn("Ingest job {} stopped: {}", jobId, e.getMessage());
         } catch (Throwable t) {
             log.error("Ingest job failed: jobId={}, documentId={}", jobId, docId, t);
-            safeMarkFailed(jobId, t);
+            if (!safeMarkFailed(jobId, nodeId, t)) {
+                // Another node owns the job now; its outcome decides the document status.
+                return;
+            }
             if (docId != null) {
                 safeMarkDocumentFailed(docId);
+                // Chunks may already have been replaced before the failure.
+                ragResultCache.invalidateDocument(docId);
             }
         }
     }
 
-    @Transactional
-    protected void markRunning(UUID jobId) {
-        IngestJob job = getJob(jobId);
-        job.setStatus(IngestJobStatus.RUNNING);
-        job.setStartedAt(Instant.now());
-        ingestJobRepository.save(job);
-    }
-
-    @Transactional
-    protected void markCompleted(UUID jobId, int chunkCount, String embeddingModel) {
-        IngestJob job = getJob(jobId);
-        job.setStatus(IngestJobStatus.COMPLETED);
-        job.setFinishedAt(Instant.now());
-        job.setChunkCount(chunkCount);
-        job.setEmbeddingModel(embeddingModel);
-        ingestJobRepository.save(job);
-    }
-
-    @Transactional
-    protected void markFailed(UUID jobId, String error) {
-        IngestJob job = getJob(jobId);
-        job.setStatus(IngestJobStatus.FAILED);
-        job.setFinishedAt(Instant.now());
-        job.setErrorMessage(error);
-        ingestJobRepository.save(job);
+    private void checkpoint(UUID jobId, String nodeId, int embeddedChunks) {
+        if (!ingestJobQueue.checkpoint(jobId, nodeId, embeddedChunks)) {
+            throw new JobOwnershipLostException("job is no longer owned by " + nodeId);
+        }
     }
 
-    private void safeMarkFailed(UUID jobId, Throwable error) {
+    private boolean safeMarkFailed(UUID jobId, String nodeId, Throwable error) {
         try {
-            markFailed(jobId, toPersistableErrorMessage(error));
+            boolean owned = ingestJobQueue.fail(jobId, nodeId, toPersistableErrorMessage(error));
+            if (!owned) {
+                log.warn("Ingest job {} failed after losing ownership; leaving it to its new owner.", jobId);
+            }
+            return owned;
         } catch (Exception e) {
             log.error("Failed to mark ingest job as FAILED: jobId={}", jobId, e);
+            return true;
         }
     }
 
@@ -211,26 +228,27 @@ public class IngestService {
         documentRepository.save(doc);
     }
 
-    @Transactional
-    protected List<DocumentChunk> saveChunks(UUID docId, List<TextChunker.TextChunk> chunks) {
-        Document doc = documentRepository.findById(docId).orElseThrow();
-        Instant now = Instant.now();
+    private ChunkDiff saveChunks(UUID jobId, String nodeId, Document doc, List<TextChunker.TextChunk> chunks, String embeddingModel) {
+        List<DocumentChunkBulkWriter.ExistingChunk> existing = chunkBulkWriter.findExisting(doc.getId(), embeddingModel);
+        ChunkDiff diff = ChunkDiff.compute(doc, chunks, existing, Instant.now());
+
+        // Re-ingest deletes stale chunks and writes changed ones in a single transaction, which first
+        // row-locks the job if this node still owns it; a reclaimed job's old worker writes nothing.
+        DocumentChunkBulkWriter.WriteResult result =
+                chunkBulkWriter.syncChunks(doc.getId(), diff.inserted(), diff.kept(), diff.staleIds(), () -> {
+                    if (!ingestJobQueue.lockIfOwned(jobId, nodeId)) {
+                        throw new JobOwnershipLostException("job is no longer owned by " + nodeId);
+                    }
+                });
+        log.info("Ingest job {} - persisted chunks: inserted={}, kept={}, deleted={} ({}ms, {} rows/s)",
+                jobId, result.inserted(), result.updated(), result.deleted(), result.elapsedNanos() / 1_000_000,
+                Math.round(result.rowsPerSecond()));
+        return diff;
+    }
 
-        // Re-ingest should replace old chunks/embeddings for this document.
-        chunkRepository.deleteAllByDocumentId(docId);
-
-        List<DocumentChunk> out = new ArrayList<>();
-        for (TextChunker.TextChunk c : chunks) {
-            DocumentChunk entity = new DocumentChunk(
-                    UUID.randomUUID(),
-                    doc,
-                    c.chunkIndex(),
-                    c.text(),
-                    c.metaJson(),
-                    now
-            );
-            out.add(chunkRepository.save(entity));
+    static class JobOwnershipLostException extends IllegalStateException {
+        JobOwnershipLostException(String message) {
+            super(message);
         }
-        return out;
     }
 }
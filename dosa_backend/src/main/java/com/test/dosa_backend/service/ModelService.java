@@ -3,6 +3,7 @@ package com.test.dosa_backend.service;
 import com.test.dosa_backend.domain.Model;
 import com.test.dosa_backend.dto.*;
 import com.test.dosa_backend.repository.AssemblyNodeRepository;
+import com.test.dosa_backend.repository.AssemblyNodeRow;
 import com.test.dosa_backend.repository.ModelRepository;
 import com.test.dosa_backend.repository.PartRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -24,19 +25,25 @@ public class ModelService {
 
     @Transactional(readOnly = true)
     public ModelResponseDto getModelDetail(String modelId) {
-        ModelInfoDto modelInfo = modelRepository.findById(modelId)
-                .map(ModelInfoDto::fromModel)
+        ViewerData data = getViewerData(modelId);
+        List<NodeInfoDto> nodes = data.nodes().stream()
+                .map(NodeInfoDto::fromRow)
+                .toList();
+
+        return ModelResponseDto.of(data.model(), data.parts(), nodes);
+    }
+
+    // 모델/부품/노드를 각각 DTO 프로젝션 한 번씩, 총 3개의 쿼리로 조회 (노드 수와 무관)
+    @Transactional(readOnly = true)
+    public ViewerData getViewerData(String modelId) {
+        ModelInfoDto modelInfo = modelRepository.findInfoByModelId(modelId)
                 .orElseThrow(() -> new EntityNotFoundException("모델 없음"));
 
-        List<PartInfoDto> parts = partRepository.findAllByModelId(modelId).stream()
-                .map(PartInfoDto::fromPart)
-                .toList();
+        List<PartInfoDto> parts = partRepository.findInfoByModelId(modelId);
 
-        List<NodeInfoDto> nodes = assemblyNodeRepository.findAllByModelId(modelId).stream()
-                .map(NodeInfoDto::fromNode)
-                .toList();
+        List<AssemblyNodeRow> nodes = assemblyNodeRepository.findRowsByModelId(modelId);
 
-        return ModelResponseDto.of(modelInfo, parts, nodes);
+        return new ViewerData(modelInfo, parts, nodes);
     }
 
     @Transactional(readOnly = true)
@@ -45,4 +52,5 @@ public class ModelService {
         return new ModelSliceDto(slice);
     }
 
+    public record ViewerData(ModelInfoDto model, List<PartInfoDto> parts, List<AssemblyNodeRow> nodes) {}
 }
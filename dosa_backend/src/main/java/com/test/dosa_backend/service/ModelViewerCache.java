@@ -0,0 +1,135 @@
+package com.test.dosa_backend.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.dosa_backend.dto.ModelResponseDto;
+import com.test.dosa_backend.dto.NodeBinaryFormat;
+import com.test.dosa_backend.dto.NodeInfoDto;
+import com.test.dosa_backend.util.ContentHash;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Viewer payloads ({@link ModelResponseDto}) per modelId, kept as serialized JSON and
+ * {@link NodeBinaryFormat} bytes, each with a content-derived ETag. Model data only changes through seeding, so entries live until
+ * {@link #invalidate} / {@link #invalidateAll} (or the optional TTL) drop them.
+ */
+@Component
+public class ModelViewerCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelViewerCache.class);
+
+    private final ModelService modelService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<String, ViewerPayload> cache;
+
+    public ModelViewerCache(
+            ModelService modelService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.model-viewer-cache.enabled:true}") boolean enabled,
+            @Value("${app.model-viewer-cache.max-models:200}") long maxModels,
+            @Value("${app.model-viewer-cache.ttl:PT0S}") Duration ttl
+    ) {
+        this.modelService = modelService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxModels))
+                .recordStats();
+        // PT0S = no expiry
+        if (!ttl.isZero() && !ttl.isNegative()) {
+            builder.expireAfterWrite(ttl);
+        }
+        this.cache = builder.build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "model-viewer");
+    }
+
+    /**
+     * Concurrent misses for the same model share one load.
+     *
+     * @throws jakarta.persistence.EntityNotFoundException if the model does not exist (not cached)
+     */
+    public ViewerPayload get(String modelId) {
+        if (!enabled) {
+            return load(modelId);
+        }
+        return cache.get(modelId, this::load);
+    }
+
+    public void invalidate(String modelId) {
+        cache.invalidate(modelId);
+        log.info("Model viewer cache invalidated: modelId={}", modelId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("Model viewer cache invalidated for all models");
+    }
+
+    private ViewerPayload load(String modelId) {
+        long start = System.nanoTime();
+        ModelService.ViewerData data = modelService.getViewerData(modelId);
+        List<NodeInfoDto> nodes = data.nodes().stream().map(NodeInfoDto::fromRow).toList();
+        byte[] json = objectMapper.writeValueAsBytes(ModelResponseDto.of(data.model(), data.parts(), nodes));
+
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("model", data.model());
+        header.put("parts", data.parts());
+        byte[] binary = NodeBinaryFormat.encode(objectMapper.writeValueAsBytes(header), data.nodes());
+
+        log.info("Model viewer payload built: modelId={}, nodes={}, jsonBytes={}, binaryBytes={}, {}ms",
+                modelId, nodes.size(), json.length, binary.length, (System.nanoTime() - start) / 1_000_000);
+        return new ViewerPayload(Representation.of(json), Representation.of(binary), AssemblyHierarchy.of(data.nodes()));
+    }
+
+    /**
+     * @param json      {@link ModelResponseDto} as JSON
+     * @param binary    the same payload in {@link NodeBinaryFormat}
+     * @param hierarchy the node tree prepared for explode sampling
+     */
+    public record ViewerPayload(Representation json, Representation binary, AssemblyHierarchy hierarchy) {}
+
+    /**
+     * @param body serialized payload; shared between requests and must not be mutated
+     * @param etag strong ETag (quoted) derived from {@code body}
+     */
+    public record Representation(byte[] body, String etag) {
+
+        static Representation of(byte[] body) {
+            return new Representation(body, "\"" + ContentHash.sha256Hex(body).substring(0, 32) + "\"");
+        }
+
+        /**
+         * @return true if an If-None-Match header value matches this payload's ETag
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
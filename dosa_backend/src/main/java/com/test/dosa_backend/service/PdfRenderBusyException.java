@@ -0,0 +1,11 @@
+package com.test.dosa_backend.service;
+
+/**
+ * Thrown when every PDF render slot stayed busy for the whole queue timeout; mapped to HTTP 429.
+ */
+public class PdfRenderBusyException extends RuntimeException {
+
+    public PdfRenderBusyException(String message) {
+        super(message);
+    }
+}
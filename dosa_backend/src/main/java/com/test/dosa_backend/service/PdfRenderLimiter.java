@@ -0,0 +1,60 @@
+package com.test.dosa_backend.service;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounds the number of PDF renders running at once. A request waits up to {@code app.pdf.render.queue-timeout}
+ * for a slot (PT0S = fail immediately) and is otherwise rejected with {@link PdfRenderBusyException}.
+ * Every successful {@link #acquire()} must be paired with one {@link #release()}.
+ */
+@Component
+public class PdfRenderLimiter {
+
+    private final int maxConcurrent;
+    private final Duration queueTimeout;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public PdfRenderLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.pdf.render.max-concurrent:0}") int maxConcurrent,
+            @Value("${app.pdf.render.queue-timeout:PT0S}") Duration queueTimeout
+    ) {
+        // 0 = one render per available core (rendering is CPU-bound)
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        this.queueTimeout = queueTimeout.isNegative() ? Duration.ZERO : queueTimeout;
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.rejected = Counter.builder("pdf.render.rejected").register(meterRegistry);
+        Gauge.builder("pdf.render.active", this, l -> l.maxConcurrent - l.permits.availablePermits())
+                .register(meterRegistry);
+    }
+
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = queueTimeout.isZero()
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new PdfRenderBusyException("PDF 생성 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,89 @@
+package com.test.dosa_backend.service;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.test.dosa_backend.dto.ModelInfoDto;
+import com.test.dosa_backend.repository.ModelRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Model-dependent part of a PDF report (title, overview, theory rendered from markdown to HTML) per modelId,
+ * loaded with one projection query. Like {@link ModelViewerCache}, entries live until {@link #invalidate} /
+ * {@link #invalidateAll} (or the optional TTL) drop them.
+ */
+@Component
+public class PdfReportContentCache {
+
+    // Both are immutable and thread-safe once built.
+    private static final Parser PARSER = Parser.builder().build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    private static final Pattern LIST_BREAK = Pattern.compile("([^\\n])\\s*\\*\\s*\\*\\*");
+    private static final Pattern BOLD = Pattern.compile("\\*\\*\\s*(.*?)\\s*\\*\\*");
+
+    private final LoadingCache<String, ReportContent> cache;
+
+    public PdfReportContentCache(
+            ModelRepository modelRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.pdf.content-cache.max-models:200}") long maxModels,
+            @Value("${app.pdf.content-cache.ttl:PT0S}") Duration ttl
+    ) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxModels))
+                .recordStats();
+        // PT0S = no expiry
+        if (!ttl.isZero() && !ttl.isNegative()) {
+            builder.expireAfterWrite(ttl);
+        }
+        this.cache = builder.build(modelId -> modelRepository.findInfoByModelId(modelId)
+                .map(PdfReportContentCache::toContent)
+                .orElseThrow(() -> new EntityNotFoundException("모델 없음")));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pdf-report-content");
+    }
+
+    public ReportContent get(String modelId) {
+        return cache.get(modelId);
+    }
+
+    public void invalidate(String modelId) {
+        cache.invalidate(modelId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static ReportContent toContent(ModelInfoDto info) {
+        return new ReportContent(info.getTitle(), info.getOverview(), markdownToHtml(info.getTheory()));
+    }
+
+    static String markdownToHtml(String markdown) {
+        if (markdown == null) {
+            return "";
+        }
+        // 1. 문자열 형태의 "\n"을 실제 줄바꿈으로 변경
+        String fixed = markdown.replace("\\n", "\n");
+
+        // 2. 리스트(*) 강제 줄바꿈 및 교정
+        fixed = LIST_BREAK.matcher(fixed).replaceAll("$1\n\n* **");
+
+        // 3. ** ** 문법 적용
+        fixed = BOLD.matcher(fixed).replaceAll(" **$1** ");
+
+        return RENDERER.render(PARSER.parse(fixed));
+    }
+
+    public record ReportContent(String title, String overview, String theoryHtml) {}
+}
@@ -0,0 +1,11 @@
+package com.test.dosa_backend.service;
+
+/**
+ * Thrown for an unknown or expired report job, or a job whose artifact was swept; mapped to HTTP 404.
+ */
+public class PdfReportJobNotFoundException extends RuntimeException {
+
+    public PdfReportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,332 @@
+package com.test.dosa_backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.dosa_backend.dto.PdfRequestDto;
+import com.test.dosa_backend.util.ContentHash;
+
+/**
+ * Asynchronous learning-report rendering. A job renders the report HTML up front (cheap; surfaces a missing model
+ * immediately) and the PDF on {@code reportExecutor} into {@code <app.storage.base-dir>/reports/<sha256>.pdf}.
+ * <p>
+ * The artifact is keyed by the SHA-256 of the rendered HTML, so identical payloads share one render: a submit
+ * joins the job already rendering that content, or completes at once when the artifact is on disk. Job state is
+ * kept in memory for {@code app.pdf.report-jobs.ttl}; artifacts outlive it and restarts until the sweep deletes
+ * them: after {@code app.pdf.report-jobs.retention} without use, or least recently used first once the directory
+ * exceeds {@code app.pdf.report-jobs.max-total-bytes}.
+ */
+@Service
+public class PdfReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfReportJobService.class);
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 240;
+
+    private final PdfService pdfService;
+    private final StorageService storageService;
+    private final Executor reportExecutor;
+    private final Cache<UUID, ReportJob> jobs;
+    // Jobs still rendering, by content hash
+    private final ConcurrentHashMap<String, ReportJob> rendering = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final long maxTotalBytes;
+
+    public PdfReportJobService(
+            PdfService pdfService,
+            StorageService storageService,
+            @Qualifier("reportExecutor") Executor reportExecutor,
+            @Value("${app.pdf.report-jobs.ttl:PT1H}") Duration ttl,
+            // PT0S = keep artifacts regardless of age
+            @Value("${app.pdf.report-jobs.retention:P7D}") Duration retention,
+            // 0 = no size limit
+            @Value("${app.pdf.report-jobs.max-total-bytes:1073741824}") long maxTotalBytes
+    ) {
+        this.pdfService = pdfService;
+        this.storageService = storageService;
+        this.reportExecutor = reportExecutor;
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+        this.retention = retention;
+        this.maxTotalBytes = maxTotalBytes;
+    }
+
+    /**
+     * @throws PdfRenderBusyException when the render queue is full
+     */
+    public ReportJob submit(PdfRequestDto requestDto, String modelId) throws IOException {
+        String html = pdfService.renderHtml(requestDto, modelId);
+        String contentHash = ContentHash.sha256Hex(html);
+        Path artifact = storageService.reportArtifact(contentHash);
+
+        ReportJob job = rendering.computeIfAbsent(contentHash, hash -> {
+            ReportJob created = new ReportJob(UUID.randomUUID(), modelId, hash, Instant.now());
+            if (Files.exists(artifact)) {
+                // Reuse counts as use for the retention sweep.
+                touch(artifact);
+                created.complete(sizeOf(artifact));
+                return created;
+            }
+            try {
+                reportExecutor.execute(() -> render(created, html, artifact));
+            } catch (RejectedExecutionException e) {
+                throw new PdfRenderBusyException("PDF 생성 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+            }
+            return created;
+        });
+        // Already-rendered content never stays in the in-flight map.
+        if (job.getStatus() == ReportJobStatus.COMPLETED) {
+            rendering.remove(contentHash, job);
+        }
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * @throws PdfReportJobNotFoundException when the job is unknown or has expired
+     */
+    public ReportJob getJob(UUID jobId) {
+        ReportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new PdfReportJobNotFoundException("job not found");
+        }
+        return job;
+    }
+
+    /**
+     * @throws IllegalStateException         when the job has not completed
+     * @throws PdfReportJobNotFoundException when the artifact has been swept; submitting again renders it anew
+     */
+    public Path artifact(ReportJob job) throws IOException {
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new IllegalStateException("report is not ready: " + job.getStatus());
+        }
+        Path artifact = storageService.reportArtifact(job.getContentHash());
+        if (!Files.exists(artifact)) {
+            throw new PdfReportJobNotFoundException("report file expired");
+        }
+        return artifact;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.pdf.report-jobs.sweep-interval-ms:3600000}",
+            fixedDelayString = "${app.pdf.report-jobs.sweep-interval-ms:3600000}"
+    )
+    public void sweepArtifacts() {
+        try {
+            int deleted = sweep(Instant.now());
+            if (deleted > 0) {
+                log.info("Report artifact sweep deleted {} file(s)", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Report artifact sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes artifacts (and orphaned temp files) unused for longer than the retention, then the least recently
+     * used artifacts until the rest fit into {@code maxTotalBytes}. Content of live jobs is never deleted.
+     *
+     * @return number of deleted files
+     */
+    int sweep(Instant now) throws IOException {
+        Set<String> live = new HashSet<>(rendering.keySet());
+        for (ReportJob job : jobs.asMap().values()) {
+            live.add(job.getContentHash());
+        }
+
+        List<StoredArtifact> kept = new ArrayList<>();
+        long totalBytes = 0;
+        int deleted = 0;
+        Instant cutoff = (retention.isZero() || retention.isNegative()) ? null : now.minus(retention);
+        try (Stream<Path> files = Files.list(storageService.reportDir())) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                int dot = name.indexOf('.');
+                if (dot <= 0 || !(name.endsWith(".pdf") || name.endsWith(".tmp"))) continue;
+                BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                StoredArtifact artifact = new StoredArtifact(path, name.substring(0, dot),
+                        attrs.lastModifiedTime().toInstant(), attrs.size());
+                boolean expired = cutoff != null && artifact.lastUsed().isBefore(cutoff);
+                if (expired && !live.contains(artifact.contentHash()) && Files.deleteIfExists(path)) {
+                    deleted++;
+                } else {
+                    kept.add(artifact);
+                    totalBytes += artifact.sizeBytes();
+                }
+            }
+        }
+
+        if (maxTotalBytes > 0 && totalBytes > maxTotalBytes) {
+            kept.sort(Comparator.comparing(StoredArtifact::lastUsed));
+            for (StoredArtifact artifact : kept) {
+                if (totalBytes <= maxTotalBytes) break;
+                if (live.contains(artifact.contentHash())) continue;
+                if (Files.deleteIfExists(artifact.path())) {
+                    deleted++;
+                }
+                totalBytes -= artifact.sizeBytes();
+            }
+        }
+        return deleted;
+    }
+
+    private void render(ReportJob job, String html, Path artifact) {
+        job.start();
+        Path tmp = artifact.resolveSibling(artifact.getFileName() + "." + job.getId() + ".tmp");
+        long start = System.nanoTime();
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                pdfService.writePdf(html, out);
+            }
+            Files.move(tmp, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Leave the in-flight map before waking waiters; later submits find the artifact on disk.
+            rendering.remove(job.getContentHash(), job);
+            job.complete(sizeOf(artifact));
+            log.info("Report job completed: jobId={}, modelId={}, bytes={} ({}ms)",
+                    job.getId(), job.getModelId(), job.getSizeBytes(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Throwable t) {
+            log.error("Report job failed: jobId={}, modelId={}", job.getId(), job.getModelId(), t);
+            deleteQuietly(tmp);
+            // A later submit of the same content renders again.
+            rendering.remove(job.getContentHash(), job);
+            job.fail(toErrorMessage(t));
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.debug("Failed to touch report artifact {}", path, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary report file {}", path, e);
+        }
+    }
+
+    private static String toErrorMessage(Throwable t) {
+        String raw = (t.getMessage() == null || t.getMessage().isBlank()) ? t.getClass().getSimpleName() : t.getMessage();
+        return raw.length() <= MAX_ERROR_MESSAGE_LENGTH ? raw : raw.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+    }
+
+    private record StoredArtifact(Path path, String contentHash, Instant lastUsed, long sizeBytes) {}
+
+    public enum ReportJobStatus {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    public static final class ReportJob {
+
+        private final UUID id;
+        private final String modelId;
+        private final String contentHash;
+        private final Instant createdAt;
+        private final CompletableFuture<ReportJob> done = new CompletableFuture<>();
+
+        private volatile ReportJobStatus status = ReportJobStatus.PENDING;
+        private volatile Instant finishedAt;
+        private volatile long sizeBytes = -1;
+        private volatile String errorMessage;
+
+        ReportJob(UUID id, String modelId, String contentHash, Instant createdAt) {
+            this.id = id;
+            this.modelId = modelId;
+            this.contentHash = contentHash;
+            this.createdAt = createdAt;
+        }
+
+        void start() {
+            status = ReportJobStatus.RUNNING;
+        }
+
+        void complete(long sizeBytes) {
+            this.sizeBytes = sizeBytes;
+            this.finishedAt = Instant.now();
+            this.status = ReportJobStatus.COMPLETED;
+            done.complete(this);
+        }
+
+        void fail(String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.finishedAt = Instant.now();
+            this.status = ReportJobStatus.FAILED;
+            done.complete(this);
+        }
+
+        /** Completes with this job once it is COMPLETED or FAILED. */
+        public CompletableFuture<ReportJob> whenDone() {
+            return done.copy();
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getModelId() {
+            return modelId;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public ReportJobStatus getStatus() {
+            return status;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+    }
+}
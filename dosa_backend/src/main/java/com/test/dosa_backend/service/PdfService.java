@@ -1,84 +1,96 @@
 package com.test.dosa_backend.service;
 
+import com.openhtmltopdf.extend.FSCacheEx;
+import com.openhtmltopdf.extend.FSCacheValue;
+import com.openhtmltopdf.extend.impl.FSDefaultCacheStore;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import com.test.dosa_backend.dto.PdfRequestDto;
-import com.test.dosa_backend.repository.ModelRepository;
-import lombok.RequiredArgsConstructor;
-import org.commonmark.node.Node;
-import org.commonmark.parser.Parser;
-import org.commonmark.renderer.html.HtmlRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 @Service
-@RequiredArgsConstructor
 public class PdfService {
 
+    private static final Logger log = LoggerFactory.getLogger(PdfService.class);
+    private static final String FONT_FAMILY = "NanumGothic";
+    private static final String FONT_PATH = "fonts/NanumGothic.ttf";
+
     private final TemplateEngine templateEngine;
-    private final ModelRepository modelRepository;
+    private final PdfReportContentCache contentCache;
+    // 폰트는 한 번만 읽어 두고, 폰트 메트릭은 렌더링 간에 공유
+    private final byte[] fontBytes;
+    private final FSCacheEx<String, FSCacheValue> fontMetrics = new FSDefaultCacheStore();
+
+    public PdfService(TemplateEngine templateEngine, PdfReportContentCache contentCache) {
+        this.templateEngine = templateEngine;
+        this.contentCache = contentCache;
+        this.fontBytes = loadFont();
+    }
+
+    private static byte[] loadFont() {
+        ClassPathResource fontResource = new ClassPathResource(FONT_PATH);
+        try (InputStream in = fontResource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            log.warn("PDF font {} not found on the classpath; Korean text will not render in reports.", FONT_PATH);
+            return null;
+        }
+    }
+
+    /**
+     * 보고서 HTML 생성. 모델 조회 실패 등은 응답을 쓰기 전에 여기서 드러남
+     * (없는 모델이면 EntityNotFoundException).
+     */
+    public String renderHtml(PdfRequestDto requestDto, String id) {
+        // 모델 정보(제목/개요/이론 HTML)는 캐시에서 조회
+        PdfReportContentCache.ReportContent content = contentCache.get(id);
+
+        // 1. Thymeleaf Context에 데이터 담기
+        Context context = new Context();
+        context.setVariable("modelImage", requestDto.getModelImage());
+        context.setVariable("title", content.title());
+        context.setVariable("overview", content.overview());
+        context.setVariable("theory", content.theoryHtml());
+        context.setVariable("memo", requestDto.getMemo());
+        context.setVariable("chatLogs", requestDto.getChatLogs());
+        context.setVariable("quizs", requestDto.getQuizs());
+
+        // 2. HTML 템플릿을 문자열로 렌더링 (데이터가 채워진 HTML 생성)
+        return templateEngine.process("pdf", context);
+    }
 
-    public byte[] generatePdf(PdfRequestDto requestDto, String id) {
+    /**
+     * HTML -> PDF 변환 결과를 {@code out}에 바로 씀 (전체 PDF를 메모리에 모으지 않음).
+     */
+    public void writePdf(String htmlContent, OutputStream out) {
         try {
-            // 1. Thymeleaf Context에 데이터 담기
-            Context context = new Context();
-            context.setVariable("modelImage", requestDto.getModelImage());
-            context.setVariable("title", modelRepository.findTitleByModelId(id));
-            context.setVariable("overview", modelRepository.findOverviewByModelId(id));
-            context.setVariable("theory", markdownToHtml(modelRepository.findTheoryByModelId(id)));
-            context.setVariable("memo", requestDto.getMemo());
-            context.setVariable("chatLogs", requestDto.getChatLogs());
-            context.setVariable("quizs", requestDto.getQuizs());
-
-            // 2. HTML 템플릿을 문자열로 렌더링 (데이터가 채워진 HTML 생성)
-            String htmlContent = templateEngine.process("pdf", context);
-
-            // 3. HTML -> PDF 변환
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
             PdfRendererBuilder builder = new PdfRendererBuilder();
 
             builder.useFastMode();
+            builder.useCacheStore(PdfRendererBuilder.CacheStore.PDF_FONT_METRICS, fontMetrics);
             builder.withHtmlContent(htmlContent, "http://localhost/");
 
             // 한글 폰트 등록
-            ClassPathResource fontResource = new ClassPathResource("fonts/NanumGothic.ttf");
-            builder.useFont(() -> {
-                try {
-                    return fontResource.getInputStream();
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }, "NanumGothic");
-
-            builder.toStream(os);
-            builder.run(); // 변환 실행
+            if (fontBytes != null) {
+                builder.useFont(() -> new ByteArrayInputStream(fontBytes), FONT_FAMILY);
+            }
 
-            return os.toByteArray(); // 완성된 PDF 파일 데이터 반환
+            builder.toStream(out);
+            builder.run(); // 변환 실행
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("PDF 생성 중 오류 발생", e);
             throw new RuntimeException("PDF 생성 중 오류 발생");
         }
     }
 
-    private String markdownToHtml(String markdown) {
-        // 1. 문자열 형태의 "\n"을 실제 줄바꿈으로 변경
-        String fixed = markdown.replace("\\n", "\n");
-
-        // 2. 리스트(*) 강제 줄바꿈 및 교정
-        fixed = fixed.replaceAll("([^\\n])\\s*\\*\\s*\\*\\*", "$1\n\n* **");
-
-        // 3. ** ** 문법 적용
-        fixed = fixed.replaceAll("\\*\\*\\s*(.*?)\\s*\\*\\*", " **$1** ");
-
-        Parser parser = Parser.builder().build();
-        Node document = parser.parse(fixed);
-        HtmlRenderer renderer = HtmlRenderer.builder().build();
-        return renderer.render(document);
-    }
-
 }
@@ -0,0 +1,133 @@
+package com.test.dosa_backend.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.test.dosa_backend.repository.QuestionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Random question selection without {@code ORDER BY RANDOM()}: question ids per model are kept in memory
+ * as a sorted {@code long[]} and sampled without replacement, with excluded ids masked out through a bitset.
+ * <p>
+ * Id pools are reloaded after {@code app.quiz.sampler.refresh} or on {@link #invalidate}.
+ */
+@Component
+public class QuizSampler {
+
+    private final LoadingCache<String, IdPool> pools;
+
+    public QuizSampler(
+            QuestionRepository questionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.quiz.sampler.refresh:PT10M}") Duration refresh
+    ) {
+        this.pools = Caffeine.newBuilder()
+                .expireAfterWrite(refresh)
+                .recordStats()
+                .build(modelId -> IdPool.of(questionRepository.findIdsByModelId(modelId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, pools, "quiz-id-pools");
+    }
+
+    public List<Long> sample(String modelId, int count, Collection<Long> excludedIds, RandomGenerator random) {
+        return pools.get(modelId).sample(count, excludedIds, random);
+    }
+
+    public void invalidate(String modelId) {
+        pools.invalidate(modelId);
+    }
+
+    public void invalidateAll() {
+        pools.invalidateAll();
+    }
+
+    /**
+     * Immutable sorted id array of one model.
+     */
+    public static final class IdPool {
+
+        private final long[] ids;
+        // IDENTITY ids are usually gap-free per model; then an id's position is a subtraction, not a search.
+        private final boolean contiguous;
+
+        private IdPool(long[] ids) {
+            this.ids = ids;
+            this.contiguous = ids.length > 0 && ids[ids.length - 1] - ids[0] == ids.length - 1;
+        }
+
+        public static IdPool of(Collection<Long> ids) {
+            long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            return new IdPool(sorted);
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        /**
+         * @return up to {@code count} distinct ids not in {@code excludedIds}, in random order
+         */
+        public List<Long> sample(int count, Collection<Long> excludedIds, RandomGenerator random) {
+            int n = ids.length;
+            BitSet taken = new BitSet(n);
+            if (excludedIds != null) {
+                for (Long id : excludedIds) {
+                    if (id == null) continue;
+                    int pos = indexOf(id);
+                    if (pos >= 0) taken.set(pos);
+                }
+            }
+            int available = n - taken.cardinality();
+            int k = Math.min(count, available);
+            if (k <= 0) {
+                return List.of();
+            }
+
+            Long[] out = new Long[k];
+            if (available - k >= n / 2) {
+                // Sparse pick: at least half of all n slots stay free until the last pick, so each random
+                // draw hits a free slot at least half of the time (excluded ids count as taken).
+                for (int picked = 0; picked < k; ) {
+                    int r = random.nextInt(n);
+                    if (!taken.get(r)) {
+                        taken.set(r);
+                        out[picked++] = ids[r];
+                    }
+                }
+            } else {
+                // Dense pick: partial Fisher-Yates over the free positions.
+                int[] free = new int[available];
+                for (int i = taken.nextClearBit(0), j = 0; i < n; i = taken.nextClearBit(i + 1)) {
+                    free[j++] = i;
+                }
+                for (int i = 0; i < k; i++) {
+                    int r = i + random.nextInt(available - i);
+                    int tmp = free[i];
+                    free[i] = free[r];
+                    free[r] = tmp;
+                    out[i] = ids[free[i]];
+                }
+            }
+            return Arrays.asList(out);
+        }
+
+        private int indexOf(long id) {
+            if (contiguous) {
+                long offset = id - ids[0];
+                return (offset >= 0 && offset < ids.length) ? (int) offset : -1;
+            }
+            return Arrays.binarySearch(ids, id);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.test.dosa_backend.service;
 
 import com.test.dosa_backend.domain.Question;
+import com.test.dosa_backend.domain.QuestionOption;
 import com.test.dosa_backend.domain.QuestionType;
 import com.test.dosa_backend.dto.QuizResponse;
 import com.test.dosa_backend.dto.QuizResultResponse;
@@ -11,81 +12,114 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class QuizService {
 
+    private static final int MAX_QUIZ_COUNT = 100;
+
     private final QuestionRepository questionRepository;
+    private final QuizSampler quizSampler;
+    private final AnswerKeyCache answerKeyCache;
 
     // 1. 문제 출제 (정답 숨김 처리)
     @Transactional(readOnly = true)
     public List<QuizResponse> getQuizzes(String modelId, int count, List<Long> excludedIds) {
-        // 빈 리스트 방어 로직 (SQL 에러 방지용 더미 값)
-        if (excludedIds == null || excludedIds.isEmpty()) {
-            excludedIds = List.of(-1L);
+        if (count <= 0 || count > MAX_QUIZ_COUNT) {
+            throw new IllegalArgumentException("count는 1~" + MAX_QUIZ_COUNT + " 사이여야 합니다.");
+        }
+
+        // 메모리의 ID 배열에서 뽑은 뒤, 문제와 보기를 한 번의 쿼리로 조회
+        List<Long> sampledIds = quizSampler.sample(modelId, count, excludedIds, ThreadLocalRandom.current());
+        if (sampledIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Question> byId = new HashMap<>();
+        for (Question q : questionRepository.findAllWithOptionsByIdIn(sampledIds)) {
+            byId.put(q.getId(), q);
         }
 
-        List<Question> questions = questionRepository.findRandomQuestions(modelId, excludedIds, count);
-
-        return questions.stream().map(q -> {
-            // 보기 변환 (주관식은 빈 리스트)
-            List<QuizResponse.OptionDto> options = q.getOptions().stream()
-                    .map(o -> QuizResponse.OptionDto.builder()
-                            .no(o.getOptionNo())
-                            .content(o.getContent())
-                            .build())
-                    .collect(Collectors.toList());
-
-            return QuizResponse.builder()
-                    .questionId(q.getId())
-                    .type(q.getType())
-                    .question(q.getContent())
-                    .options(options)
-                    .build();
-        }).collect(Collectors.toList());
+        // 샘플링 순서 유지 (삭제되어 조회되지 않은 ID는 건너뜀)
+        return sampledIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(q -> {
+                    // 보기 변환 (주관식은 빈 리스트)
+                    List<QuizResponse.OptionDto> options = q.getOptions().stream()
+                            .sorted(Comparator.comparing(QuestionOption::getOptionNo, Comparator.nullsLast(Comparator.naturalOrder())))
+                            .map(o -> QuizResponse.OptionDto.builder()
+                                    .no(o.getOptionNo())
+                                    .content(o.getContent())
+                                    .build())
+                            .collect(Collectors.toList());
+
+                    return QuizResponse.builder()
+                            .questionId(q.getId())
+                            .type(q.getType())
+                            .question(q.getContent())
+                            .options(options)
+                            .build();
+                }).collect(Collectors.toList());
     }
 
-    // 2. 채점 로직
-    @Transactional(readOnly = true)
-    public QuizResultResponse submitQuiz(QuizSubmitRequest request) {
-        List<QuizResultResponse.QuestionResult> results = new ArrayList<>();
+    // 문제 데이터 변경 후 메모리의 문제 ID 목록과 정답 키 갱신
+    public void invalidate(String modelId) {
+        quizSampler.invalidate(modelId);
+        answerKeyCache.invalidate(modelId);
+    }
 
-        for (QuizSubmitRequest.AnswerItem item : request.getAnswers()) {
-            Question question = questionRepository.findById(item.getQuestionId())
-                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 문제 ID"));
+    // 2. 채점 로직 (정답 키 캐시 사용, 캐시 미스 시에도 IN 쿼리 한 번)
+    public QuizResultResponse submitQuiz(String modelId, QuizSubmitRequest request) {
+        List<QuizSubmitRequest.AnswerItem> answers = request.getAnswers() == null ? List.of() : request.getAnswers();
+        List<Long> questionIds = new ArrayList<>(answers.size());
+        for (QuizSubmitRequest.AnswerItem item : answers) {
+            if (item.getQuestionId() == null) {
+                throw new IllegalArgumentException("questionId는 필수입니다.");
+            }
+            questionIds.add(item.getQuestionId());
+        }
+        Map<Long, AnswerKeyCache.AnswerKey> keys = answerKeyCache.lookup(modelId, questionIds);
+
+        List<QuizResultResponse.QuestionResult> results = new ArrayList<>(answers.size());
+        for (QuizSubmitRequest.AnswerItem item : answers) {
+            AnswerKeyCache.AnswerKey key = keys.get(item.getQuestionId());
 
             boolean isCorrect;
             Object userSelected;
             String correctAnswerText;
 
-            if (question.getType() == QuestionType.MULTIPLE_CHOICE) {
+            if (key.type() == QuestionType.MULTIPLE_CHOICE) {
                 // [객관식]
                 int userAns = item.getSelectedOptionNo() != null ? item.getSelectedOptionNo() : 0;
-                isCorrect = (question.getCorrectOptionNo() == userAns);
-                
+                isCorrect = key.correctOptionNo() != null && key.correctOptionNo() == userAns;
+
                 userSelected = userAns;
-                correctAnswerText = String.valueOf(question.getCorrectOptionNo());
+                correctAnswerText = String.valueOf(key.correctOptionNo());
             } else {
                 // [주관식]
                 String userAns = item.getSubjectiveAnswer() != null ? item.getSubjectiveAnswer().trim() : "";
-                String realAns = question.getCorrectShortAnswer();
-                
-                // 공백 제거 및 대소문자 무시 비교
-                isCorrect = realAns.equalsIgnoreCase(userAns);
-                
+
+                // 공백/자모 정규화, 동의어, 허용 오타 범위 내 비교
+                isCorrect = key.shortAnswerMatcher() != null && key.shortAnswerMatcher().matches(userAns);
+
                 userSelected = userAns;
-                correctAnswerText = realAns;
+                correctAnswerText = key.correctShortAnswer();
             }
 
             results.add(QuizResultResponse.QuestionResult.builder()
-                    .questionId(question.getId())
+                    .questionId(key.questionId())
                     .isCorrect(isCorrect)
                     .userSelected(userSelected) // 숫자 or 문자
                     .correctAnswer(correctAnswerText)
-                    .explanation(question.getExplanation())
+                    .explanation(key.explanation())
                     .build());
         }
 
@@ -0,0 +1,141 @@
+package com.test.dosa_backend.service;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.dosa_backend.rag.RetrievalMode;
+import com.test.dosa_backend.rag.VectorStoreRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Short-TTL cache of {@link RagService.RagResult}, so near-identical questions asked within minutes
+ * skip the embeddings call and the vector scan.
+ * <p>
+ * Entries are dropped when an ingest job completes for a document they may cite: entries filtered to
+ * that document and entries that searched all documents. Hit/miss/eviction counts are exported as
+ * the {@code cache.*} meters with {@code cache=rag-results}.
+ * <p>
+ * Each entry records the invalidation generation its retrieval started in and is checked against the
+ * invalidations that affect it on every read, so a result computed across an invalidation is never served,
+ * even if it was stored after the invalidation ran.
+ */
+@Component
+public class RagResultCache {
+
+    private final boolean enabled;
+    private final Cache<Key, Entry> cache;
+    // Bumped on every invalidation
+    private final AtomicLong generation = new AtomicLong();
+    // Generation of the latest invalidation per document, of any document, and of invalidateAll
+    private final ConcurrentHashMap<UUID, Long> documentInvalidatedAt = new ConcurrentHashMap<>();
+    private final AtomicLong anyDocumentInvalidatedAt = new AtomicLong();
+    private final AtomicLong allInvalidatedAt = new AtomicLong();
+
+    public RagResultCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.rag.result-cache.enabled:true}") boolean enabled,
+            // Invalidation is node-local: with several instances, other nodes may serve results up to this old.
+            @Value("${app.rag.result-cache.ttl:PT2M}") Duration ttl,
+            @Value("${app.rag.result-cache.max-entries:2000}") long maxEntries
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(Math.max(0, maxEntries))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "rag-results");
+    }
+
+    /**
+     * @param documentIds normalized document filter ({@code null} = all documents)
+     */
+    public static Key key(String query, List<UUID> documentIds, int topK, String embeddingModel,
+                          RetrievalMode mode, VectorStoreRepository.SearchTuning tuning) {
+        List<UUID> sortedIds = documentIds == null ? null : documentIds.stream().sorted().toList();
+        return new Key(normalizeQuery(query), sortedIds, topK, embeddingModel, mode, tuning);
+    }
+
+    /**
+     * Returns the cached result or computes it. Results that {@code cacheable} rejects (e.g. the
+     * empty fallback after an embeddings failure) are returned but not stored.
+     */
+    public RagService.RagResult get(Key key, Supplier<RagService.RagResult> loader,
+                                    Predicate<RagService.RagResult> cacheable) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Entry hit = cache.getIfPresent(key);
+        if (hit != null) {
+            if (isCurrent(key, hit.generation())) {
+                return hit.result();
+            }
+            cache.asMap().remove(key, hit);
+        }
+        long before = generation.get();
+        RagService.RagResult result = loader.get();
+        if (result != null && cacheable.test(result) && isCurrent(key, before)) {
+            cache.put(key, new Entry(result, before));
+        }
+        return result;
+    }
+
+    /**
+     * Drops every entry that may cite {@code documentId}.
+     */
+    public void invalidateDocument(UUID documentId) {
+        long g = generation.incrementAndGet();
+        documentInvalidatedAt.merge(documentId, g, Math::max);
+        anyDocumentInvalidatedAt.accumulateAndGet(g, Math::max);
+        cache.asMap().keySet().removeIf(k -> k.documentIds() == null || k.documentIds().contains(documentId));
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt.accumulateAndGet(generation.incrementAndGet(), Math::max);
+        cache.invalidateAll();
+    }
+
+    // True when no invalidation affecting the key ran after the retrieval that started at loadedAt.
+    private boolean isCurrent(Key key, long loadedAt) {
+        long invalidatedAt = allInvalidatedAt.get();
+        if (key.documentIds() == null) {
+            invalidatedAt = Math.max(invalidatedAt, anyDocumentInvalidatedAt.get());
+        } else {
+            for (UUID documentId : key.documentIds()) {
+                invalidatedAt = Math.max(invalidatedAt, documentInvalidatedAt.getOrDefault(documentId, 0L));
+            }
+        }
+        return invalidatedAt <= loadedAt;
+    }
+
+    static String normalizeQuery(String query) {
+        String s = Normalizer.normalize(Objects.requireNonNullElse(query, ""), Normalizer.Form.NFKC);
+        return s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(RagService.RagResult result, long generation) {}
+
+    public record Key(
+            String query,
+            List<UUID> documentIds,
+            int topK,
+            String embeddingModel,
+            RetrievalMode mode,
+            VectorStoreRepository.SearchTuning tuning
+    ) {}
+}
@@ -2,15 +2,26 @@ package com.test.dosa_backend.service;
 
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import com.test.dosa_backend.config.RetrievalProperties;
 import com.test.dosa_backend.openai.OpenAiClient;
 import com.test.dosa_backend.openai.OpenAiException;
 import com.test.dosa_backend.repository.DocumentChunkRepository;
+import com.test.dosa_backend.rag.LexicalSearchRepository;
+import com.test.dosa_backend.rag.ReciprocalRankFusion;
+import com.test.dosa_backend.rag.RetrievalMode;
 import com.test.dosa_backend.rag.VectorStoreRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class RagService {
@@ -20,54 +31,267 @@ public class RagService {
     private final OpenAiClient openAiClient;
     private final VectorStoreRepository vectorStoreRepository;
     private final DocumentChunkRepository documentChunkRepository;
+    private final LexicalSearchRepository lexicalSearchRepository;
+    private final RetrievalProperties retrievalProperties;
+    private final Executor retrievalExecutor;
+    private final RagResultCache ragResultCache;
     private final ObjectMapper mapper = new ObjectMapper();
 
     public RagService(OpenAiClient openAiClient,
                       VectorStoreRepository vectorStoreRepository,
-                      DocumentChunkRepository documentChunkRepository) {
+                      DocumentChunkRepository documentChunkRepository,
+                      LexicalSearchRepository lexicalSearchRepository,
+                      RetrievalProperties retrievalProperties,
+                      @Qualifier("retrievalExecutor") Executor retrievalExecutor,
+                      RagResultCache ragResultCache) {
         this.openAiClient = openAiClient;
         this.vectorStoreRepository = vectorStoreRepository;
         this.documentChunkRepository = documentChunkRepository;
+        this.lexicalSearchRepository = lexicalSearchRepository;
+        this.retrievalProperties = retrievalProperties;
+        this.retrievalExecutor = retrievalExecutor;
+        this.ragResultCache = ragResultCache;
     }
 
     public RagResult retrieve(String query, int topK, List<UUID> documentIds) {
+        return retrieve(query, topK, documentIds, RetrievalOptions.DEFAULT);
+    }
+
+    /**
+     * Retrieval for the reactive chat path. This is not non-blocking: the query embedding call
+     * ({@link OpenAiClient#embedTexts}, which blocks on WebClient) and the JDBC search run as before,
+     * only moved off the caller's thread onto the bounded elastic scheduler.
+     */
+    public Mono<RagResult> retrieveReactive(String query, int topK, List<UUID> documentIds, RetrievalOptions options) {
+        return Mono.fromCallable(() -> retrieve(query, topK, documentIds, options))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * @param options {@code null} is the same as {@link RetrievalOptions#DEFAULT}
+     */
+    public RagResult retrieve(String query, int topK, List<UUID> documentIds, RetrievalOptions options) {
         if (query == null || query.isBlank()) {
             return emptyResult();
         }
         List<UUID> normalizedDocumentIds = normalizeDocumentIds(documentIds);
+        VectorStoreRepository.SearchTuning tuning = options == null ? null : options.tuning();
+        RetrievalMode effectiveMode = (options != null && options.mode() != null) ? options.mode() : defaultMode();
 
-        // If nothing has been ingested yet, don't call embeddings at all.
-        // This avoids "Embeddings API call failed" for "chat-only" tests.
-        if (documentChunkRepository.count() == 0) {
-            return emptyResult();
-        }
+        RagResultCache.Key key = RagResultCache.key(query, normalizedDocumentIds, topK,
+                openAiClient.embeddingModel(), effectiveMode, tuning);
+        // Only complete results are cached; skipped or degraded retrievals are retried next time.
+        return ragResultCache.get(key, () -> {
+            // If nothing has been ingested yet, don't call embeddings at all.
+            // This avoids "Embeddings API call failed" for "chat-only" tests.
+            if (documentChunkRepository.count() == 0) {
+                return emptyResult();
+            }
+            return effectiveMode == RetrievalMode.HYBRID
+                    ? retrieveHybrid(query, topK, normalizedDocumentIds, tuning)
+                    : retrieveVector(query, topK, normalizedDocumentIds, tuning);
+        }, r -> r.stats() != null && !r.stats().degraded());
+    }
 
+    private RagResult retrieveVector(String query, int topK, List<UUID> normalizedDocumentIds,
+                                     VectorStoreRepository.SearchTuning tuning) {
         try {
+            long embedStart = System.nanoTime();
             float[] qEmb = openAiClient.embedTexts(List.of(query)).get(0);
-            List<VectorStoreRepository.SearchHit> hits = vectorStoreRepository.similaritySearch(qEmb, topK, normalizedDocumentIds);
-            List<Citation> citations = new ArrayList<>();
-            StringBuilder ctx = new StringBuilder();
-
-            for (int i = 0; i < hits.size(); i++) {
-                VectorStoreRepository.SearchHit h = hits.get(i);
-                String tag = "S" + (i + 1);
-                String pages = extractPageRange(h.metaJson());
-                citations.add(new Citation(tag, h.documentId(), h.documentTitle(), pages, h.chunkId(), h.distance()));
-                ctx.append("[").append(tag).append("] ")
-                        .append(h.documentTitle())
-                        .append(pages.isBlank() ? "" : " (p." + pages + ")")
-                        .append("\n")
-                        .append(h.contentText())
-                        .append("\n\n");
-            }
-
-            return new RagResult(ctx.toString().trim(), citations);
+            long searchStart = System.nanoTime();
+            List<VectorStoreRepository.SearchHit> hits = (tuning == null)
+                    ? vectorStoreRepository.similaritySearch(qEmb, topK, normalizedDocumentIds)
+                    : vectorStoreRepository.similaritySearch(qEmb, topK, normalizedDocumentIds, tuning);
+            long searchEnd = System.nanoTime();
+            log.debug("RAG retrieve - embed={}ms, search={}ms, hits={}",
+                    (searchStart - embedStart) / 1_000_000, (searchEnd - searchStart) / 1_000_000, hits.size());
+            RetrievalStats stats = new RetrievalStats(RetrievalMode.VECTOR,
+                    millis(searchStart - embedStart), millis(searchEnd - searchStart), 0.0, hits.size(), 0, false);
+            return toResult(hits, stats);
         } catch (OpenAiException e) {
             log.warn("RAG embeddings failed; returning empty context.", e);
             return emptyResult();
         }
     }
 
+    /**
+     * Runs full-text search on {@code retrievalExecutor} while the query is embedded and searched on the
+     * caller's thread, then fuses both rankings with RRF. If the embeddings call fails, the lexical
+     * ranking is used alone; if the executor is saturated or the full-text search fails, the vector ranking is.
+     */
+    private RagResult retrieveHybrid(String query, int topK, List<UUID> documentIds,
+                                     VectorStoreRepository.SearchTuning tuning) {
+        int limit = topK <= 0 ? 5 : topK;
+        int candidates = limit * retrievalProperties.getCandidateMultiplier();
+
+        CompletableFuture<Timed<List<LexicalSearchRepository.LexicalHit>>> lexicalLeg;
+        try {
+            lexicalLeg = CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                List<LexicalSearchRepository.LexicalHit> hits = lexicalSearchRepository.search(query, candidates, documentIds);
+                return new Timed<>(hits, System.nanoTime() - start);
+            }, retrievalExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Retrieval executor is saturated; hybrid retrieval continues with vector results only.");
+            lexicalLeg = null;
+        }
+
+        long embedStart = System.nanoTime();
+        float[] qEmb = null;
+        List<VectorStoreRepository.SearchHit> vectorHits = List.of();
+        long embedNanos = 0;
+        long vectorNanos = 0;
+        boolean degraded = false;
+        try {
+            qEmb = openAiClient.embedTexts(List.of(query)).get(0);
+            long searchStart = System.nanoTime();
+            embedNanos = searchStart - embedStart;
+            vectorHits = (tuning == null)
+                    ? vectorStoreRepository.similaritySearch(qEmb, candidates, documentIds)
+                    : vectorStoreRepository.similaritySearch(qEmb, candidates, documentIds, tuning);
+            vectorNanos = System.nanoTime() - searchStart;
+        } catch (OpenAiException e) {
+            log.warn("RAG embeddings failed; hybrid retrieval continues with lexical results only.", e);
+            degraded = true;
+        }
+
+        List<LexicalSearchRepository.LexicalHit> lexicalHits = List.of();
+        long lexicalNanos = 0;
+        if (lexicalLeg == null) {
+            degraded = true;
+        } else {
+            try {
+                Timed<List<LexicalSearchRepository.LexicalHit>> lexical = lexicalLeg.join();
+                lexicalHits = lexical.value();
+                lexicalNanos = lexical.nanos();
+            } catch (CompletionException e) {
+                log.warn("RAG lexical search failed; hybrid retrieval continues with vector results only.", e.getCause());
+                degraded = true;
+            }
+        }
+
+        Map<UUID, VectorStoreRepository.SearchHit> byId = new HashMap<>();
+        List<UUID> vectorRanking = new ArrayList<>(vectorHits.size());
+        for (VectorStoreRepository.SearchHit h : vectorHits) {
+            byId.put(h.chunkId(), h);
+            vectorRanking.add(h.chunkId());
+        }
+        List<UUID> lexicalRanking = new ArrayList<>(lexicalHits.size());
+        Map<UUID, LexicalSearchRepository.LexicalHit> lexicalOnly = new HashMap<>();
+        for (LexicalSearchRepository.LexicalHit h : lexicalHits) {
+            lexicalRanking.add(h.chunkId());
+            if (!byId.containsKey(h.chunkId())) {
+                lexicalOnly.put(h.chunkId(), h);
+            }
+        }
+
+        List<ReciprocalRankFusion.Fused> fused = ReciprocalRankFusion.fuse(
+                List.of(vectorRanking, lexicalRanking), retrievalProperties.getRrfK(), limit);
+
+        // Citations report cosine distance, so look it up for lexical-only hits that made the cut.
+        List<UUID> missing = new ArrayList<>();
+        for (ReciprocalRankFusion.Fused f : fused) {
+            if (lexicalOnly.containsKey(f.chunkId())) missing.add(f.chunkId());
+        }
+        Map<UUID, Double> distances = (qEmb == null || missing.isEmpty())
+                ? Map.of()
+                : vectorStoreRepository.distances(qEmb, missing);
+
+        List<VectorStoreRepository.SearchHit> hits = new ArrayList<>(fused.size());
+        for (ReciprocalRankFusion.Fused f : fused) {
+            VectorStoreRepository.SearchHit h = byId.get(f.chunkId());
+            if (h == null) {
+                LexicalSearchRepository.LexicalHit l = lexicalOnly.get(f.chunkId());
+                // 1.0 = orthogonal; used when the chunk has no embedding or the query could not be embedded.
+                h = new VectorStoreRepository.SearchHit(l.chunkId(), l.documentId(), l.chunkIndex(), l.contentText(),
+                        l.metaJson(), l.documentTitle(), distances.getOrDefault(l.chunkId(), 1.0));
+            }
+            hits.add(h);
+        }
+
+        RetrievalStats stats = new RetrievalStats(RetrievalMode.HYBRID, millis(embedNanos), millis(vectorNanos),
+                millis(lexicalNanos), vectorHits.size(), lexicalHits.size(), degraded);
+        log.debug("RAG hybrid retrieve - embed={}ms, vector={}ms ({} hits), lexical={}ms ({} hits), fused={}",
+                embedNanos / 1_000_000, vectorNanos / 1_000_000, vectorHits.size(),
+                lexicalNanos / 1_000_000, lexicalHits.size(), hits.size());
+        return toResult(hits, stats);
+    }
+
+    private RagResult toResult(List<VectorStoreRepository.SearchHit> hits, RetrievalStats stats) {
+        List<Citation> citations = new ArrayList<>();
+        StringBuilder ctx = new StringBuilder();
+
+        for (int i = 0; i < hits.size(); i++) {
+            VectorStoreRepository.SearchHit h = hits.get(i);
+            String tag = "S" + (i + 1);
+            String pages = extractPageRange(h.metaJson());
+            citations.add(new Citation(tag, h.documentId(), h.documentTitle(), pages, h.chunkId(), h.distance()));
+            ctx.append("[").append(tag).append("] ")
+                    .append(h.documentTitle())
+                    .append(pages.isBlank() ? "" : " (p." + pages + ")")
+                    .append("\n")
+                    .append(h.contentText())
+                    .append("\n\n");
+        }
+
+        return new RagResult(ctx.toString().trim(), citations, stats);
+    }
+
+    private RetrievalMode defaultMode() {
+        RetrievalMode mode = RetrievalMode.parse(retrievalProperties.getDefaultMode());
+        return mode == null ? RetrievalMode.VECTOR : mode;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Compares ANN search against an exact scan for randomly sampled stored embeddings and
+     * reports recall@k together with the average latency of both paths.
+     */
+    public IndexEvaluation evaluateIndex(int sampleSize, int topK, VectorStoreRepository.SearchTuning tuning) {
+        int effectiveSample = Math.max(1, Math.min(sampleSize, 200));
+        int effectiveTopK = topK <= 0 ? 5 : topK;
+        List<float[]> queries = vectorStoreRepository.sampleEmbeddings(effectiveSample);
+        if (queries.isEmpty()) {
+            return new IndexEvaluation(0, effectiveTopK, 0.0, 0.0, 0.0);
+        }
+        int efSearch = tuning == null ? 0 : tuning.efSearch();
+        int probes = tuning == null ? 0 : tuning.probes();
+        VectorStoreRepository.SearchTuning exact = new VectorStoreRepository.SearchTuning(0, 0, true);
+
+        long annNanos = 0;
+        long exactNanos = 0;
+        int found = 0;
+        int expected = 0;
+        for (float[] q : queries) {
+            long t0 = System.nanoTime();
+            List<VectorStoreRepository.SearchHit> ann = vectorStoreRepository.similaritySearch(q, effectiveTopK, null,
+                    new VectorStoreRepository.SearchTuning(efSearch, probes, false));
+            long t1 = System.nanoTime();
+            List<VectorStoreRepository.SearchHit> truth = vectorStoreRepository.similaritySearch(q, effectiveTopK, null, exact);
+            long t2 = System.nanoTime();
+            annNanos += t1 - t0;
+            exactNanos += t2 - t1;
+
+            Set<UUID> annIds = new HashSet<>();
+            for (VectorStoreRepository.SearchHit h : ann) annIds.add(h.chunkId());
+            for (VectorStoreRepository.SearchHit h : truth) {
+                if (annIds.contains(h.chunkId())) found++;
+            }
+            expected += truth.size();
+        }
+        double recall = expected == 0 ? 0.0 : (double) found / expected;
+        return new IndexEvaluation(
+                queries.size(),
+                effectiveTopK,
+                recall,
+                annNanos / 1_000_000.0 / queries.size(),
+                exactNanos / 1_000_000.0 / queries.size()
+        );
+    }
+
     private String extractPageRange(String metaJson) {
         try {
             JsonNode n = mapper.readTree(metaJson);
@@ -81,7 +305,44 @@ public class RagService {
         return "";
     }
 
-    public record RagResult(String contextText, List<Citation> citations) {}
+    /**
+     * @param tuning per-query ANN knobs; {@code null} uses app.rag.vector-index defaults
+     * @param mode   {@code null} uses app.rag.retrieval.default-mode
+     */
+    public record RetrievalOptions(VectorStoreRepository.SearchTuning tuning, RetrievalMode mode) {
+        public static final RetrievalOptions DEFAULT = new RetrievalOptions(null, null);
+
+        public static RetrievalOptions of(RetrievalMode mode) {
+            return new RetrievalOptions(null, mode);
+        }
+    }
+
+    /**
+     * @param stats how the result was retrieved; {@code null} when retrieval was skipped
+     */
+    public record RagResult(String contextText, List<Citation> citations, RetrievalStats stats) {
+        public RagResult(String contextText, List<Citation> citations) {
+            this(contextText, citations, null);
+        }
+    }
+
+    /**
+     * Per-leg latency of one retrieval. Legs that did not run report 0; {@code degraded} means a hybrid
+     * leg failed and the result comes from the other leg alone.
+     */
+    public record RetrievalStats(
+            RetrievalMode mode,
+            double embedMs,
+            double vectorMs,
+            double lexicalMs,
+            int vectorHits,
+            int lexicalHits,
+            boolean degraded
+    ) {}
+
+    private record Timed<T>(T value, long nanos) {}
+
+    public record IndexEvaluation(int sampleSize, int topK, double recallAtK, double annAvgMs, double exactAvgMs) {}
 
     public record Citation(
             String tag,
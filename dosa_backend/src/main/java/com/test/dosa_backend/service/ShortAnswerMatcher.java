@@ -0,0 +1,199 @@
+package com.test.dosa_backend.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Short-answer grader for one question, compiled once when its answer key is loaded.
+ * <p>
+ * The correct answer and each accepted synonym are normalized up front: NFKC, lower case, whitespace and
+ * separators ({@code - _ · ・}) removed, Hangul syllables decomposed into jamo. A submission matches when its
+ * normalized form is within a small edit distance of an accepted answer. Distance is counted in jamo for Korean
+ * ({@code 크랭크샤프트} / {@code 크랭크샤푸트} is one edit) but the budget in syllables, so short terms that differ
+ * by one jamo ({@code 압축} / {@code 압출}) are never confused. Digits must match exactly, so {@code 4행정} never
+ * accepts {@code 5행정}.
+ */
+public final class ShortAnswerMatcher {
+
+    // One allowed edit per this many syllables/letters (not jamo), capped by maxEdits.
+    private static final int CHARS_PER_EDIT = 5;
+
+    private static final int HANGUL_BASE = 0xAC00;
+    private static final int HANGUL_LAST = 0xD7A3;
+    private static final int JUNG_COUNT = 21;
+    private static final int JONG_COUNT = 28;
+
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][64]);
+
+    private final char[][] accepted;
+    private final int[] budgets;
+
+    private ShortAnswerMatcher(char[][] accepted, int[] budgets) {
+        this.accepted = accepted;
+        this.budgets = budgets;
+    }
+
+    /**
+     * @param acceptedAnswers extra accepted answers separated by {@code |} or new lines; may be {@code null}
+     * @param maxEdits        upper bound on allowed edits (one per five syllables); 0 grades by normalized equality only
+     */
+    public static ShortAnswerMatcher compile(String correctAnswer, String acceptedAnswers, int maxEdits) {
+        List<String> answers = new ArrayList<>();
+        answers.add(correctAnswer);
+        if (acceptedAnswers != null) {
+            int start = 0;
+            for (int i = 0; i <= acceptedAnswers.length(); i++) {
+                if (i == acceptedAnswers.length() || acceptedAnswers.charAt(i) == '|' || acceptedAnswers.charAt(i) == '\n') {
+                    answers.add(acceptedAnswers.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        }
+
+        List<char[]> normalized = new ArrayList<>(answers.size());
+        List<Integer> budgetList = new ArrayList<>(answers.size());
+        for (String answer : answers) {
+            char[] chars = normalize(answer);
+            if (chars.length > 0) {
+                normalized.add(chars);
+                budgetList.add(Math.min(Math.max(0, maxEdits), letterCount(answer) / CHARS_PER_EDIT));
+            }
+        }
+        char[][] acceptedChars = normalized.toArray(new char[0][]);
+        int[] budgets = new int[acceptedChars.length];
+        for (int i = 0; i < budgets.length; i++) {
+            budgets[i] = budgetList.get(i);
+        }
+        return new ShortAnswerMatcher(acceptedChars, budgets);
+    }
+
+    public boolean matches(String answer) {
+        if (accepted.length == 0) {
+            return false;
+        }
+        char[] input = normalize(answer);
+        if (input.length == 0) {
+            return false;
+        }
+        for (int i = 0; i < accepted.length; i++) {
+            char[] expected = accepted[i];
+            int budget = budgets[i];
+            if (Math.abs(expected.length - input.length) > budget || !sameDigits(expected, input)) {
+                continue;
+            }
+            if (distance(expected, input, budget) <= budget) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static char[] normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new char[0];
+        }
+        String s = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        // A syllable expands to at most 3 jamo.
+        char[] out = new char[s.length() * 3];
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= HANGUL_BASE && c <= HANGUL_LAST) {
+                int index = c - HANGUL_BASE;
+                int jong = index % JONG_COUNT;
+                out[n++] = (char) (0x1100 + index / (JUNG_COUNT * JONG_COUNT));
+                out[n++] = (char) (0x1161 + (index % (JUNG_COUNT * JONG_COUNT)) / JONG_COUNT);
+                if (jong != 0) out[n++] = (char) (0x11A7 + jong);
+            } else if (!isSeparator(c)) {
+                out[n++] = c;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    // Syllables and letters left after normalization, before jamo decomposition.
+    private static int letterCount(String text) {
+        String s = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (!isSeparator(s.charAt(i))) n++;
+        }
+        return n;
+    }
+
+    private static boolean isSeparator(char c) {
+        if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.DASH_PUNCTUATION
+                || type == Character.CONNECTOR_PUNCTUATION
+                || c == '·' || c == '・';
+    }
+
+    private static boolean sameDigits(char[] a, char[] b) {
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < a.length && !Character.isDigit(a[i])) i++;
+            while (j < b.length && !Character.isDigit(b[j])) j++;
+            if (i == a.length || j == b.length) {
+                return i == a.length && j == b.length;
+            }
+            if (a[i++] != b[j++]) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Levenshtein distance restricted to the diagonal band of width {@code 2 * max + 1}, reusing per-thread rows.
+     *
+     * @return the distance, or {@code max + 1} once it is known to exceed {@code max}
+     */
+    static int distance(char[] a, char[] b, int max) {
+        if (Math.abs(a.length - b.length) > max) {
+            return max + 1;
+        }
+        if (max == 0) {
+            return Arrays.equals(a, b) ? 0 : 1;
+        }
+        int[][] rows = ROWS.get();
+        if (rows[0].length <= b.length) {
+            rows[0] = new int[b.length + 1];
+            rows[1] = new int[b.length + 1];
+        }
+        int[] prev = rows[0];
+        int[] curr = rows[1];
+        int outside = max + 1;
+
+        for (int j = 0; j <= Math.min(b.length, max); j++) prev[j] = j;
+        if (max + 1 <= b.length) prev[max + 1] = outside;
+
+        for (int i = 1; i <= a.length; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(b.length, i + max);
+            curr[from - 1] = from == 1 ? Math.min(i, outside) : outside;
+            int rowMin = curr[from - 1];
+            char ca = a[i - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b[j - 1] ? 0 : 1;
+                int value = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                value = Math.min(value, outside);
+                curr[j] = value;
+                if (value < rowMin) rowMin = value;
+            }
+            if (to < b.length) curr[to + 1] = outside;
+            if (rowMin > max) {
+                return outside;
+            }
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return Math.min(prev[b.length], outside);
+    }
+}
@@ -41,5 +41,18 @@ public class StorageService {
         return new StoredFile(target.toString(), filename, Files.size(target));
     }
 
+    /**
+     * Location of a rendered report PDF, named by the SHA-256 of its content; the directory is created if needed.
+     */
+    public Path reportArtifact(String contentHash) throws IOException {
+        return reportDir().resolve(contentHash + ".pdf");
+    }
+
+    public Path reportDir() throws IOException {
+        Path reportDir = baseDir.resolve("reports");
+        Files.createDirectories(reportDir);
+        return reportDir;
+    }
+
     public record StoredFile(String path, String filename, long sizeBytes) {}
 }
@@ -0,0 +1,28 @@
+package com.test.dosa_backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of UTF-8 text as 64 lowercase hex chars; identical to PostgreSQL
+ * {@code encode(sha256(convert_to(text, 'UTF8')), 'hex')}.
+ */
+public final class ContentHash {
+
+    private ContentHash() {}
+
+    public static String sha256Hex(String text) {
+        return sha256Hex((text == null ? "" : text).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
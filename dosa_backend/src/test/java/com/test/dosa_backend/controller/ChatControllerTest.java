@@ -6,13 +6,17 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -22,9 +26,14 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.test.dosa_backend.dto.ChatDtos;
+import com.test.dosa_backend.rag.RetrievalMode;
 import com.test.dosa_backend.service.ChatService;
+import com.test.dosa_backend.service.RagService;
+
+import reactor.core.publisher.Flux;
 
 @WebMvcTest(ChatController.class)
 class ChatControllerTest {
@@ -43,7 +52,7 @@ class ChatControllerTest {
                 true,
                 "V4_ENGINE_PROMPT"
         );
-        when(chatService.userMessage(anyString(), any(), any(), any(), any(), any()))
+        when(chatService.userMessage(anyString(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(new ChatService.ChatTurnResult("ok", List.of(), applied));
 
         String body = """
@@ -83,7 +92,7 @@ class ChatControllerTest {
         @SuppressWarnings("unchecked")
         ArgumentCaptor<List<ChatDtos.HistoryMessage>> historyCaptor = (ArgumentCaptor<List<ChatDtos.HistoryMessage>>) (ArgumentCaptor<?>) ArgumentCaptor.forClass(List.class);
 
-        verify(chatService).userMessage(eq("hello"), eq(true), any(), imagesCaptor.capture(), metaCaptor.capture(), historyCaptor.capture());
+        verify(chatService).userMessage(eq("hello"), eq(true), any(), imagesCaptor.capture(), metaCaptor.capture(), historyCaptor.capture(), any());
 
         assertThat(imagesCaptor.getValue()).containsExactly("https://example.com/a.png");
         assertThat(metaCaptor.getValue()).containsEntry("userId", "u-1").containsEntry("client", "swagger");
@@ -97,9 +106,53 @@ class ChatControllerTest {
         assertThat(historyCaptor.getValue().get(0).role()).isEqualTo("user");
     }
 
+    @Test
+    void retrieval_mode_is_passed_explicitly_and_metadata_is_left_untouched() throws Exception {
+        when(chatService.userMessage(anyString(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new ChatService.ChatTurnResult("ok", List.of(), null));
+
+        mvc.perform(post("/v1/chat/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"message":"hello","retrievalMode":"hybrid","extraMetadata":{"retrievalMode":"note"}}
+                                """))
+                .andExpect(status().isOk());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> metaCaptor = (ArgumentCaptor<Map<String, Object>>) (ArgumentCaptor<?>) ArgumentCaptor.forClass(Map.class);
+        verify(chatService).userMessage(eq("hello"), any(), any(), any(), metaCaptor.capture(), any(), eq(RetrievalMode.HYBRID));
+        assertThat(metaCaptor.getValue()).containsExactlyEntriesOf(Map.of("retrievalMode", "note"));
+    }
+
+    @Test
+    void message_stream_sends_citations_first_then_deltas_and_done() throws Exception {
+        RagService.Citation citation = new RagService.Citation("S1", UUID.randomUUID(), "manual", "3", UUID.randomUUID(), 0.2);
+        when(chatService.streamUserMessage(anyString(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new ChatService.ChatStream(List.of(citation), null, Flux.just("크랭크", "샤프트")));
+
+        MvcResult result = mvc.perform(post("/v1/chat/messages:stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content("{\"message\":\"hello\",\"useRag\":true}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body.indexOf("event:citations")).isGreaterThanOrEqualTo(0);
+        assertThat(body.indexOf("event:citations")).isLessThan(body.indexOf("event:delta"));
+        assertThat(body).contains("\"tag\":\"S1\"");
+        assertThat(body).contains("크랭크").contains("샤프트");
+        assertThat(body).contains("event:done");
+    }
+
     @Test
     void message_multipart_accepts_uploaded_image_metadata_and_history_json() throws Exception {
-        when(chatService.userMessage(anyString(), any(), any(), any(), any(), any()))
+        when(chatService.userMessage(anyString(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(new ChatService.ChatTurnResult("ok", List.of()));
 
         MockMultipartFile message = new MockMultipartFile(
@@ -139,7 +192,7 @@ class ChatControllerTest {
         @SuppressWarnings("unchecked")
         ArgumentCaptor<List<String>> imagesCaptor = (ArgumentCaptor<List<String>>) (ArgumentCaptor<?>) ArgumentCaptor.forClass(List.class);
 
-        verify(chatService).userMessage(eq("hello"), eq(true), any(), imagesCaptor.capture(), any(), any());
+        verify(chatService).userMessage(eq("hello"), eq(true), any(), imagesCaptor.capture(), any(), any(), any());
 
         assertThat(imagesCaptor.getValue()).hasSize(1);
         assertThat(imagesCaptor.getValue().get(0)).startsWith("data:image/png;base64,");
@@ -0,0 +1,94 @@
+package com.test.dosa_backend.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.test.dosa_backend.service.ExplodeAnimationService;
+import com.test.dosa_backend.service.ModelService;
+import com.test.dosa_backend.service.ModelViewerCache;
+
+@WebMvcTest(ModelController.class)
+class ModelControllerTest {
+
+    private static final ModelViewerCache.ViewerPayload PAYLOAD = new ModelViewerCache.ViewerPayload(
+            new ModelViewerCache.Representation(
+                    "{\"model\":{\"modelId\":\"v4_engine\"},\"parts\":[],\"nodes\":[]}".getBytes(StandardCharsets.UTF_8),
+                    "\"abc123\""),
+            new ModelViewerCache.Representation(new byte[] {'D', 'S', 'N', '1'}, "\"bin456\""),
+            null);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private ModelService modelService;
+
+    @MockitoBean
+    private ModelViewerCache modelViewerCache;
+
+    @MockitoBean
+    private ExplodeAnimationService explodeAnimationService;
+
+    @Test
+    void viewer_returns_cached_json_with_etag() throws Exception {
+        when(modelViewerCache.get("v4_engine")).thenReturn(PAYLOAD);
+
+        mvc.perform(get("/api/api/models/v4_engine/viewer"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(jsonPath("$.model.modelId").value("v4_engine"));
+    }
+
+    @Test
+    void viewer_returns_304_when_etag_matches() throws Exception {
+        when(modelViewerCache.get("v4_engine")).thenReturn(PAYLOAD);
+
+        mvc.perform(get("/api/api/models/v4_engine/viewer").header(HttpHeaders.IF_NONE_MATCH, "W/\"old\", \"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void viewer_serves_binary_when_octet_stream_is_accepted() throws Exception {
+        when(modelViewerCache.get("v4_engine")).thenReturn(PAYLOAD);
+
+        mvc.perform(get("/api/api/models/v4_engine/viewer").accept(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"bin456\""))
+                .andExpect(content().bytes(new byte[] {'D', 'S', 'N', '1'}));
+    }
+
+    @Test
+    void viewer_defaults_to_json_for_wildcard_accept() throws Exception {
+        when(modelViewerCache.get("v4_engine")).thenReturn(PAYLOAD);
+
+        mvc.perform(get("/api/api/models/v4_engine/viewer").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void invalidate_drops_cached_payload() throws Exception {
+        mvc.perform(post("/api/models/v4_engine/viewer:invalidate"))
+                .andExpect(status().isNoContent());
+
+        verify(modelViewerCache).invalidate("v4_engine");
+    }
+}
@@ -0,0 +1,152 @@
+package com.test.dosa_backend.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.test.dosa_backend.service.PdfRenderBusyException;
+import com.test.dosa_backend.service.PdfRenderLimiter;
+import com.test.dosa_backend.service.PdfReportContentCache;
+import com.test.dosa_backend.service.PdfService;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+@WebMvcTest(PdfController.class)
+class PdfControllerTest {
+
+    private static final byte[] PDF = {'%', 'P', 'D', 'F'};
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private PdfService pdfService;
+
+    @MockitoBean
+    private PdfReportContentCache pdfReportContentCache;
+
+    @MockitoBean
+    private PdfRenderLimiter pdfRenderLimiter;
+
+    @Test
+    void pdf_is_streamed_and_the_render_slot_released() throws Exception {
+        when(pdfService.renderHtml(any(), eq("v4_engine"))).thenReturn("<html/>");
+        doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write(PDF);
+            return null;
+        }).when(pdfService).writePdf(eq("<html/>"), any());
+
+        MvcResult result = mvc.perform(post("/api/models/v4_engine/pdf").param("type", "download")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"memo\":\"메모\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"learning_report.pdf\""))
+                .andExpect(content().bytes(PDF));
+        verify(pdfRenderLimiter).acquire();
+        verify(pdfRenderLimiter).release();
+    }
+
+    @Test
+    void saturated_renderer_returns_429() throws Exception {
+        doThrow(new PdfRenderBusyException("busy")).when(pdfRenderLimiter).acquire();
+
+        mvc.perform(post("/api/models/v4_engine/pdf").param("type", "preview")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.code").value("PDF_RENDER_BUSY"));
+        verify(pdfService, never()).renderHtml(any(), any());
+    }
+
+    @Test
+    void render_slot_is_released_when_the_model_is_missing() throws Exception {
+        when(pdfService.renderHtml(any(), eq("missing"))).thenThrow(new EntityNotFoundException("모델 없음"));
+
+        mvc.perform(post("/api/models/missing/pdf").param("type", "preview")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isInternalServerError());
+        verify(pdfRenderLimiter).release();
+    }
+
+    @Test
+    void render_slot_is_released_once_when_the_async_request_times_out() throws Exception {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch finishRender = new CountDownLatch(1);
+        when(pdfService.renderHtml(any(), eq("v4_engine"))).thenReturn("<html/>");
+        doAnswer(inv -> {
+            rendering.countDown();
+            // A render stuck in native/IO code does not react to the interrupt sent on timeout.
+            awaitUninterruptibly(finishRender);
+            return null;
+        }).when(pdfService).writePdf(eq("<html/>"), any());
+
+        MvcResult result = mvc.perform(post("/api/models/v4_engine/pdf").param("type", "preview")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        rendering.await(5, TimeUnit.SECONDS);
+
+        // The container times the request out while the PDF is still rendering.
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onComplete(new AsyncEvent(asyncContext));
+        }
+        verify(pdfRenderLimiter).release();
+
+        // The render finishing later must not release the slot a second time.
+        finishRender.countDown();
+        Thread.sleep(100);
+        verify(pdfRenderLimiter, times(1)).release();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
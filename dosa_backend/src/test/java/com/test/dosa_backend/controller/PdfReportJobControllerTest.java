@@ -0,0 +1,43 @@
+package com.test.dosa_backend.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.test.dosa_backend.service.PdfReportJobNotFoundException;
+import com.test.dosa_backend.service.PdfReportJobService;
+
+@WebMvcTest(PdfReportJobController.class)
+class PdfReportJobControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private PdfReportJobService pdfReportJobService;
+
+    @Test
+    void unknown_job_is_404_on_every_endpoint() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(pdfReportJobService.getJob(any())).thenThrow(new PdfReportJobNotFoundException("job not found"));
+
+        mvc.perform(get("/api/pdf/jobs/{jobId}", jobId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PDF_REPORT_JOB_NOT_FOUND"));
+        mvc.perform(get("/api/pdf/jobs/{jobId}/file", jobId))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/pdf/jobs/{jobId}/events", jobId).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,64 @@
+package com.test.dosa_backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.test.dosa_backend.rag.IndexBuildInProgressException;
+import com.test.dosa_backend.rag.VectorStoreRepository;
+import com.test.dosa_backend.service.RagService;
+
+class RagIndexControllerTest {
+
+    @Nested
+    @WebMvcTest(RagIndexController.class)
+    class Disabled {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @MockitoBean
+        private RagService ragService;
+
+        @MockitoBean
+        private VectorStoreRepository vectorStoreRepository;
+
+        @Test
+        void admin_endpoints_are_not_mapped_by_default() {
+            assertThat(context.getBeansOfType(RagIndexController.class)).isEmpty();
+        }
+    }
+
+    @Nested
+    @WebMvcTest(controllers = RagIndexController.class, properties = "app.rag.vector-index.admin-endpoints.enabled=true")
+    class Enabled {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @MockitoBean
+        private RagService ragService;
+
+        @MockitoBean
+        private VectorStoreRepository vectorStoreRepository;
+
+        @Test
+        void concurrent_rebuild_is_409() throws Exception {
+            when(vectorStoreRepository.rebuildIndex()).thenThrow(new IndexBuildInProgressException("busy"));
+
+            mvc.perform(post("/v1/rag/index:rebuild"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("INDEX_BUILD_IN_PROGRESS"));
+        }
+    }
+}
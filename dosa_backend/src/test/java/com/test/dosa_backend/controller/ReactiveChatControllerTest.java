@@ -0,0 +1,57 @@
+package com.test.dosa_backend.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.test.dosa_backend.rag.RetrievalMode;
+import com.test.dosa_backend.service.ChatService;
+
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(controllers = ReactiveChatController.class, properties = "app.chat.execution-mode=reactive")
+class ReactiveChatControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private ChatService chatService;
+
+    @Test
+    void message_releases_the_servlet_thread_until_the_answer_is_ready() throws Exception {
+        when(chatService.userMessageReactive(anyString(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Mono.just(new ChatService.ChatTurnResult("ok", List.of())));
+
+        MvcResult async = mvc.perform(post("/v1/chat/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"message":"hello","retrievalMode":"hybrid"}
+                                """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.answer").value("ok"));
+
+        verify(chatService).userMessageReactive(eq("hello"), any(), any(), any(), any(), any(), eq(RetrievalMode.HYBRID));
+    }
+}
@@ -0,0 +1,65 @@
+package com.test.dosa_backend.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.repository.AssemblyNodeRow;
+
+class NodeBinaryFormatTest {
+
+    @Test
+    void encode_writes_string_table_indexes_and_float_columns() {
+        List<AssemblyNodeRow> nodes = List.of(
+                row("root", "block", null, 1.5),
+                row("piston_1", "piston", "root", 2.0),
+                row("piston_2", "piston", "root", 3.0)
+        );
+        byte[] header = "{\"model\":{}}".getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buf = ByteBuffer.wrap(NodeBinaryFormat.encode(header, nodes)).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertThat(buf.getInt()).isEqualTo(NodeBinaryFormat.MAGIC);
+        int n = buf.getInt();
+        int stringCount = buf.getInt();
+        int headerLength = buf.getInt();
+        assertThat(n).isEqualTo(3);
+        assertThat(stringCount).isEqualTo(5);
+        byte[] headerOut = new byte[headerLength];
+        buf.get(headerOut);
+        assertThat(headerOut).isEqualTo(header);
+        align(buf);
+
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            byte[] s = new byte[buf.getShort() & 0xFFFF];
+            buf.get(s);
+            strings[i] = new String(s, StandardCharsets.UTF_8);
+        }
+        align(buf);
+        assertThat(strings).containsExactly("root", "piston_1", "piston_2", "block", "piston");
+
+        int[] partIndex = {buf.getInt(), buf.getInt(), buf.getInt()};
+        int[] parentIndex = {buf.getInt(), buf.getInt(), buf.getInt()};
+        assertThat(partIndex).containsExactly(3, 4, 4);
+        assertThat(parentIndex).containsExactly(-1, 0, 0);
+
+        float[] posX = {buf.getFloat(), buf.getFloat(), buf.getFloat()};
+        assertThat(posX).containsExactly(1.5f, 2.0f, 3.0f);
+        assertThat(buf.remaining()).isEqualTo((NodeBinaryFormat.COLUMNS.size() - 1) * n * Float.BYTES);
+    }
+
+    private static void align(ByteBuffer buf) {
+        buf.position((buf.position() + 3) & ~3);
+    }
+
+    private static AssemblyNodeRow row(String nodeId, String partId, String parentId, double posX) {
+        return new AssemblyNodeRow(nodeId, partId, parentId, posX, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0,
+                1.0, 1.0, 1.0, 0.0, 1.0, 0.0, 1.0, 0.0, 1.0);
+    }
+}
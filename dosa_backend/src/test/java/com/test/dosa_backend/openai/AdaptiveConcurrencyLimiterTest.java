@@ -0,0 +1,31 @@
+package com.test.dosa_backend.openai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void a_burst_of_rate_limits_from_requests_in_flight_halves_once() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 16);
+        long sentAt = limiter.generation();
+
+        // Eight requests sent together all come back 429.
+        for (int i = 0; i < 8; i++) {
+            limiter.onRateLimited(sentAt);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void rate_limits_after_the_decrease_halve_again() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 16);
+
+        limiter.onRateLimited(limiter.generation());
+        limiter.onRateLimited(limiter.generation());
+
+        assertThat(limiter.limit()).isEqualTo(4);
+    }
+}
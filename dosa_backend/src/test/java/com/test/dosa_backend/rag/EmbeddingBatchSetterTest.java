@@ -0,0 +1,46 @@
+package com.test.dosa_backend.rag;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.pgvector.PGvector;
+
+class EmbeddingBatchSetterTest {
+
+    @Test
+    void binds_chunk_id_vector_and_model_for_each_row() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<VectorStoreRepository.ChunkEmbedding> rows = List.of(
+                new VectorStoreRepository.ChunkEmbedding(first, new float[]{0.1f, -0.2f, 0.3f}),
+                new VectorStoreRepository.ChunkEmbedding(second, new float[]{1f, 0f, -1f})
+        );
+        VectorStoreRepository.EmbeddingBatchSetter setter =
+                new VectorStoreRepository.EmbeddingBatchSetter(rows, "text-embedding-3-small");
+
+        assertThat(setter.getBatchSize()).isEqualTo(2);
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.setValues(ps, 1);
+
+        ArgumentCaptor<Object> vector = ArgumentCaptor.forClass(Object.class);
+        verify(ps).setObject(1, second);
+        verify(ps).setObject(eq(2), vector.capture());
+        verify(ps).setString(3, "text-embedding-3-small");
+        verifyNoMoreInteractions(ps);
+
+        // Bound as a pgvector parameter, not as text spliced into the SQL.
+        assertThat(vector.getValue()).isInstanceOf(PGvector.class);
+        assertThat(((PGvector) vector.getValue()).toArray()).containsExactly(1f, 0f, -1f);
+    }
+}
@@ -0,0 +1,72 @@
+package com.test.dosa_backend.rag;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.config.EmbeddingIngestProperties;
+import com.test.dosa_backend.openai.OpenAiClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingBatcherTest {
+
+    @Test
+    void plan_splits_by_token_budget() {
+        // 1000 ASCII bytes ~= 500 estimated tokens each
+        List<String> texts = Collections.nCopies(5, "a".repeat(1000));
+
+        List<EmbeddingBatcher.Range> batches = EmbeddingBatcher.plan(texts, 1000, 2048);
+
+        assertThat(batches).extracting(EmbeddingBatcher.Range::size).containsExactly(2, 2, 1);
+        assertThat(batches.get(0).estimatedTokens()).isEqualTo(1000);
+        assertThat(batches.get(2).end()).isEqualTo(5);
+    }
+
+    @Test
+    void plan_respects_max_inputs() {
+        List<String> texts = Collections.nCopies(7, "짧은 문장");
+
+        List<EmbeddingBatcher.Range> batches = EmbeddingBatcher.plan(texts, 300_000, 3);
+
+        assertThat(batches).extracting(EmbeddingBatcher.Range::size).containsExactly(3, 3, 1);
+    }
+
+    @Test
+    void plan_gives_oversized_input_its_own_batch() {
+        List<String> texts = List.of("a", "b".repeat(10_000), "c");
+
+        List<EmbeddingBatcher.Range> batches = EmbeddingBatcher.plan(texts, 100, 2048);
+
+        assertThat(batches).extracting(EmbeddingBatcher.Range::size).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    void estimateTokens_counts_hangul_higher_than_ascii() {
+        assertThat(EmbeddingBatcher.estimateTokens("가나다라"))
+                .isGreaterThan(EmbeddingBatcher.estimateTokens("abcd"));
+    }
+
+    @Test
+    void default_limits_keep_short_chunk_batches_within_the_response_buffer() {
+        EmbeddingIngestProperties properties = new EmbeddingIngestProperties();
+        // Short chunks: the token budget alone would allow 2048 inputs per request.
+        List<String> texts = Collections.nCopies(5000, "짧은 청크");
+
+        for (int dimensions : new int[] {0, 256, 1536, 3072}) {
+            List<EmbeddingBatcher.Range> batches = EmbeddingBatcher.plan(
+                    texts, properties.getMaxTokensPerRequest(), properties.maxInputsPerRequest(dimensions));
+
+            int dims = dimensions > 0 ? dimensions : EmbeddingIngestProperties.DEFAULT_DIMENSIONS_ASSUMED;
+            for (EmbeddingBatcher.Range batch : batches) {
+                long responseBytes = (long) batch.size()
+                        * (dims * EmbeddingIngestProperties.RESPONSE_BYTES_PER_DIMENSION + EmbeddingIngestProperties.RESPONSE_BYTES_PER_ITEM);
+                assertThat(responseBytes).as("dimensions=%d", dimensions).isLessThan(OpenAiClient.MAX_RESPONSE_BYTES);
+            }
+            assertThat(batches.stream().mapToInt(EmbeddingBatcher.Range::size).sum()).isEqualTo(5000);
+        }
+        assertThat(properties.maxInputsPerRequest(1536)).isBetween(100, EmbeddingIngestProperties.API_MAX_INPUTS_PER_REQUEST);
+        assertThat(properties.maxInputsPerRequest(256)).isGreaterThan(properties.maxInputsPerRequest(1536));
+    }
+}
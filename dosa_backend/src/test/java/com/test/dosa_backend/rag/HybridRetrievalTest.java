@@ -0,0 +1,33 @@
+package com.test.dosa_backend.rag;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HybridRetrievalTest {
+
+    @Test
+    void fuse_ranks_items_found_by_both_retrievers_first() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID d = UUID.randomUUID();
+
+        List<ReciprocalRankFusion.Fused> fused = ReciprocalRankFusion.fuse(
+                List.of(List.of(a, b, c), List.of(d, b)), 60, 3);
+
+        assertThat(fused).extracting(ReciprocalRankFusion.Fused::chunkId).containsExactly(b, a, d);
+        assertThat(fused.get(0).score()).isEqualTo(1.0 / 62 + 1.0 / 62);
+    }
+
+    @Test
+    void to_ts_query_builds_prefix_terms_and_drops_operators() {
+        assertThat(LexicalSearchRepository.toTsQuery("V4_Engine 피스톤의 역할은?"))
+                .isEqualTo("(v4:* & engine:*) | 피스톤:* | 역할:*");
+        assertThat(LexicalSearchRepository.toTsQuery("a & | ! :*")).isNull();
+        assertThat(LexicalSearchRepository.toTsQuery("  ")).isNull();
+    }
+}
@@ -0,0 +1,103 @@
+package com.test.dosa_backend.rag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.config.ChunkingProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextChunkerTest {
+
+    private final TokenCounter tokenCounter = new TokenCounter();
+
+    private TextChunker chunker(int maxTokens, int overlapTokens) {
+        ChunkingProperties props = new ChunkingProperties();
+        props.setMaxTokens(maxTokens);
+        props.setOverlapTokens(overlapTokens);
+        SentenceChunkingStrategy sentence = new SentenceChunkingStrategy(tokenCounter, props);
+        return new TextChunker(
+                List.of(
+                        new FixedWindowChunkingStrategy(),
+                        new TokenBudgetChunkingStrategy(tokenCounter, props),
+                        sentence,
+                        new HeadingAwareChunkingStrategy(tokenCounter, props, sentence)
+                ),
+                props,
+                tokenCounter
+        );
+    }
+
+    private static List<PdfTextExtractor.PageText> pages(String... texts) {
+        List<PdfTextExtractor.PageText> out = new ArrayList<>();
+        for (int i = 0; i < texts.length; i++) {
+            out.add(new PdfTextExtractor.PageText(i + 1, texts[i]));
+        }
+        return out;
+    }
+
+    @Test
+    void default_strategy_keeps_fixed_window_behavior() {
+        List<TextChunker.TextChunk> chunks = chunker(400, 50).chunk(pages("짧은 문서입니다."));
+
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).text()).isEqualTo("[page 1]\n짧은 문서입니다.");
+        assertThat(chunks.get(0).metaJson()).contains("\"strategy\":\"fixed\"");
+    }
+
+    @Test
+    void sentence_strategy_never_ends_chunk_mid_sentence() {
+        String sentence = "기어박스는 동력을 전달하는 핵심 부품이며 정기적인 윤활이 필요하다.";
+        String page = String.join(" ", Collections.nCopies(30, sentence));
+
+        List<TextChunker.TextChunk> chunks = chunker(120, 0).chunk(pages(page), "sentence");
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        for (TextChunker.TextChunk c : chunks) {
+            assertThat(c.text()).endsWith("필요하다.");
+            assertThat(tokenCounter.count(c.text())).isLessThanOrEqualTo(120 + 10);
+        }
+    }
+
+    @Test
+    void token_strategy_respects_budget() {
+        String page = "엔진 블록 구성 요소 설명 문장\n".repeat(200);
+
+        List<TextChunker.TextChunk> chunks = chunker(100, 20).chunk(pages(page), "token");
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(chunks).allSatisfy(c -> assertThat(tokenCounter.count(c.text())).isLessThanOrEqualTo(100 + 10));
+        assertThat(chunks).extracting(TextChunker.TextChunk::chunkIndex).startsWith(0, 1);
+    }
+
+    @Test
+    void heading_strategy_starts_new_chunk_per_section() {
+        String page = "1. 개요\n드론은 네 개의 모터로 비행한다.\n\n2. 구성\n프레임과 배터리로 구성된다.";
+
+        List<TextChunker.TextChunk> chunks = chunker(400, 50).chunk(pages(page), "heading");
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).metaJson()).contains("\"section\":\"1. 개요\"");
+        assertThat(chunks.get(1).text()).contains("2. 구성").doesNotContain("개요");
+    }
+
+    @Test
+    void numbered_heading_needs_a_word_after_the_number() {
+        assertThat(HeadingAwareChunkingStrategy.isHeading("1.2 연료 계통")).isTrue();
+        assertThat(HeadingAwareChunkingStrategy.isHeading("3 Engine")).isTrue();
+        // Table rows and measurements
+        assertThat(HeadingAwareChunkingStrategy.isHeading("2 3.5 kW")).isFalse();
+        assertThat(HeadingAwareChunkingStrategy.isHeading("12 1500 rpm")).isFalse();
+    }
+
+    @Test
+    void unknown_strategy_is_rejected() {
+        assertThatThrownBy(() -> chunker(400, 50).normalizeStrategy("semantic"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown chunking strategy");
+    }
+}
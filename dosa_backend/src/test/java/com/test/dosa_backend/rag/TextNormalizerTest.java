@@ -0,0 +1,45 @@
+package com.test.dosa_backend.rag;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizerTest {
+
+    // The regex chain TextNormalizer replaced; kept as the reference behavior.
+    private static String regexNormalize(String s) {
+        s = s.replace("\r\n", "\n").replace("\r", "\n");
+        s = s.replace("\u0000", "");
+        s = s.replaceAll("[\\x00-\\x08\\x0B\\x0E-\\x1F\\x7F]", " ");
+        s = s.replaceAll("[\t\f]", " ");
+        s = s.replaceAll("[ ]{2,}", " ");
+        s = s.replaceAll("\n{3,}", "\n\n");
+        return s.trim();
+    }
+
+    @Test
+    void normalize_collapses_whitespace_and_controls() {
+        String raw = "  제1장\r\n\r\n\r\n개요\t\t설명\u0000문장\u0007  끝 \n\n\n\n";
+
+        assertThat(TextNormalizer.normalize(raw)).isEqualTo("제1장\n\n개요 설명문장 끝");
+    }
+
+    @Test
+    void normalize_matches_previous_regex_chain() {
+        char[] alphabet = {'a', '가', ' ', ' ', '\n', '\n', '\r', '\t', '\f', '\u0000', '\u0001', '\u000B', '\u001F', '\u007F'};
+        Random random = new Random(42);
+        for (int round = 0; round < 2_000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(40);
+            for (int i = 0; i < len; i++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String input = sb.toString();
+            assertThat(TextNormalizer.normalize(input))
+                    .as("input=%s", input.chars().mapToObj(Integer::toHexString).toList())
+                    .isEqualTo(regexNormalize(input));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.test.dosa_backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.test.dosa_backend.dto.ModelResponseDto;
+import com.test.dosa_backend.dto.NodeInfoDto;
+import com.test.dosa_backend.service.ModelService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(ModelService.class)
+class ModelViewerQueryCountTest {
+
+    private static final int NODE_COUNT = 200;
+    private static final int PART_COUNT = 20;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ModelService modelService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        em.createNativeQuery("INSERT INTO model (model_id, title, created_at, updated_at) VALUES ('v4_engine', 'V4 Engine', ?1, ?1)")
+                .setParameter(1, now).executeUpdate();
+        for (int p = 0; p < PART_COUNT; p++) {
+            em.createNativeQuery("INSERT INTO part (part_id, model_id, display_name_ko, created_at, updated_at) " +
+                            "VALUES (?1, 'v4_engine', ?2, ?3, ?3)")
+                    .setParameter(1, "part_" + p).setParameter(2, "부품 " + p).setParameter(3, now).executeUpdate();
+        }
+        // A chain of parents so every node but the root has a parent to resolve.
+        for (int n = 0; n < NODE_COUNT; n++) {
+            em.createNativeQuery("INSERT INTO assembly_node (node_id, part_id, model_id, parent_node_id, " +
+                            "posx, posy, posz, quatx, quaty, quatz, quatw, scalex, scaley, scalez, " +
+                            "explode_dirx, explode_diry, explode_dirz, explode_distance, explode_start, explode_duration, " +
+                            "created_at, updated_at) " +
+                            "VALUES (?1, ?2, 'v4_engine', ?3, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 0, 1, 0, 1, 0, 1, ?4, ?4)")
+                    .setParameter(1, "node_" + n)
+                    .setParameter(2, "part_" + (n % PART_COUNT))
+                    .setParameter(3, n == 0 ? null : "node_" + (n - 1))
+                    .setParameter(4, now)
+                    .executeUpdate();
+        }
+        em.flush();
+        em.clear();
+
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void viewer_load_uses_one_query_each_for_model_parts_and_nodes() {
+        ModelResponseDto detail = modelService.getModelDetail("v4_engine");
+
+        assertThat(detail.getParts()).hasSize(PART_COUNT);
+        assertThat(detail.getNodes()).hasSize(NODE_COUNT);
+        NodeInfoDto second = detail.getNodes().stream().filter(n -> n.getNodeId().equals("node_1")).findFirst().orElseThrow();
+        assertThat(second.getParentNodeId()).isEqualTo("node_0");
+        assertThat(second.getPartId()).isEqualTo("part_1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
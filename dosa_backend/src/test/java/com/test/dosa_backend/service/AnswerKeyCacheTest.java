@@ -0,0 +1,87 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.domain.QuestionType;
+import com.test.dosa_backend.repository.AnswerKeyRow;
+import com.test.dosa_backend.repository.QuestionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnswerKeyCacheTest {
+
+    private QuestionRepository questionRepository;
+    private AnswerKeyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        questionRepository = mock(QuestionRepository.class);
+        cache = new AnswerKeyCache(questionRepository, new SimpleMeterRegistry(), Duration.ofMinutes(10), 2);
+    }
+
+    @Test
+    void hot_model_is_graded_without_further_queries() {
+        when(questionRepository.findAnswerKeysByModelId("m1")).thenReturn(List.of(
+                new AnswerKeyRow(1L, "m1", QuestionType.MULTIPLE_CHOICE, 3, null, null, "exp1"),
+                new AnswerKeyRow(2L, "m1", QuestionType.SHORT_ANSWER, null, "  Piston ", "plunger", "exp2")));
+
+        cache.lookup("m1", List.of(1L, 2L));
+        Map<Long, AnswerKeyCache.AnswerKey> keys = cache.lookup("m1", List.of(2L));
+
+        assertThat(keys.get(2L).shortAnswerMatcher().matches("PLUNGER")).isTrue();
+        assertThat(keys.get(1L).shortAnswerMatcher()).isNull();
+        assertThat(keys.get(1L).correctOptionNo()).isEqualTo(3);
+        verify(questionRepository, times(1)).findAnswerKeysByModelId("m1");
+        verify(questionRepository, never()).findAnswerKeysByIdIn(any());
+    }
+
+    @Test
+    void ids_missing_from_the_cached_model_are_loaded_in_one_query() {
+        when(questionRepository.findAnswerKeysByModelId("m1")).thenReturn(List.of(
+                new AnswerKeyRow(1L, "m1", QuestionType.MULTIPLE_CHOICE, 3, null, null, null)));
+        when(questionRepository.findAnswerKeysByIdIn(List.of(5L))).thenReturn(List.of(
+                new AnswerKeyRow(5L, "m1", QuestionType.MULTIPLE_CHOICE, 2, null, null, null)));
+
+        Map<Long, AnswerKeyCache.AnswerKey> keys = cache.lookup("m1", List.of(1L, 5L));
+
+        assertThat(keys).containsKeys(1L, 5L);
+        // A question added to the model since the load refreshes the cached keys.
+        cache.lookup("m1", List.of(1L));
+        verify(questionRepository, times(2)).findAnswerKeysByModelId("m1");
+    }
+
+    @Test
+    void repeated_missing_ids_are_queried_once() {
+        when(questionRepository.findAnswerKeysByModelId("m1")).thenReturn(List.of());
+        when(questionRepository.findAnswerKeysByIdIn(List.of(5L))).thenReturn(List.of(
+                new AnswerKeyRow(5L, "m2", QuestionType.MULTIPLE_CHOICE, 2, null, null, null)));
+
+        Map<Long, AnswerKeyCache.AnswerKey> keys = cache.lookup("m1", List.of(5L, 5L));
+
+        assertThat(keys).containsKey(5L);
+        verify(questionRepository).findAnswerKeysByIdIn(List.of(5L));
+    }
+
+    @Test
+    void unknown_question_is_rejected() {
+        when(questionRepository.findAnswerKeysByModelId("m1")).thenReturn(List.of());
+        when(questionRepository.findAnswerKeysByIdIn(List.of(9L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> cache.lookup("m1", List.of(9L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.repository.AssemblyNodeRow;
+
+class AssemblyHierarchyTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    void of_sorts_parents_before_children() {
+        AssemblyHierarchy h = AssemblyHierarchy.of(List.of(
+                node("bolt", "cover", 0, 0, 0),
+                node("cover", "block", 0, 0, 0),
+                node("block", null, 0, 0, 0)
+        ));
+
+        assertThat(h.nodeIds()).containsExactly("block", "cover", "bolt");
+        assertThat(h.parentIndexes()).containsExactly(-1, 0, 1);
+    }
+
+    @Test
+    void of_breaks_parent_cycles_instead_of_dropping_nodes() {
+        AssemblyHierarchy h = AssemblyHierarchy.of(List.of(
+                node("a", "b", 0, 0, 0),
+                node("b", "a", 0, 0, 0)
+        ));
+
+        assertThat(h.nodeIds()).containsExactlyInAnyOrder("a", "b");
+        assertThat(h.parentIndexes()).containsExactly(-1, 0);
+    }
+
+    @Test
+    void world_matrices_compose_parent_rotation_and_child_explode_offset() {
+        // Parent rotated 90 degrees about Z at (10, 0, 0); child at local (1, 0, 0) explodes along local +X by 2.
+        double s = Math.sqrt(0.5);
+        AssemblyHierarchy h = AssemblyHierarchy.of(List.of(
+                new AssemblyNodeRow("child", "p", "parent", 1.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0,
+                        1.0, 1.0, 1.0, 1.0, 0.0, 0.0, 2.0, 0.0, 1.0),
+                new AssemblyNodeRow("parent", "p", null, 10.0, 0.0, 0.0, 0.0, 0.0, s, s,
+                        1.0, 1.0, 1.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0)
+        ));
+
+        double[] assembled = h.worldMatrices(0.0);
+        // child translation = parent.pos + R(90z) * (1, 0, 0) = (10, 1, 0)
+        assertThat(assembled[16 + 12]).isCloseTo(10.0, within(EPS));
+        assertThat(assembled[16 + 13]).isCloseTo(1.0, within(EPS));
+
+        double[] half = h.worldMatrices(0.5);
+        // offset 2 * 0.5 = 1 along local X, rotated to world +Y
+        assertThat(half[16 + 12]).isCloseTo(10.0, within(EPS));
+        assertThat(half[16 + 13]).isCloseTo(2.0, within(EPS));
+        assertThat(half[16 + 15]).isEqualTo(1.0);
+    }
+
+    @Test
+    void progress_clamps_and_handles_instant_steps() {
+        assertThat(AssemblyHierarchy.progress(-1, 0, 1)).isZero();
+        assertThat(AssemblyHierarchy.progress(0.25, 0, 0.5)).isEqualTo(0.5);
+        assertThat(AssemblyHierarchy.progress(2, 0, 1)).isEqualTo(1.0);
+        assertThat(AssemblyHierarchy.progress(0.5, 0.5, 0)).isEqualTo(1.0);
+    }
+
+    private static AssemblyNodeRow node(String id, String parent, double x, double y, double z) {
+        return new AssemblyNodeRow(id, "part", parent, x, y, z, 0.0, 0.0, 0.0, 1.0,
+                1.0, 1.0, 1.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0);
+    }
+}
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -47,7 +48,7 @@ class ChatServiceTest {
 
         UUID docId = UUID.randomUUID();
         RagService.Citation citation = new RagService.Citation("S1", docId, "doc", "1", UUID.randomUUID(), 0.1);
-        when(ragService.retrieve(anyString(), anyInt(), anyList()))
+        when(ragService.retrieve(anyString(), anyInt(), anyList(), eq(RagService.RetrievalOptions.DEFAULT)))
                 .thenReturn(new RagService.RagResult("[S1] context", List.of(citation)));
         when(openAiClient.generateResponse(anyString(), anyString(), anyList(), anyInt()))
                 .thenReturn("assistant answer");
@@ -66,7 +67,8 @@ class ChatServiceTest {
                         "model", Map.of("modelId", "v4_engine", "title", "V4 Engine"),
                         "parts", List.of(Map.of("partId", "CRANKSHAFT"), Map.of("partId", "PISTON"))
                 ),
-                history
+                history,
+                null
         );
 
         ArgumentCaptor<String> instructionsCaptor = ArgumentCaptor.forClass(String.class);
@@ -127,6 +129,7 @@ class ChatServiceTest {
                 List.of(),
                 List.of(),
                 null,
+                null,
                 null
         );
 
@@ -169,6 +172,7 @@ class ChatServiceTest {
                 List.of(),
                 List.of(),
                 null,
+                null,
                 null
         );
 
@@ -214,6 +218,7 @@ class ChatServiceTest {
                         "model", Map.of("modelId", "v4_engine", "title", "V4 Engine Assembly"),
                         "parts", List.of(Map.of("partId", "CRANKSHAFT", "materialType", "METAL_STEEL_MACHINED"))
                 ),
+                null,
                 null
         );
 
@@ -251,7 +256,7 @@ class ChatServiceTest {
         when(crankshaft.getSummary()).thenReturn("엔진의 중심 축");
 
         when(partRepository.findAllById(anyList())).thenReturn(List.of(crankshaft));
-        when(ragService.retrieve(anyString(), anyInt(), any())).thenReturn(new RagService.RagResult("", List.of()));
+        when(ragService.retrieve(anyString(), anyInt(), any(), eq(RagService.RetrievalOptions.DEFAULT))).thenReturn(new RagService.RagResult("", List.of()));
         when(openAiClient.generateResponse(anyString(), anyString(), anyList(), anyInt()))
                 .thenReturn("assistant answer");
 
@@ -275,13 +280,14 @@ class ChatServiceTest {
                 List.of(
                         new ChatDtos.HistoryMessage("user", "이전 질문"),
                         new ChatDtos.HistoryMessage("assistant", "이전 답변")
-                )
+                ),
+                null
         );
 
         ArgumentCaptor<String> ragQueryCaptor = ArgumentCaptor.forClass(String.class);
         @SuppressWarnings("unchecked")
         ArgumentCaptor<List<UUID>> docIdsCaptor = (ArgumentCaptor<List<UUID>>) (ArgumentCaptor<?>) ArgumentCaptor.forClass(List.class);
-        verify(ragService).retrieve(ragQueryCaptor.capture(), anyInt(), docIdsCaptor.capture());
+        verify(ragService).retrieve(ragQueryCaptor.capture(), anyInt(), docIdsCaptor.capture(), eq(RagService.RetrievalOptions.DEFAULT));
 
         assertThat(docIdsCaptor.getValue()).isNull();
         assertThat(ragQueryCaptor.getValue()).contains("User question");
@@ -0,0 +1,76 @@
+package com.test.dosa_backend.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.domain.DocumentChunk;
+import com.test.dosa_backend.rag.TextChunker;
+import com.test.dosa_backend.repository.DocumentChunkBulkWriter;
+import com.test.dosa_backend.util.ContentHash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkDiffTest {
+
+    private static TextChunker.TextChunk chunk(int index, String text) {
+        return new TextChunker.TextChunk(index, text, "{\"startPage\":" + (index + 1) + "}");
+    }
+
+    private static DocumentChunkBulkWriter.ExistingChunk stored(UUID id, String text, boolean embedded) {
+        return new DocumentChunkBulkWriter.ExistingChunk(id, ContentHash.sha256Hex(text), embedded);
+    }
+
+    @Test
+    void unchanged_chunks_keep_their_ids_and_changed_ones_are_reembedded() {
+        UUID keep = UUID.randomUUID();
+        UUID changed = UUID.randomUUID();
+
+        ChunkDiff diff = ChunkDiff.compute(
+                null,
+                List.of(chunk(0, "inserted page"), chunk(1, "same text"), chunk(2, "edited text")),
+                List.of(stored(keep, "same text", true), stored(changed, "old text", true)),
+                Instant.now()
+        );
+
+        assertThat(diff.reused()).extracting(DocumentChunk::getId).containsExactly(keep);
+        assertThat(diff.reused().get(0).getChunkIndex()).isEqualTo(1);
+        assertThat(diff.inserted()).extracting(DocumentChunk::getContentText).containsExactly("inserted page", "edited text");
+        assertThat(diff.staleIds()).containsExactly(changed);
+    }
+
+    @Test
+    void duplicate_texts_reuse_each_stored_copy_once() {
+        UUID first = UUID.randomUUID();
+
+        ChunkDiff diff = ChunkDiff.compute(
+                null,
+                List.of(chunk(0, "boilerplate"), chunk(1, "boilerplate")),
+                List.of(stored(first, "boilerplate", true)),
+                Instant.now()
+        );
+
+        assertThat(diff.reused()).extracting(DocumentChunk::getId).containsExactly(first);
+        assertThat(diff.inserted()).hasSize(1);
+        assertThat(diff.staleIds()).isEmpty();
+    }
+
+    @Test
+    void chunks_without_current_embedding_keep_their_row_and_are_reembedded() {
+        UUID unembedded = UUID.randomUUID();
+
+        ChunkDiff diff = ChunkDiff.compute(
+                null,
+                List.of(chunk(0, "same text"), chunk(1, "new text")),
+                List.of(stored(unembedded, "same text", false)),
+                Instant.now()
+        );
+
+        assertThat(diff.reused()).isEmpty();
+        assertThat(diff.reembed()).extracting(DocumentChunk::getId).containsExactly(unembedded);
+        assertThat(diff.toEmbed()).extracting(DocumentChunk::getContentText).containsExactly("same text", "new text");
+        assertThat(diff.staleIds()).isEmpty();
+    }
+}
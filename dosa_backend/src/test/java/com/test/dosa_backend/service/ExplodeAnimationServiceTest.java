@@ -0,0 +1,46 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.repository.AssemblyNodeRow;
+
+class ExplodeAnimationServiceTest {
+
+    @Test
+    void sample_limit_scales_with_node_count() {
+        ModelViewerCache cache = mock(ModelViewerCache.class);
+        when(cache.get("engine")).thenReturn(new ModelViewerCache.ViewerPayload(null, null, hierarchy(50)));
+        ExplodeAnimationService service = new ExplodeAnimationService(cache, 120, 1000);
+
+        // 20 samples x 50 nodes = 1000 matrices: at the limit
+        assertThat(service.sample("engine", samples(20)).getFrames()).hasSize(20);
+
+        // 21 x 50 = 1050: below max-samples, but over max-matrices
+        assertThatThrownBy(() -> service.sample("engine", samples(21)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("max 1000");
+    }
+
+    private static List<Double> samples(int n) {
+        List<Double> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(i / (double) n);
+        return out;
+    }
+
+    private static AssemblyHierarchy hierarchy(int nodes) {
+        List<AssemblyNodeRow> rows = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            rows.add(new AssemblyNodeRow("n" + i, "part", i == 0 ? null : "n0", 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0,
+                    1.0, 1.0, 1.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0));
+        }
+        return AssemblyHierarchy.of(rows);
+    }
+}
@@ -0,0 +1,59 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.dto.ModelInfoDto;
+import com.test.dosa_backend.repository.ModelRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+
+class PdfReportContentCacheTest {
+
+    private final ModelRepository modelRepository = mock(ModelRepository.class);
+    private final PdfReportContentCache cache =
+            new PdfReportContentCache(modelRepository, new SimpleMeterRegistry(), 10, Duration.ZERO);
+
+    @Test
+    void content_is_loaded_once_per_model_until_invalidated() {
+        when(modelRepository.findInfoByModelId("v4_engine")).thenReturn(Optional.of(ModelInfoDto.builder()
+                .modelId("v4_engine").title("V4 엔진").overview("개요").theory("# 원리\\n**흡입** 행정").build()));
+
+        PdfReportContentCache.ReportContent content = cache.get("v4_engine");
+        cache.get("v4_engine");
+
+        assertThat(content.title()).isEqualTo("V4 엔진");
+        assertThat(content.theoryHtml()).contains("<h1>원리</h1>").contains("<strong>흡입</strong>");
+        verify(modelRepository, times(1)).findInfoByModelId("v4_engine");
+
+        cache.invalidate("v4_engine");
+        cache.get("v4_engine");
+        verify(modelRepository, times(2)).findInfoByModelId("v4_engine");
+    }
+
+    @Test
+    void unknown_model_is_not_found() {
+        when(modelRepository.findInfoByModelId("missing")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cache.get("missing")).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void markdown_list_items_are_split_onto_their_own_lines() {
+        String html = PdfReportContentCache.markdownToHtml("구성 * **피스톤** 왕복 * **크랭크** 회전");
+
+        assertThat(html).contains("<p>구성</p>\n<ul>");
+        assertThat(html).contains("<strong>피스톤</strong>").contains("<strong>크랭크</strong>");
+        assertThat(html.split("<li>", -1)).hasSize(3);
+    }
+}
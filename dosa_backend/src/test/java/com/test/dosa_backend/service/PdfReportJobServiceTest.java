@@ -0,0 +1,190 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.test.dosa_backend.dto.PdfRequestDto;
+
+class PdfReportJobServiceTest {
+
+    private static final byte[] PDF = {'%', 'P', 'D', 'F'};
+
+    @TempDir
+    Path storageDir;
+
+    private final PdfService pdfService = mock(PdfService.class);
+    private ExecutorService executor;
+    private PdfReportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        service = new PdfReportJobService(pdfService, new StorageService(storageDir.toString()), executor,
+                Duration.ofMinutes(10), Duration.ofDays(1), 10);
+        doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write(PDF);
+            return null;
+        }).when(pdfService).writePdf(anyString(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void job_renders_once_into_a_content_addressed_artifact() throws Exception {
+        when(pdfService.renderHtml(any(), eq("v4_engine"))).thenReturn("<html>a</html>");
+
+        PdfReportJobService.ReportJob job = service.submit(PdfRequestDto.builder().build(), "v4_engine");
+        PdfReportJobService.ReportJob done = job.whenDone().get(5, TimeUnit.SECONDS);
+
+        assertThat(done.getStatus()).isEqualTo(PdfReportJobService.ReportJobStatus.COMPLETED);
+        assertThat(done.getSizeBytes()).isEqualTo(PDF.length);
+        Path artifact = service.artifact(done);
+        assertThat(artifact.getFileName().toString()).isEqualTo(done.getContentHash() + ".pdf");
+        assertThat(Files.readAllBytes(artifact)).isEqualTo(PDF);
+        assertThat(service.getJob(job.getId())).isSameAs(job);
+    }
+
+    @Test
+    void identical_payloads_share_one_render() throws Exception {
+        when(pdfService.renderHtml(any(), anyString())).thenReturn("<html>same</html>");
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            inv.getArgument(1, OutputStream.class).write(PDF);
+            return null;
+        }).when(pdfService).writePdf(anyString(), any());
+
+        PdfReportJobService.ReportJob first = service.submit(PdfRequestDto.builder().build(), "v4_engine");
+        PdfReportJobService.ReportJob second = service.submit(PdfRequestDto.builder().build(), "v4_engine");
+        release.countDown();
+        first.whenDone().get(5, TimeUnit.SECONDS);
+
+        // Joins the in-flight job, then reuses the artifact on disk.
+        assertThat(second).isSameAs(first);
+        PdfReportJobService.ReportJob third = service.submit(PdfRequestDto.builder().build(), "v4_engine");
+        assertThat(third.getId()).isNotEqualTo(first.getId());
+        assertThat(third.getStatus()).isEqualTo(PdfReportJobService.ReportJobStatus.COMPLETED);
+        assertThat(third.getContentHash()).isEqualTo(first.getContentHash());
+        verify(pdfService, times(1)).writePdf(anyString(), any());
+    }
+
+    @Test
+    void failed_render_is_reported_and_retried_on_resubmit() throws Exception {
+        when(pdfService.renderHtml(any(), anyString())).thenReturn("<html>b</html>");
+        doAnswer(inv -> {
+            throw new RuntimeException("PDF 생성 중 오류 발생");
+        }).doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write(PDF);
+            return null;
+        }).when(pdfService).writePdf(anyString(), any());
+
+        PdfReportJobService.ReportJob failed = service.submit(PdfRequestDto.builder().build(), "v4_engine")
+                .whenDone().get(5, TimeUnit.SECONDS);
+        assertThat(failed.getStatus()).isEqualTo(PdfReportJobService.ReportJobStatus.FAILED);
+        assertThat(failed.getErrorMessage()).isEqualTo("PDF 생성 중 오류 발생");
+        assertThatThrownBy(() -> service.artifact(failed)).isInstanceOf(IllegalStateException.class);
+        try (var files = Files.list(storageDir.resolve("reports"))) {
+            assertThat(files).isEmpty();
+        }
+
+        PdfReportJobService.ReportJob retried = service.submit(PdfRequestDto.builder().build(), "v4_engine")
+                .whenDone().get(5, TimeUnit.SECONDS);
+        assertThat(retried.getStatus()).isEqualTo(PdfReportJobService.ReportJobStatus.COMPLETED);
+    }
+
+    @Test
+    void full_queue_is_rejected_as_busy() {
+        when(pdfService.renderHtml(any(), anyString())).thenReturn("<html>c</html>");
+        PdfReportJobService rejecting = new PdfReportJobService(pdfService, new StorageService(storageDir.toString()),
+                task -> {
+                    throw new java.util.concurrent.RejectedExecutionException("full");
+                }, Duration.ofMinutes(10), Duration.ZERO, 0);
+
+        assertThatThrownBy(() -> rejecting.submit(PdfRequestDto.builder().build(), "v4_engine"))
+                .isInstanceOf(PdfRenderBusyException.class);
+        assertThatThrownBy(() -> rejecting.getJob(UUID.randomUUID())).isInstanceOf(PdfReportJobNotFoundException.class);
+    }
+
+    @Test
+    void sweep_deletes_artifacts_unused_past_the_retention_but_keeps_live_jobs() throws Exception {
+        when(pdfService.renderHtml(any(), anyString())).thenReturn("<html>d</html>");
+        PdfReportJobService.ReportJob job = service.submit(PdfRequestDto.builder().build(), "v4_engine")
+                .whenDone().get(5, TimeUnit.SECONDS);
+        Instant now = Instant.now();
+        Path live = service.artifact(job);
+        Path stale = artifact("stale", 1, now.minus(Duration.ofDays(2)));
+        Path orphanTmp = artifact("crashed.pdf.x", 1, now.minus(Duration.ofDays(2)), ".tmp");
+        Path recent = artifact("recent", 1, now.minus(Duration.ofHours(1)));
+        Files.setLastModifiedTime(live, FileTime.from(now.minus(Duration.ofDays(3))));
+
+        assertThat(service.sweep(now)).isEqualTo(2);
+
+        assertThat(stale).doesNotExist();
+        assertThat(orphanTmp).doesNotExist();
+        assertThat(recent).exists();
+        assertThat(live).exists();
+    }
+
+    @Test
+    void sweep_trims_least_recently_used_artifacts_to_the_size_limit() throws Exception {
+        Instant now = Instant.now();
+        Path oldest = artifact("a", 6, now.minus(Duration.ofHours(3)));
+        Path middle = artifact("b", 6, now.minus(Duration.ofHours(2)));
+        Path newest = artifact("c", 4, now.minus(Duration.ofHours(1)));
+
+        assertThat(service.sweep(now)).isEqualTo(1);
+
+        assertThat(oldest).doesNotExist();
+        assertThat(middle).exists();
+        assertThat(newest).exists();
+    }
+
+    @Test
+    void swept_artifact_of_a_completed_job_is_not_found() throws Exception {
+        when(pdfService.renderHtml(any(), anyString())).thenReturn("<html>e</html>");
+        PdfReportJobService.ReportJob job = service.submit(PdfRequestDto.builder().build(), "v4_engine")
+                .whenDone().get(5, TimeUnit.SECONDS);
+        Files.delete(service.artifact(job));
+
+        assertThatThrownBy(() -> service.artifact(job)).isInstanceOf(PdfReportJobNotFoundException.class);
+    }
+
+    private Path artifact(String hash, int size, Instant lastUsed) throws Exception {
+        return artifact(hash, size, lastUsed, ".pdf");
+    }
+
+    private Path artifact(String name, int size, Instant lastUsed, String suffix) throws Exception {
+        Path dir = Files.createDirectories(storageDir.resolve("reports"));
+        Path file = Files.write(dir.resolve(name + suffix), new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(lastUsed));
+        return file;
+    }
+}
@@ -0,0 +1,88 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class QuizSamplerTest {
+
+    private static final QuizSampler.IdPool POOL =
+            QuizSampler.IdPool.of(LongStream.rangeClosed(1, 1000).boxed().toList());
+
+    @Test
+    void sample_returns_distinct_ids_outside_the_exclusion_list() {
+        Set<Long> excluded = new HashSet<>(LongStream.rangeClosed(1, 500).boxed().toList());
+        Random random = new Random(7);
+
+        for (int round = 0; round < 50; round++) {
+            List<Long> ids = POOL.sample(20, excluded, random);
+
+            assertThat(ids).hasSize(20).doesNotHaveDuplicates();
+            assertThat(ids).allMatch(id -> id > 500 && id <= 1000);
+        }
+    }
+
+    @Test
+    void sample_returns_every_remaining_id_when_few_are_left() {
+        List<Long> excluded = LongStream.rangeClosed(1, 997).boxed().toList();
+
+        List<Long> ids = POOL.sample(5, excluded, new Random(1));
+
+        assertThat(ids).containsExactlyInAnyOrder(998L, 999L, 1000L);
+    }
+
+    @Test
+    void heavily_excluded_pool_does_not_fall_back_to_rejection_sampling() {
+        // 100 free ids out of 1000: rejection sampling would need ~10 draws per pick.
+        List<Long> excluded = LongStream.rangeClosed(1, 900).boxed().toList();
+        CountingRandom random = new CountingRandom(11);
+
+        List<Long> ids = POOL.sample(50, excluded, random);
+
+        assertThat(ids).hasSize(50).doesNotHaveDuplicates().allMatch(id -> id > 900);
+        assertThat(random.draws).isEqualTo(50);
+    }
+
+    @Test
+    void sample_ignores_unknown_and_null_excluded_ids() {
+        QuizSampler.IdPool pool = QuizSampler.IdPool.of(List.of(3L, 1L, 2L, 2L));
+
+        List<Long> ids = pool.sample(10, java.util.Arrays.asList(-1L, null, 2L), new Random(3));
+
+        assertThat(pool.size()).isEqualTo(3);
+        assertThat(ids).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void sample_excludes_by_id_in_pools_with_gaps() {
+        QuizSampler.IdPool pool = QuizSampler.IdPool.of(List.of(10L, 40L, 20L));
+
+        assertThat(pool.sample(10, List.of(20L, 30L), new Random(5))).containsExactlyInAnyOrder(10L, 40L);
+    }
+
+    @Test
+    void sample_of_empty_pool_is_empty() {
+        assertThat(QuizSampler.IdPool.of(List.of()).sample(3, null, new Random())).isEmpty();
+    }
+
+    private static final class CountingRandom extends Random {
+
+        private int draws;
+
+        CountingRandom(long seed) {
+            super(seed);
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            draws++;
+            return super.nextInt(bound);
+        }
+    }
+}
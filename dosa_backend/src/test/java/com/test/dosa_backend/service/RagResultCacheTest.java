@@ -0,0 +1,94 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.test.dosa_backend.rag.RetrievalMode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RagResultCacheTest {
+
+    private static final RagService.RetrievalStats STATS =
+            new RagService.RetrievalStats(RetrievalMode.VECTOR, 1, 1, 0, 1, 0, false);
+
+    @Test
+    void key_ignores_whitespace_case_and_document_order() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        RagResultCache.Key k1 = RagResultCache.key("  V4 엔진   구조 ", List.of(a, b), 2, "m", RetrievalMode.VECTOR, null);
+        RagResultCache.Key k2 = RagResultCache.key("v4 엔진 구조", List.of(b, a), 2, "m", RetrievalMode.VECTOR, null);
+
+        assertThat(k1).isEqualTo(k2);
+    }
+
+    @Test
+    void invalidate_document_drops_matching_and_unfiltered_entries() {
+        RagResultCache cache = new RagResultCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100);
+        UUID doc = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        RagResultCache.Key filtered = RagResultCache.key("q", List.of(doc), 2, "m", RetrievalMode.VECTOR, null);
+        RagResultCache.Key unfiltered = RagResultCache.key("q", null, 2, "m", RetrievalMode.VECTOR, null);
+        RagResultCache.Key unrelated = RagResultCache.key("q", List.of(other), 2, "m", RetrievalMode.VECTOR, null);
+
+        for (RagResultCache.Key key : List.of(filtered, unfiltered, unrelated, filtered, unfiltered, unrelated)) {
+            cache.get(key, () -> load(loads), r -> true);
+        }
+        assertThat(loads).hasValue(3);
+
+        cache.invalidateDocument(doc);
+        for (RagResultCache.Key key : List.of(filtered, unfiltered, unrelated)) {
+            cache.get(key, () -> load(loads), r -> true);
+        }
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void result_computed_across_an_invalidation_is_not_served() {
+        RagResultCache cache = new RagResultCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100);
+        UUID doc = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        RagResultCache.Key key = RagResultCache.key("q", List.of(doc), 2, "m", RetrievalMode.VECTOR, null);
+        RagResultCache.Key unrelated = RagResultCache.key("q", List.of(other), 2, "m", RetrievalMode.VECTOR, null);
+
+        // The document is re-ingested while its retrieval is running.
+        cache.get(key, () -> {
+            cache.invalidateDocument(doc);
+            return load(loads);
+        }, r -> true);
+        cache.get(key, () -> load(loads), r -> true);
+        assertThat(loads).hasValue(2);
+
+        // Invalidating one document keeps results filtered to other documents.
+        cache.get(unrelated, () -> load(loads), r -> true);
+        cache.invalidateDocument(doc);
+        cache.get(unrelated, () -> load(loads), r -> true);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void rejected_results_are_not_stored() {
+        RagResultCache cache = new RagResultCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100);
+        AtomicInteger loads = new AtomicInteger();
+        RagResultCache.Key key = RagResultCache.key("q", null, 2, "m", RetrievalMode.VECTOR, null);
+
+        cache.get(key, () -> load(loads), r -> false);
+        cache.get(key, () -> load(loads), r -> false);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private static RagService.RagResult load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new RagService.RagResult("ctx", List.of(), STATS);
+    }
+}
@@ -6,18 +6,26 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.Test;
 
+import com.test.dosa_backend.config.RetrievalProperties;
 import com.test.dosa_backend.openai.OpenAiClient;
+import com.test.dosa_backend.rag.LexicalSearchRepository;
+import com.test.dosa_backend.rag.RetrievalMode;
 import com.test.dosa_backend.rag.VectorStoreRepository;
 import com.test.dosa_backend.repository.DocumentChunkRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class RagServiceTest {
 
     @Test
@@ -26,7 +34,9 @@ class RagServiceTest {
         VectorStoreRepository vectorStoreRepository = mock(VectorStoreRepository.class);
         DocumentChunkRepository documentChunkRepository = mock(DocumentChunkRepository.class);
 
-        RagService ragService = new RagService(openAiClient, vectorStoreRepository, documentChunkRepository);
+        RagService ragService = new RagService(openAiClient, vectorStoreRepository, documentChunkRepository,
+                mock(LexicalSearchRepository.class), new RetrievalProperties(), Runnable::run,
+                new RagResultCache(new SimpleMeterRegistry(), false, Duration.ofMinutes(1), 10));
 
         when(documentChunkRepository.count()).thenReturn(10L);
         when(openAiClient.embedTexts(any())).thenReturn(List.of(new float[] {0.1f, 0.2f}));
@@ -47,5 +57,31 @@ class RagServiceTest {
         assertThat(result.contextText()).contains("doc title");
         assertThat(result.citations()).hasSize(1);
     }
-}
 
+    @Test
+    void hybrid_retrieval_falls_back_to_vector_results_when_the_retrieval_executor_is_saturated() {
+        OpenAiClient openAiClient = mock(OpenAiClient.class);
+        VectorStoreRepository vectorStoreRepository = mock(VectorStoreRepository.class);
+        DocumentChunkRepository documentChunkRepository = mock(DocumentChunkRepository.class);
+        LexicalSearchRepository lexicalSearchRepository = mock(LexicalSearchRepository.class);
+
+        RagService ragService = new RagService(openAiClient, vectorStoreRepository, documentChunkRepository,
+                lexicalSearchRepository, new RetrievalProperties(),
+                task -> {
+                    throw new RejectedExecutionException("queue full");
+                },
+                new RagResultCache(new SimpleMeterRegistry(), false, Duration.ofMinutes(1), 10));
+
+        when(documentChunkRepository.count()).thenReturn(10L);
+        when(openAiClient.embedTexts(any())).thenReturn(List.of(new float[] {0.1f, 0.2f}));
+        VectorStoreRepository.SearchHit hit = new VectorStoreRepository.SearchHit(
+                UUID.randomUUID(), UUID.randomUUID(), 0, "chunk text", "{}", "doc title", 0.12);
+        when(vectorStoreRepository.similaritySearch(any(float[].class), anyInt(), isNull())).thenReturn(List.of(hit));
+
+        RagService.RagResult result = ragService.retrieve("네트워크 설명", 5, List.of(), RagService.RetrievalOptions.of(RetrievalMode.HYBRID));
+
+        verify(lexicalSearchRepository, never()).search(any(), anyInt(), any());
+        assertThat(result.citations()).hasSize(1);
+        assertThat(result.stats().degraded()).isTrue();
+    }
+}
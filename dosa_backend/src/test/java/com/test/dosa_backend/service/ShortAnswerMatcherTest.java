@@ -0,0 +1,86 @@
+package com.test.dosa_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ShortAnswerMatcherTest {
+
+    @Test
+    void whitespace_case_and_separators_are_ignored() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile("크랭크 샤프트", null, 0);
+
+        assertThat(matcher.matches("크랭크샤프트")).isTrue();
+        assertThat(matcher.matches(" 크랭크-샤프트 ")).isTrue();
+        assertThat(ShortAnswerMatcher.compile("Piston Ring", null, 0).matches("piston_ring")).isTrue();
+    }
+
+    @Test
+    void accepted_synonyms_match() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile("크랭크샤프트", "crankshaft|크랭크축\n크랭크 축", 0);
+
+        assertThat(matcher.matches("Crankshaft")).isTrue();
+        assertThat(matcher.matches("크랭크 축")).isTrue();
+        assertThat(matcher.matches("캠샤프트")).isFalse();
+    }
+
+    @Test
+    void small_typos_are_accepted_within_the_length_budget() {
+        // 크랭크샤프트 -> 6 syllables, one edit allowed; 크랭크샤푸트 differs in one vowel.
+        assertThat(ShortAnswerMatcher.compile("크랭크샤프트", null, 2).matches("크랭크샤푸트")).isTrue();
+        assertThat(ShortAnswerMatcher.compile("크랭크샤프트", null, 2).matches("캠샤프트")).isFalse();
+        assertThat(ShortAnswerMatcher.compile("크랭크샤프트", null, 0).matches("크랭크샤푸트")).isFalse();
+        // Short answers must match exactly.
+        assertThat(ShortAnswerMatcher.compile("cam", null, 2).matches("cap")).isFalse();
+        assertThat(ShortAnswerMatcher.compile("밸브", null, 2).matches("벨브")).isFalse();
+    }
+
+    @Test
+    void short_terms_one_jamo_apart_are_different_answers() {
+        assertThat(ShortAnswerMatcher.compile("압축", null, 2).matches("압출")).isFalse();
+        assertThat(ShortAnswerMatcher.compile("점화", null, 2).matches("정화")).isFalse();
+        assertThat(ShortAnswerMatcher.compile("압축 행정", null, 2).matches("압출 행정")).isFalse();
+        assertThat(ShortAnswerMatcher.compile("점화 플러그", null, 2).matches("점화플러그")).isTrue();
+    }
+
+    @Test
+    void digits_must_match_exactly() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile("4행정 사이클", null, 2);
+
+        assertThat(matcher.matches("4행정사이클")).isTrue();
+        assertThat(matcher.matches("5행정 사이클")).isFalse();
+    }
+
+    @Test
+    void blank_answers_never_match() {
+        assertThat(ShortAnswerMatcher.compile("피스톤", null, 2).matches("  ")).isFalse();
+        assertThat(ShortAnswerMatcher.compile(" ", null, 2).matches(" ")).isFalse();
+    }
+
+    @Test
+    void banded_distance_matches_the_full_levenshtein_distance() {
+        String[] words = {"kitten", "sitting", "sittin", "kitchen", "mitten", "kit", "", "flaw", "lawn"};
+        for (String a : words) {
+            for (String b : words) {
+                int full = levenshtein(a, b);
+                for (int max = 1; max <= 3; max++) {
+                    int banded = ShortAnswerMatcher.distance(a.toCharArray(), b.toCharArray(), max);
+                    assertThat(banded).as("%s/%s max=%d", a, b, max).isEqualTo(Math.min(full, max + 1));
+                }
+            }
+        }
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}